@@ -0,0 +1,291 @@
+package com.igot.cb.benchmarks;
+
+import com.igot.cb.access_settings.contoller.AccessSettingsController;
+import com.igot.cb.access_settings.service.impl.AccessSettingsServiceImpl;
+import com.igot.cb.access_settings.util.PayloadValidation;
+import com.igot.cb.transactional.cassandrautils.CassandraOperation;
+import com.igot.cb.transactional.cassandrautils.RecordPage;
+import com.igot.cb.transactional.util.ApiResponse;
+import com.igot.cb.transactional.util.Constants;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.catalina.Context;
+import org.apache.catalina.Wrapper;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+/**
+ * Load test for the access-settings upsert, comparing the blocking {@code /v1/upsert} with the
+ * non-blocking {@code /v2/upsert} under the same concurrency.
+ * <p>
+ * Each endpoint runs on a fresh embedded Tomcat with the real controller and service, backed by
+ * a stand-in {@link CassandraOperation} whose writes take a fixed latency: the blocking insert
+ * sleeps, the asynchronous one completes from a single scheduler thread, the way the driver
+ * completes requests from its I/O threads. The client keeps {@code concurrency} requests in
+ * flight for the run and reports throughput, p50 and p99 latency, and the peak number of
+ * Tomcat worker threads, both busy and created.
+ * <p>
+ * Run it from the benchmarks jar:
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.igot.cb.benchmarks.AccessSettingsLoadTest \
+ *     [concurrency=400] [seconds=10] [writeLatencyMillis=20] [tomcatMaxThreads=200]
+ * </pre>
+ */
+public final class AccessSettingsLoadTest {
+
+    private static final String PAYLOAD = "{\"contentId\":\"do_1140457453451018241\",\"accessControl\":"
+            + "{\"userGroups\":[{\"userGroupName\":\"Group 1\",\"userGroupCriteriaList\":"
+            + "[{\"criteriaKey\":\"designation\",\"criteriaValue\":[\"Manager\"]}]}]}}";
+    private static final int WARMUP_SECONDS = 2;
+
+    private static int writeLatencyMillis;
+
+    private AccessSettingsLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = intArg(args, 0, 400);
+        int seconds = intArg(args, 1, 10);
+        writeLatencyMillis = intArg(args, 2, 20);
+        int maxThreads = intArg(args, 3, 200);
+        // Per-request logging would otherwise dominate the measurement
+        LoggingSystem loggingSystem = LoggingSystem.get(AccessSettingsLoadTest.class.getClassLoader());
+        loggingSystem.beforeInitialize();
+        loggingSystem.setLogLevel(LoggingSystem.ROOT_LOGGER_NAME, LogLevel.WARN);
+        System.out.printf("concurrency=%d seconds=%d writeLatencyMillis=%d tomcatMaxThreads=%d%n",
+                concurrency, seconds, writeLatencyMillis, maxThreads);
+        System.out.printf("%-10s %10s %10s %10s %12s %12s %8s%n",
+                "endpoint", "req/s", "p50 ms", "p99 ms", "busy peak", "pool peak", "errors");
+        for (String endpoint : List.of("v1/upsert", "v2/upsert")) {
+            Tomcat tomcat = startServer(maxThreads);
+            try {
+                Connector connector = tomcat.getConnector();
+                ThreadPoolExecutor executor = (ThreadPoolExecutor) connector.getProtocolHandler().getExecutor();
+                URI uri = URI.create("http://localhost:" + connector.getLocalPort() + "/accessSetttings/" + endpoint);
+                run(uri, concurrency, WARMUP_SECONDS, null);
+                Result result = run(uri, concurrency, seconds, executor);
+                System.out.printf("%-10s %10.0f %10.1f %10.1f %12d %12d %8d%n", endpoint,
+                        result.requests / (double) seconds, result.percentileMillis(0.50),
+                        result.percentileMillis(0.99), result.busyThreadsPeak,
+                        executor.getLargestPoolSize(), result.errors);
+            } finally {
+                tomcat.stop();
+                tomcat.destroy();
+            }
+        }
+        System.exit(0);
+    }
+
+    private static Tomcat startServer(int maxThreads) throws Exception {
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(Files.createTempDirectory("access-settings-load-test").toString());
+        Connector connector = new Connector();
+        connector.setPort(0);
+        connector.setProperty("maxThreads", String.valueOf(maxThreads));
+        tomcat.setConnector(connector);
+        Context context = tomcat.addContext("", null);
+        AnnotationConfigWebApplicationContext applicationContext = new AnnotationConfigWebApplicationContext();
+        applicationContext.register(LoadTestConfig.class);
+        Wrapper servlet = Tomcat.addServlet(context, "dispatcher", new DispatcherServlet(applicationContext));
+        servlet.setAsyncSupported(true);
+        servlet.setLoadOnStartup(1);
+        context.addServletMappingDecoded("/", "dispatcher");
+        tomcat.start();
+        return tomcat;
+    }
+
+    private static Result run(URI uri, int concurrency, int seconds, ThreadPoolExecutor executor)
+            throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newFixedThreadPool(4)).build();
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .header(Constants.X_AUTH_TOKEN, "load-test-token")
+                .PUT(HttpRequest.BodyPublishers.ofString(PAYLOAD))
+                .build();
+        Semaphore inFlight = new Semaphore(concurrency);
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        LongAdder errors = new LongAdder();
+        AtomicInteger busyThreadsPeak = new AtomicInteger();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        if (executor != null) {
+            sampler.scheduleAtFixedRate(() -> busyThreadsPeak.accumulateAndGet(executor.getActiveCount(), Math::max),
+                    0, 10, TimeUnit.MILLISECONDS);
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        while (System.nanoTime() < deadline) {
+            inFlight.acquire();
+            long start = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                if (error != null || response.statusCode() != 200) {
+                    errors.increment();
+                } else {
+                    latencies.add(System.nanoTime() - start);
+                }
+                inFlight.release();
+            });
+        }
+        inFlight.acquire(concurrency);
+        sampler.shutdownNow();
+        return new Result(latencies, errors.intValue(), busyThreadsPeak.get());
+    }
+
+    private static int intArg(String[] args, int index, int defaultValue) {
+        return args.length > index ? Integer.parseInt(args[index]) : defaultValue;
+    }
+
+    private static final class Result {
+        private final long[] sortedLatencies;
+        private final int requests;
+        private final int errors;
+        private final int busyThreadsPeak;
+
+        private Result(List<Long> latencies, int errors, int busyThreadsPeak) {
+            this.sortedLatencies = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            this.requests = sortedLatencies.length;
+            this.errors = errors;
+            this.busyThreadsPeak = busyThreadsPeak;
+        }
+
+        private double percentileMillis(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+
+    @Configuration
+    @EnableWebMvc
+    static class LoadTestConfig {
+
+        @Bean
+        public AccessSettingsController accessSettingsController() {
+            return new AccessSettingsController();
+        }
+
+        @Bean
+        public PayloadValidation payloadValidation() {
+            return new PayloadValidation();
+        }
+
+        @Bean
+        public AccessSettingsServiceImpl accessSettingsService(PayloadValidation payloadValidation) {
+            return new AccessSettingsServiceImpl(payloadValidation);
+        }
+
+        @Bean
+        public CassandraOperation cassandraOperation() {
+            return new FixedLatencyCassandraOperation();
+        }
+    }
+
+    /**
+     * Stands in for Cassandra: every write succeeds after {@code writeLatencyMillis}.
+     */
+    static class FixedLatencyCassandraOperation implements CassandraOperation {
+
+        private final ScheduledExecutorService driverThread = Executors.newSingleThreadScheduledExecutor();
+
+        @Override
+        public Object insertRecord(String keyspaceName, String tableName, Map<String, Object> request) {
+            try {
+                Thread.sleep(writeLatencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return success();
+        }
+
+        @Override
+        public CompletionStage<ApiResponse> insertRecordAsync(String keyspaceName, String tableName,
+                                                              Map<String, Object> request) {
+            CompletableFuture<ApiResponse> write = new CompletableFuture<>();
+            driverThread.schedule(() -> write.complete(success()), writeLatencyMillis, TimeUnit.MILLISECONDS);
+            return write;
+        }
+
+        private static ApiResponse success() {
+            ApiResponse response = new ApiResponse();
+            response.put(Constants.RESPONSE, Constants.SUCCESS);
+            return response;
+        }
+
+        @Override
+        public List<ApiResponse> insertRecords(String keyspaceName, String tableName,
+                List<Map<String, Object>> requests) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletionStage<List<ApiResponse>> insertRecordsAsync(String keyspaceName, String tableName,
+                List<Map<String, Object>> requests) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Map<String, Object>> getRecordsByPropertiesWithoutFiltering(String keyspaceName, String tableName,
+                Map<String, Object> propertyMap, List<String> fields, Integer limit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<String, Object> updateRecord(String keyspaceName, String tableName,
+                Map<String, Object> updateAttributes, Map<String, Object> compositeKey) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletionStage<List<Map<String, Object>>> getRecordsAsync(String keyspaceName, String tableName,
+                Map<String, Object> propertyMap, List<String> fields, Integer limit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public RecordPage getRecordsPage(String keyspaceName, String tableName, Map<String, Object> propertyMap,
+                List<String> fields, Integer pageSize, String pagingState) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletionStage<RecordPage> getRecordsPageAsync(String keyspaceName, String tableName,
+                Map<String, Object> propertyMap, List<String> fields, Integer pageSize, String pagingState) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletionStage<Map<String, Object>> updateRecordAsync(String keyspaceName, String tableName,
+                Map<String, Object> updateAttributes, Map<String, Object> compositeKey) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CassandraOperation withProfile(String profileName) {
+            return this;
+        }
+    }
+}
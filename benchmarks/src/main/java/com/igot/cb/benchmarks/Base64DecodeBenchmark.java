@@ -0,0 +1,69 @@
+package com.igot.cb.benchmarks;
+
+import com.igot.cb.authentication.util.Base64Util;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decodes the segments of a Keycloak-sized token with {@link Base64Util} and with the JDK
+ * URL decoder. The flags are the ones used for JWT segments: {@code URL_SAFE | NO_PADDING | NO_WRAP}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class Base64DecodeBenchmark {
+
+    private static final int JWT_FLAGS = Base64Util.URL_SAFE | Base64Util.NO_PADDING | Base64Util.NO_WRAP;
+
+    @Param({"header", "body", "signature"})
+    public String segment;
+
+    private byte[] encoded;
+    private byte[] buffer;
+
+    @Setup
+    public void setUp() throws Exception {
+        String token = TokenFixtures.signedToken(TokenFixtures.newKeyPair(), TokenFixtures.keycloakBody());
+        String[] segments = token.split("\\.");
+        int index = switch (segment) {
+            case "header" -> 0;
+            case "body" -> 1;
+            default -> 2;
+        };
+        encoded = segments[index].getBytes(StandardCharsets.US_ASCII);
+        buffer = new byte[Base64Util.maxDecodedLength(encoded.length)];
+    }
+
+    @Benchmark
+    public byte[] base64Util() {
+        return Base64Util.decode(encoded, JWT_FLAGS);
+    }
+
+    /**
+     * Decodes into a reused buffer, without allocating.
+     */
+    @Benchmark
+    public int base64UtilIntoBuffer() {
+        return Base64Util.decode(encoded, 0, encoded.length, JWT_FLAGS, buffer, 0);
+    }
+
+    @Benchmark
+    public byte[] jdkUrlDecoder() {
+        return Base64.getUrlDecoder().decode(encoded);
+    }
+}
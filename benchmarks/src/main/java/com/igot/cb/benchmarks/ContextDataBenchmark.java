@@ -0,0 +1,96 @@
+package com.igot.cb.benchmarks;
+
+import com.igot.cb.access_settings.util.ContextDataCodec;
+import com.igot.cb.access_settings.util.ContextDataFormat;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import net.jpountz.lz4.LZ4Factory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encoding and decoding the {@code contextdata} of an access setting rule with
+ * {@code userGroups} user groups through {@link ContextDataCodec}: plain JSON ({@code json}),
+ * LZ4-compressed JSON ({@code lz4}), and Base64 Smile ({@code smile}) and CBOR ({@code cbor}).
+ * Encoding starts from the rule map; decoding ends with the rule map, the way a reader of the
+ * rule would use it.
+ * <p>
+ * The setup prints the stored size of the rule, and, for JSON, its size once LZ4 protocol
+ * compression has compressed it on the wire, so the latency can be weighed against the bytes
+ * moved over the network and kept on disk.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContextDataBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int userGroups;
+
+    @Param({"json", "lz4", "smile", "cbor"})
+    public String encoding;
+
+    private ContextDataCodec codec;
+    private Map<String, Object> rule;
+    private String stored;
+
+    @Setup
+    public void setUp() throws Exception {
+        codec = "lz4".equals(encoding)
+                ? new ContextDataCodec(ContextDataFormat.JSON, true, 1024)
+                : new ContextDataCodec(ContextDataFormat.fromName(encoding, ContextDataFormat.JSON), false, 0);
+        rule = rule(userGroups);
+        stored = codec.encode(rule);
+        String wire = "";
+        if ("json".equals(encoding)) {
+            byte[] json = stored.getBytes(StandardCharsets.UTF_8);
+            wire = " with lz4 protocol=" + LZ4Factory.fastestInstance().fastCompressor().compress(json).length;
+        }
+        System.out.printf("%nuserGroups=%d %s contextdata bytes=%d%s%n", userGroups, encoding,
+                stored.getBytes(StandardCharsets.UTF_8).length, wire);
+    }
+
+    @Benchmark
+    public Object encode() throws Exception {
+        return codec.encode(rule);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return codec.decode(stored);
+    }
+
+    static Map<String, Object> rule(int userGroups) {
+        List<Map<String, Object>> groups = new ArrayList<>(userGroups);
+        for (int i = 0; i < userGroups; i++) {
+            Map<String, Object> criteria = new HashMap<>();
+            criteria.put("criteriaKey", i % 2 == 0 ? "designation" : "rootOrgId");
+            criteria.put("criteriaValue", List.of("Manager", "Section Officer", "0130" + (1000000 + i)));
+            Map<String, Object> group = new HashMap<>();
+            group.put("userGroupId", "5f0c4e2a-1d3b-4c8e-9a7f-" + String.format("%012d", i));
+            group.put("userGroupName", "Group " + i);
+            group.put("userGroupCriteriaList", List.of(criteria));
+            groups.add(group);
+        }
+        Map<String, Object> rule = new HashMap<>();
+        rule.put("contentId", "do_1140457453451018241");
+        rule.put("accessControl", Map.of("userGroups", groups));
+        return rule;
+    }
+}
@@ -0,0 +1,114 @@
+package com.igot.cb.benchmarks;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.igot.cb.transactional.cassandrautils.CassandraConnectionManager;
+import com.igot.cb.transactional.cassandrautils.CassandraOperationImpl;
+import com.igot.cb.transactional.cassandrautils.CassandraUtil;
+import com.igot.cb.transactional.util.ApiResponse;
+import com.igot.cb.transactional.util.Constants;
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * {@link CassandraOperationImpl#insertRecord(String, String, Map)} against a stand-in session,
+ * so no cluster is needed. {@code prepareEveryCall} is the previous code path, which built the
+ * INSERT text and prepared it on every write; {@code cachedPrepare} goes through the prepared
+ * statement cache. Both build the same response. Executing is free, and preparing burns {@code prepareCostTokens} of
+ * {@link Blackhole#consumeCPU(long)} as a stand-in for the driver lookup and server round trip,
+ * so the difference is the client-side saving plus whatever the real prepare costs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InsertRecordBenchmark {
+
+    private static final String KEYSPACE = "sunbird_course";
+    private static final String TABLE = "access_settings_rules";
+
+    @Param({"0", "2000"})
+    public long prepareCostTokens;
+
+    private CqlSession session;
+    private CassandraOperationImpl cassandraOperation;
+    private Map<String, Object> request;
+
+    @Setup
+    public void setUp() throws Exception {
+        BoundStatement[] boundStatement = new BoundStatement[1];
+        boundStatement[0] = stub(BoundStatement.class,
+                (method, args) -> "setIdempotent".equals(method) ? boundStatement[0] : null);
+        PreparedStatement preparedStatement = stub(PreparedStatement.class,
+                (method, args) -> "bind".equals(method) ? boundStatement[0] : null);
+        session = stub(CqlSession.class, (method, args) -> {
+            switch (method) {
+                case "prepare":
+                    Blackhole.consumeCPU(prepareCostTokens);
+                    return preparedStatement;
+                case "prepareAsync":
+                    Blackhole.consumeCPU(prepareCostTokens);
+                    return CompletableFuture.completedFuture(preparedStatement);
+                case "executeAsync":
+                    return CompletableFuture.completedFuture(null);
+                case "getMetrics":
+                    return Optional.empty();
+                default:
+                    return null;
+            }
+        });
+        CassandraConnectionManager connectionManager = keyspaceName -> session;
+        cassandraOperation = new CassandraOperationImpl();
+        Field connectionManagerField = CassandraOperationImpl.class.getDeclaredField("connectionManager");
+        connectionManagerField.setAccessible(true);
+        connectionManagerField.set(cassandraOperation, connectionManager);
+        request = new HashMap<>();
+        request.put("contextid", "do_1140457453451018241");
+        request.put("contextdata", "{\"userGroups\":[]}");
+        request.put("isarchived", false);
+    }
+
+    @Benchmark
+    public Object prepareEveryCall() {
+        String query = CassandraUtil.getPreparedStatement(KEYSPACE, TABLE, request);
+        PreparedStatement statement = session.prepare(query);
+        session.execute(statement.bind(request.values().toArray()));
+        ApiResponse response = new ApiResponse();
+        response.put(Constants.RESPONSE, Constants.SUCCESS);
+        return response;
+    }
+
+    @Benchmark
+    public Object cachedPrepare() {
+        return cassandraOperation.insertRecord(KEYSPACE, TABLE, request);
+    }
+
+    private interface Answer {
+        Object answer(String method, Object[] args);
+    }
+
+    private static <T> T stub(Class<T> type, Answer answer) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> answer.answer(method.getName(), args)));
+    }
+}
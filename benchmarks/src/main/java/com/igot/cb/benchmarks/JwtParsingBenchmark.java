@@ -0,0 +1,106 @@
+package com.igot.cb.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.igot.cb.authentication.model.TokenClaims;
+import com.igot.cb.authentication.util.Base64Util;
+import com.igot.cb.authentication.util.CryptoUtil;
+import com.igot.cb.authentication.util.JwtToken;
+import com.igot.cb.authentication.util.TokenClaimsReader;
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the string-based JWT parsing that {@code AccessTokenValidator} used to do with the
+ * byte-based {@link JwtToken} path. Run with {@code -prof gc} and compare
+ * {@code gc.alloc.rate.norm}, the bytes allocated per validation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtParsingBenchmark {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {
+    };
+
+    /**
+     * Whether the RSA verification is part of the measured work. Without it the
+     * difference between the two parsing paths is easier to see.
+     */
+    @Param({"true", "false"})
+    public boolean verifySignature;
+
+    private String token;
+    private PublicKey publicKey;
+
+    @Setup
+    public void setUp() throws Exception {
+        KeyPair keyPair = TokenFixtures.newKeyPair();
+        publicKey = keyPair.getPublic();
+        token = TokenFixtures.signedToken(keyPair, TokenFixtures.minimalBody());
+    }
+
+    /**
+     * The previous implementation: regex split, payload concatenation and
+     * platform-charset strings for every decoded segment.
+     */
+    @Benchmark
+    public Map<String, Object> stringSegments() throws Exception {
+        String[] tokenElements = token.split("\\.");
+        String header = tokenElements[0];
+        String body = tokenElements[1];
+        String signature = tokenElements[2];
+        String payload = header + "." + body;
+        Map<String, Object> headerData = mapper.readValue(new String(Base64Util.decode(header, 11)), MAP_TYPE);
+        if (verifySignature && !CryptoUtil.verifyRSASign(payload, Base64Util.decode(signature, 11), publicKey, "SHA256withRSA")) {
+            throw new IllegalStateException("signature mismatch for " + headerData.get("kid"));
+        }
+        return mapper.readValue(new String(Base64Util.decode(body, 11)), MAP_TYPE);
+    }
+
+    /**
+     * The current implementation: segments located by index and decoded straight from the token bytes.
+     */
+    @Benchmark
+    public Map<String, Object> byteSegments() throws Exception {
+        JwtToken jwtToken = JwtToken.parse(token);
+        Map<String, Object> headerData = mapper.readValue(jwtToken.decodeHeader(), MAP_TYPE);
+        if (verifySignature && !CryptoUtil.verifyRSASign(jwtToken.bytes(), 0, jwtToken.signedLength(),
+                jwtToken.decodeSignature(), publicKey, "SHA256withRSA")) {
+            throw new IllegalStateException("signature mismatch for " + headerData.get("kid"));
+        }
+        return mapper.readValue(jwtToken.decodeBody(), MAP_TYPE);
+    }
+
+    /**
+     * The byte-based path with streaming claims extraction: only {@code kid}, {@code exp},
+     * {@code iss} and {@code sub} are read, the rest of the JSON is skipped.
+     */
+    @Benchmark
+    public TokenClaims byteSegmentsStreamingClaims() throws Exception {
+        JwtToken jwtToken = JwtToken.parse(token);
+        String keyId = TokenClaimsReader.readKeyId(jwtToken.decodeHeader());
+        if (verifySignature && !CryptoUtil.verifyRSASign(jwtToken.bytes(), 0, jwtToken.signedLength(),
+                jwtToken.decodeSignature(), publicKey, "SHA256withRSA")) {
+            throw new IllegalStateException("signature mismatch for " + keyId);
+        }
+        return TokenClaimsReader.readClaims(jwtToken.decodeBody());
+    }
+}
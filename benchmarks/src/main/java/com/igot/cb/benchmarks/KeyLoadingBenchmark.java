@@ -0,0 +1,40 @@
+package com.igot.cb.benchmarks;
+
+import com.igot.cb.authentication.util.KeyManager;
+import java.security.PublicKey;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parses a 2048-bit RSA public key from PEM with {@link KeyManager#loadPublicKey(String)},
+ * the work done per key file on every reload.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KeyLoadingBenchmark {
+
+    private String pem;
+
+    @Setup
+    public void setUp() throws Exception {
+        pem = TokenFixtures.publicKeyPem(TokenFixtures.newKeyPair());
+    }
+
+    @Benchmark
+    public PublicKey loadPublicKey() throws Exception {
+        return KeyManager.loadPublicKey(pem);
+    }
+}
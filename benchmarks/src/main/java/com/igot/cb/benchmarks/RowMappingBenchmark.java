@@ -0,0 +1,116 @@
+package com.igot.cb.benchmarks;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinition;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.detach.AttachmentPoint;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
+import com.datastax.oss.driver.internal.core.cql.DefaultColumnDefinition;
+import com.datastax.oss.driver.internal.core.cql.DefaultColumnDefinitions;
+import com.datastax.oss.driver.internal.core.cql.DefaultRow;
+import com.datastax.oss.protocol.internal.ProtocolConstants;
+import com.datastax.oss.protocol.internal.response.result.ColumnSpec;
+import com.datastax.oss.protocol.internal.response.result.RawType;
+import com.igot.cb.transactional.cassandrautils.CassandraUtil;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link CassandraUtil#createResponse(ResultSet)} on driver rows of an eight-column table.
+ * {@code byNameFreshMapping} is the previous code path, which rebuilt the column mapping for
+ * every result set and read each cell by name into a default-sized map; {@code cachedByIndex}
+ * reuses the row mapper of the column definitions, reads by index and sizes the map up front.
+ * Cells are decoded by the driver codecs in both.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RowMappingBenchmark {
+
+    private static final String[] TEXT_COLUMNS = {"contextid", "contextdata", "createdby", "updatedby", "status"};
+    private static final String[] INT_COLUMNS = {"version", "priority"};
+    private static final String BOOLEAN_COLUMN = "isarchived";
+
+    @Param({"100"})
+    public int rowCount;
+
+    private ColumnDefinitions columnDefinitions;
+    private List<Row> rows;
+    private ResultSet resultSet;
+
+    @Setup
+    public void setUp() {
+        List<ColumnDefinition> definitions = new ArrayList<>();
+        int index = 0;
+        for (String column : TEXT_COLUMNS) {
+            definitions.add(column(column, index++, ProtocolConstants.DataType.VARCHAR));
+        }
+        for (String column : INT_COLUMNS) {
+            definitions.add(column(column, index++, ProtocolConstants.DataType.INT));
+        }
+        definitions.add(column(BOOLEAN_COLUMN, index, ProtocolConstants.DataType.BOOLEAN));
+        columnDefinitions = DefaultColumnDefinitions.valueOf(definitions);
+        rows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            List<ByteBuffer> data = new ArrayList<>();
+            for (String column : TEXT_COLUMNS) {
+                data.add(TypeCodecs.TEXT.encode(column + "-" + i, ProtocolVersion.DEFAULT));
+            }
+            for (int j = 0; j < INT_COLUMNS.length; j++) {
+                data.add(TypeCodecs.INT.encode(i + j, ProtocolVersion.DEFAULT));
+            }
+            data.add(TypeCodecs.BOOLEAN.encode(i % 2 == 0, ProtocolVersion.DEFAULT));
+            rows.add(new DefaultRow(columnDefinitions, data, AttachmentPoint.NONE));
+        }
+        resultSet = (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getColumnDefinitions" -> columnDefinitions;
+                    case "iterator" -> rows.iterator();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static ColumnDefinition column(String name, int index, int type) {
+        return new DefaultColumnDefinition(
+                new ColumnSpec("sunbird_course", "access_settings_rules", name, index, RawType.PRIMITIVES.get(type)),
+                AttachmentPoint.NONE);
+    }
+
+    @Benchmark
+    public Object byNameFreshMapping() {
+        List<Map<String, Object>> responseList = new ArrayList<>();
+        Map<String, String> columnsMapping = CassandraUtil.fetchColumnsMapping(columnDefinitions);
+        for (Row row : rows) {
+            Map<String, Object> rowMap = new HashMap<>();
+            columnsMapping.forEach((key, value) -> rowMap.put(key, row.getObject(value)));
+            responseList.add(rowMap);
+        }
+        return responseList;
+    }
+
+    @Benchmark
+    public Object cachedByIndex() {
+        return CassandraUtil.createResponse(resultSet);
+    }
+}
@@ -0,0 +1,77 @@
+package com.igot.cb.benchmarks;
+
+import com.igot.cb.authentication.model.KeyData;
+import com.igot.cb.authentication.util.CryptoUtil;
+import com.igot.cb.authentication.util.JwtToken;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares RSA signature verification with a fresh {@code Signature} per call against the
+ * verifiers pooled on {@link KeyData}. Runs with several threads so the pool is contended
+ * the way it is under concurrent requests.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class SignatureVerificationBenchmark {
+
+    private static final String ALGORITHM = "SHA256withRSA";
+
+    private JwtToken jwtToken;
+    private byte[] signature;
+    private String signingInput;
+    private PublicKey publicKey;
+    private KeyData keyData;
+
+    @Setup
+    public void setUp() throws Exception {
+        KeyPair keyPair = TokenFixtures.newKeyPair();
+        publicKey = keyPair.getPublic();
+        keyData = new KeyData(TokenFixtures.KEY_ID, publicKey);
+        jwtToken = JwtToken.parse(TokenFixtures.signedToken(keyPair, TokenFixtures.minimalBody()));
+        signature = jwtToken.decodeSignature();
+        signingInput = new String(jwtToken.bytes(), 0, jwtToken.signedLength(), StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * The original String-based overload: the signed region is copied out of the token.
+     */
+    @Benchmark
+    public boolean stringPayload() {
+        return CryptoUtil.verifyRSASign(signingInput, signature, publicKey, ALGORITHM);
+    }
+
+    /**
+     * A new {@code Signature} is created and initialised on every call.
+     */
+    @Benchmark
+    public boolean perCallSignature() {
+        return CryptoUtil.verifyRSASign(jwtToken.bytes(), 0, jwtToken.signedLength(), signature, publicKey, ALGORITHM);
+    }
+
+    /**
+     * Verifiers are borrowed from the pool held by the key.
+     */
+    @Benchmark
+    public boolean pooledSignature() {
+        return CryptoUtil.verifyRSASign(jwtToken.bytes(), 0, jwtToken.signedLength(), signature, keyData, ALGORITHM);
+    }
+}
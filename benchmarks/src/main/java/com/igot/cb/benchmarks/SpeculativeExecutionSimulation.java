@@ -0,0 +1,112 @@
+package com.igot.cb.benchmarks;
+
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.api.core.config.DriverConfig;
+import com.datastax.oss.driver.api.core.config.DriverConfigLoader;
+import com.datastax.oss.driver.api.core.config.DriverExecutionProfile;
+import com.datastax.oss.driver.api.core.context.DriverContext;
+import com.datastax.oss.driver.api.core.specex.SpeculativeExecutionPolicy;
+import com.datastax.oss.driver.internal.core.specex.ConstantSpeculativeExecutionPolicy;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Simulates reads against three replicas, one of which stalls, with and without speculative
+ * execution, and prints the latency percentiles.
+ * <p>
+ * The healthy replicas answer in 2 ms plus an exponential tail with a 1 ms mean. The faulty
+ * replica behaves the same, except that {@code stallPercent} of its requests stall for
+ * {@code stallMillis}, the way a node in a GC pause or a compaction storm does. Each read picks
+ * its coordinator in turn, as the driver's query plans rotate through the replicas, and the
+ * next executions go to the following replicas. The delays between executions come from the
+ * driver's own {@link ConstantSpeculativeExecutionPolicy}, configured the way the service
+ * configures it. The read completes with its first response; executions not yet started by
+ * then are never sent. Time is simulated, so the run is fast and repeatable.
+ * <p>
+ * Run it from the benchmarks jar:
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.igot.cb.benchmarks.SpeculativeExecutionSimulation \
+ *     [requests=200000] [stallPercent=5] [stallMillis=300]
+ * </pre>
+ */
+public final class SpeculativeExecutionSimulation {
+
+    private static final int REPLICAS = 3;
+    private static final long SEED = 42;
+
+    private SpeculativeExecutionSimulation() {
+    }
+
+    public static void main(String[] args) {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        double stallProbability = (args.length > 1 ? Double.parseDouble(args[1]) : 5) / 100;
+        double stallMillis = args.length > 2 ? Double.parseDouble(args[2]) : 300;
+        System.out.printf("requests=%d replicas=%d faulty replica stalls %.1f%% of requests for %.0f ms%n",
+                requests, REPLICAS, stallProbability * 100, stallMillis);
+        System.out.printf("%-22s %8s %8s %8s %8s %14s%n",
+                "policy", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "executions/req");
+        run("none", null, requests, stallProbability, stallMillis);
+        for (int delayMillis : new int[]{10, 25, 50, 100}) {
+            run("max=2 delay=" + delayMillis + "ms", policy(2, delayMillis), requests, stallProbability, stallMillis);
+        }
+        run("max=3 delay=25ms", policy(3, 25), requests, stallProbability, stallMillis);
+    }
+
+    private static void run(String name, SpeculativeExecutionPolicy policy, int requests,
+                            double stallProbability, double stallMillis) {
+        Random random = new Random(SEED);
+        double[] latencies = new double[requests];
+        long executions = 0;
+        for (int i = 0; i < requests; i++) {
+            double completion = Double.MAX_VALUE;
+            double start = 0;
+            int execution = 0;
+            while (start < completion) {
+                int replica = (i + execution) % REPLICAS;
+                completion = Math.min(completion, start + latency(random, replica == 0, stallProbability, stallMillis));
+                executions++;
+                execution++;
+                long delay = policy == null || execution >= REPLICAS ? -1
+                        : policy.nextExecution(null, null, null, execution);
+                if (delay < 0) {
+                    break;
+                }
+                start += delay;
+            }
+            latencies[i] = completion;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%-22s %8.1f %8.1f %8.1f %8.1f %14.3f%n", name, percentile(latencies, 0.50),
+                percentile(latencies, 0.99), percentile(latencies, 0.999), latencies[requests - 1],
+                executions / (double) requests);
+    }
+
+    private static double latency(Random random, boolean faulty, double stallProbability, double stallMillis) {
+        double latency = 2 - Math.log(1 - random.nextDouble());
+        if (faulty && random.nextDouble() < stallProbability) {
+            latency += stallMillis;
+        }
+        return latency;
+    }
+
+    private static double percentile(double[] sorted, double percentile) {
+        return sorted[Math.max((int) Math.ceil(percentile * sorted.length) - 1, 0)];
+    }
+
+    private static SpeculativeExecutionPolicy policy(int maxExecutions, int delayMillis) {
+        DriverConfig config = DriverConfigLoader.programmaticBuilder()
+                .withInt(DefaultDriverOption.SPECULATIVE_EXECUTION_MAX, maxExecutions)
+                .withDuration(DefaultDriverOption.SPECULATIVE_EXECUTION_DELAY, Duration.ofMillis(delayMillis))
+                .build()
+                .getInitialConfig();
+        DriverContext context = (DriverContext) Proxy.newProxyInstance(DriverContext.class.getClassLoader(),
+                new Class<?>[]{DriverContext.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getConfig" -> config;
+                    case "getSessionName" -> "simulation";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        return new ConstantSpeculativeExecutionPolicy(context, DriverExecutionProfile.DEFAULT_NAME);
+    }
+}
@@ -0,0 +1,87 @@
+package com.igot.cb.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.util.Base64;
+
+/**
+ * Builds RS256-signed tokens with a locally generated key pair, so that benchmarks do not
+ * depend on a running Keycloak.
+ */
+public final class TokenFixtures {
+
+    public static final String KEY_ID = "benchmark-key";
+    public static final String REALM_URL = "https://portal.dev.karmayogibharat.net/auth/realms/sunbird";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private TokenFixtures() {
+    }
+
+    public static KeyPair newKeyPair() throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+
+    /**
+     * Signs a token with the given body, expiring one hour from now.
+     */
+    public static String signedToken(KeyPair keyPair, String bodyJson) throws GeneralSecurityException {
+        String header = ENCODER.encodeToString(
+                ("{\"alg\":\"RS256\",\"typ\":\"JWT\",\"kid\":\"" + KEY_ID + "\"}").getBytes(StandardCharsets.UTF_8));
+        String body = ENCODER.encodeToString(bodyJson.getBytes(StandardCharsets.UTF_8));
+        String signingInput = header + "." + body;
+        Signature signature = Signature.getInstance("SHA256withRSA");
+        signature.initSign(keyPair.getPrivate());
+        signature.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+        return signingInput + "." + ENCODER.encodeToString(signature.sign());
+    }
+
+    /**
+     * A minimal body carrying only the claims the service reads.
+     */
+    public static String minimalBody() {
+        long exp = System.currentTimeMillis() / 1000 + 3600;
+        return "{\"exp\":" + exp + ",\"iss\":\"" + REALM_URL + "\",\"sub\":\"f:5a8a3f2b:user-1\"}";
+    }
+
+    /**
+     * A body shaped like a Keycloak access token for the sunbird realm, about 1.3 KB of JSON.
+     */
+    public static String keycloakBody() {
+        long iat = System.currentTimeMillis() / 1000;
+        return "{\"exp\":" + (iat + 3600) + ",\"iat\":" + iat + ",\"auth_time\":" + iat + ","
+                + "\"jti\":\"4f0c6c1e-8f0a-4d7b-9a3c-6c1d2b7e9f10\","
+                + "\"iss\":\"" + REALM_URL + "\","
+                + "\"aud\":[\"realm-management\",\"account\"],"
+                + "\"sub\":\"f:5a8a3f2b-3409-42e0-9001-f913bc0fde31:8d2b0a6e-1f7c-4c35-b1a2-0e9f4d6c7a58\","
+                + "\"typ\":\"Bearer\",\"azp\":\"portal\","
+                + "\"session_state\":\"b3e4c1f2-7a6d-4e8b-9c0d-1a2b3c4d5e6f\","
+                + "\"acr\":\"1\",\"allowed-origins\":[\"https://portal.dev.karmayogibharat.net\"],"
+                + "\"realm_access\":{\"roles\":[\"offline_access\",\"uma_authorization\",\"PUBLIC\","
+                + "\"CONTENT_CREATOR\",\"CONTENT_REVIEWER\",\"MDO_ADMIN\"]},"
+                + "\"resource_access\":{\"realm-management\":{\"roles\":[\"view-users\",\"query-groups\","
+                + "\"query-users\"]},\"account\":{\"roles\":[\"manage-account\",\"manage-account-links\","
+                + "\"view-profile\"]}},"
+                + "\"scope\":\"openid profile email offline_access\","
+                + "\"sid\":\"b3e4c1f2-7a6d-4e8b-9c0d-1a2b3c4d5e6f\","
+                + "\"email_verified\":true,\"name\":\"Benchmark User\","
+                + "\"preferred_username\":\"benchmarkuser_a1b2\",\"given_name\":\"Benchmark\","
+                + "\"family_name\":\"User\",\"email\":\"benchmark.user@example.com\","
+                + "\"org\":{\"rootOrgId\":\"01376822290813747263\",\"channel\":\"Karmayogi Bharat\"}}";
+    }
+
+    /**
+     * Returns the public key of the pair in PEM form, as the service reads it from disk.
+     */
+    public static String publicKeyPem(KeyPair keyPair) {
+        return "-----BEGIN PUBLIC KEY-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII))
+                .encodeToString(keyPair.getPublic().getEncoded())
+                + "\n-----END PUBLIC KEY-----\n";
+    }
+}
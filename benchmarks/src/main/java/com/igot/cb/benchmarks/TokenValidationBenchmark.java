@@ -0,0 +1,68 @@
+package com.igot.cb.benchmarks;
+
+import com.igot.cb.authentication.model.KeyData;
+import com.igot.cb.authentication.util.AccessTokenValidator;
+import com.igot.cb.authentication.util.KeyManager;
+import java.lang.reflect.Field;
+import java.security.KeyPair;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End-to-end {@link AccessTokenValidator#verifyUserToken(String)} on a Keycloak-sized token
+ * signed with a local key pair. {@code firstSeen} drops the token from the verified token
+ * cache after every call, so each invocation pays for parsing and RSA verification, plus
+ * one extra digest for the invalidation. {@code repeated} measures the cache hit path.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenValidationBenchmark {
+
+    private AccessTokenValidator validator;
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        KeyPair keyPair = TokenFixtures.newKeyPair();
+        KeyData keyData = new KeyData(TokenFixtures.KEY_ID, keyPair.getPublic());
+        KeyManager keyManager = new KeyManager() {
+            @Override
+            public KeyData getPublicKey(String keyId) {
+                return TokenFixtures.KEY_ID.equals(keyId) ? keyData : null;
+            }
+        };
+        validator = new AccessTokenValidator();
+        Field keyManagerField = AccessTokenValidator.class.getDeclaredField("keyManager");
+        keyManagerField.setAccessible(true);
+        keyManagerField.set(validator, keyManager);
+        token = TokenFixtures.signedToken(keyPair, TokenFixtures.keycloakBody());
+        if (validator.fetchUserIdFromAccessToken(token) == null) {
+            throw new IllegalStateException("benchmark token does not verify");
+        }
+    }
+
+    @Benchmark
+    public String firstSeen() {
+        String userId = validator.verifyUserToken(token);
+        validator.getVerifiedTokenCache().invalidate(token);
+        return userId;
+    }
+
+    @Benchmark
+    public String repeated() {
+        return validator.verifyUserToken(token);
+    }
+}
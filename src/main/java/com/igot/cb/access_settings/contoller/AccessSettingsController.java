@@ -3,8 +3,18 @@ package com.igot.cb.access_settings.contoller;
 import com.igot.cb.access_settings.service.AccessSettingsService;
 import com.igot.cb.transactional.util.ApiResponse;
 import com.igot.cb.transactional.util.Constants;
+import com.igot.cb.transactional.util.PropertiesCache;
+import com.igot.cb.transactional.util.ProjectUtil;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -16,10 +26,15 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/accessSetttings")
 public class AccessSettingsController {
 
+  private final Logger logger = LoggerFactory.getLogger(AccessSettingsController.class);
+
   @SuppressWarnings("unused")
   @Autowired
   private AccessSettingsService accessSettingsService;
 
+  private long upsertAsyncTimeoutMillis = NumberUtils.toLong(
+      PropertiesCache.getInstance().getProperty(Constants.ACCESS_SETTINGS_ASYNC_TIMEOUT_MS), 5000);
+
   //createand update API
   @PutMapping("/v1/upsert")
   public ResponseEntity<ApiResponse> upsert(@RequestBody Map<String, Object> userGroupDetails,
@@ -28,4 +43,35 @@ public class AccessSettingsController {
     return new ResponseEntity<>(response, response.getResponseCode());
   }
 
+  // Same as v1, but the servlet thread is released while the Cassandra write is in flight.
+  // A write still running after access.settings.async.timeout.ms is answered with a 504;
+  // the write itself is not cancelled and may still be applied.
+  @PutMapping("/v2/upsert")
+  public CompletableFuture<ResponseEntity<ApiResponse>> upsertAsync(
+      @RequestBody Map<String, Object> userGroupDetails,
+      @RequestHeader(Constants.X_AUTH_TOKEN) String authToken) {
+    return accessSettingsService.upsertAsync(userGroupDetails, authToken).toCompletableFuture()
+        .orTimeout(upsertAsyncTimeoutMillis, TimeUnit.MILLISECONDS)
+        .exceptionally(this::failedUpsertResponse)
+        .thenApply(response -> new ResponseEntity<>(response, response.getResponseCode()));
+  }
+
+  private ApiResponse failedUpsertResponse(Throwable error) {
+    Throwable cause = error instanceof CompletionException && error.getCause() != null
+        ? error.getCause() : error;
+    ApiResponse response = ProjectUtil.createDefaultResponse(
+        com.igot.cb.access_settings.util.Constants.ACCESS_SETTINGS_CREATE_API);
+    response.getParams().setStatus(com.igot.cb.access_settings.util.Constants.FAILED);
+    if (cause instanceof TimeoutException) {
+      logger.error("Access settings upsert timed out after {} ms", upsertAsyncTimeoutMillis);
+      response.setResponseCode(HttpStatus.GATEWAY_TIMEOUT);
+      response.getParams().setErrMsg("Access settings upsert timed out");
+    } else {
+      logger.error("Error while upserting access settings", cause);
+      response.setResponseCode(HttpStatus.INTERNAL_SERVER_ERROR);
+      response.getParams().setErrMsg("Failed to create access settings: " + cause.getMessage());
+    }
+    return response;
+  }
+
 }
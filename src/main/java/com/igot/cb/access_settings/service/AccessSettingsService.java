@@ -2,8 +2,11 @@ package com.igot.cb.access_settings.service;
 
 import com.igot.cb.transactional.util.ApiResponse;
 import java.util.Map;
+import java.util.concurrent.CompletionStage;
 
 public interface AccessSettingsService {
 
   ApiResponse upsert(Map<String, Object> userGroupDetails, String authToken);
+
+  CompletionStage<ApiResponse> upsertAsync(Map<String, Object> userGroupDetails, String authToken);
 }
@@ -1,16 +1,20 @@
 package com.igot.cb.access_settings.service.impl;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.igot.cb.access_settings.service.AccessSettingsService;
 import com.igot.cb.access_settings.util.Constants;
+import com.igot.cb.access_settings.util.ContextDataCodec;
 import com.igot.cb.access_settings.util.PayloadValidation;
 import com.igot.cb.transactional.cassandrautils.CassandraOperation;
 import com.igot.cb.transactional.util.ApiResponse;
 import com.igot.cb.transactional.util.ProjectUtil;
+import com.igot.cb.transactional.util.PropertiesCache;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
@@ -35,29 +39,18 @@ public class AccessSettingsServiceImpl implements AccessSettingsService {
   @Autowired
   CassandraOperation cassandraOperation;
 
-  ObjectMapper objectMapper = new ObjectMapper();
+  ContextDataCodec contextDataCodec = ContextDataCodec.fromProperties(PropertiesCache.getInstance());
 
   @Override
     public ApiResponse upsert(Map<String, Object> userGroupDetails, String authToken) {
     logger.info("AccessSettingsService::create:inside");
     ApiResponse response = ProjectUtil.createDefaultResponse(Constants.ACCESS_SETTINGS_CREATE_API);
-    if (userGroupDetails == null || userGroupDetails.isEmpty()) {
-      logger.error("User group details are null or empty");
-      setFailedResponse(response, "User group details cannot be null or empty");
-      return response;
-    }
-    String errMsg = payloadValidation.validateAccessControlPayload(userGroupDetails);
-    if (StringUtils.isNotBlank(errMsg)) {
-      setFailedResponse(response, errMsg);
+    if (!isValidPayload(userGroupDetails, response)) {
       return response;
     }
     try {
       Map<String, Object> createPayloadWithUuid = createUserGroupIds(userGroupDetails);
-      Map<String, Object> accessRuleData = new HashMap<>();
-      String accessRuleDataJson = objectMapper.writeValueAsString(createPayloadWithUuid);
-      accessRuleData.put(Constants.CONTEXT_ID, userGroupDetails.get(Constants.CONTENT_ID));
-      accessRuleData.put(Constants.CONTEXT_DATA, accessRuleDataJson);
-      accessRuleData.put(Constants.IS_ARCHIVED, false);
+      Map<String, Object> accessRuleData = createAccessRuleData(userGroupDetails, createPayloadWithUuid);
       cassandraOperation.insertRecord(Constants.KEYSPACE_SUNBIRD_COURSE,
           Constants.ACCESS_SETTINGS_RULES_TABLE, accessRuleData);
       response.getResult().put(Constants.MSG, Constants.CREATED_RULES);
@@ -70,6 +63,65 @@ public class AccessSettingsServiceImpl implements AccessSettingsService {
     }
   }
 
+  /**
+   * Same as {@link #upsert(Map, String)}, but the Cassandra write does not block the calling
+   * thread. Unlike the blocking variant, a write that reports failure fails the response.
+   */
+  @Override
+  public CompletionStage<ApiResponse> upsertAsync(Map<String, Object> userGroupDetails, String authToken) {
+    logger.info("AccessSettingsService::createAsync:inside");
+    ApiResponse response = ProjectUtil.createDefaultResponse(Constants.ACCESS_SETTINGS_CREATE_API);
+    if (!isValidPayload(userGroupDetails, response)) {
+      return CompletableFuture.completedFuture(response);
+    }
+    try {
+      Map<String, Object> createPayloadWithUuid = createUserGroupIds(userGroupDetails);
+      Map<String, Object> accessRuleData = createAccessRuleData(userGroupDetails, createPayloadWithUuid);
+      return cassandraOperation.insertRecordAsync(Constants.KEYSPACE_SUNBIRD_COURSE,
+              Constants.ACCESS_SETTINGS_RULES_TABLE, accessRuleData)
+          .handle((insertResponse, error) -> {
+            if (error != null) {
+              logger.error("Error while upserting access settings", error);
+              setFailedResponse(response, "Failed to create access settings: " + error.getMessage());
+            } else if (Constants.FAILED.equalsIgnoreCase(String.valueOf(insertResponse.get(Constants.RESPONSE)))) {
+              setFailedResponse(response,
+                  "Failed to create access settings: " + insertResponse.get(Constants.ERROR_MESSAGE));
+            } else {
+              response.getResult().put(Constants.MSG, Constants.CREATED_RULES);
+              response.getResult().put(Constants.DATA, createPayloadWithUuid);
+            }
+            return response;
+          });
+    } catch (Exception e) {
+      logger.error("Error while upserting access settings", e);
+      setFailedResponse(response, "Failed to create access settings: " + e.getMessage());
+      return CompletableFuture.completedFuture(response);
+    }
+  }
+
+  private boolean isValidPayload(Map<String, Object> userGroupDetails, ApiResponse response) {
+    if (userGroupDetails == null || userGroupDetails.isEmpty()) {
+      logger.error("User group details are null or empty");
+      setFailedResponse(response, "User group details cannot be null or empty");
+      return false;
+    }
+    String errMsg = payloadValidation.validateAccessControlPayload(userGroupDetails);
+    if (StringUtils.isNotBlank(errMsg)) {
+      setFailedResponse(response, errMsg);
+      return false;
+    }
+    return true;
+  }
+
+  private Map<String, Object> createAccessRuleData(Map<String, Object> userGroupDetails,
+      Map<String, Object> createPayloadWithUuid) throws JsonProcessingException {
+    Map<String, Object> accessRuleData = new HashMap<>();
+    accessRuleData.put(Constants.CONTEXT_ID, userGroupDetails.get(Constants.CONTENT_ID));
+    accessRuleData.put(Constants.CONTEXT_DATA, contextDataCodec.encode(createPayloadWithUuid));
+    accessRuleData.put(Constants.IS_ARCHIVED, false);
+    return accessRuleData;
+  }
+
   private void setFailedResponse(ApiResponse response, String errorMessage) {
     response.getParams().setStatus(Constants.FAILED);
     response.setResponseCode(HttpStatus.BAD_REQUEST);
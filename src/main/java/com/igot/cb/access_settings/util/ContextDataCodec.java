@@ -0,0 +1,165 @@
+package com.igot.cb.access_settings.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.igot.cb.transactional.util.PropertiesCache;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+
+/**
+ * Encodes the {@code contextdata} column of access setting rules.
+ * <p>
+ * Each value records its own encoding: plain JSON, {@value #LZ4_PREFIX} followed by the Base64
+ * of the uncompressed length (4 bytes, big-endian) and the LZ4 block of the JSON, or one of the
+ * binary {@link ContextDataFormat}s. JSON never starts with one of the prefixes, so
+ * {@link #decode(String)} reads every value whatever the codec it was written with, including
+ * rows written before the other encodings existed.
+ * <p>
+ * When compression is enabled, JSON rules of at least {@code minBytes} are compressed, unless
+ * compressing would not make them smaller. Binary formats are not compressed.
+ */
+public class ContextDataCodec {
+
+  static final String LZ4_PREFIX = "lz4:";
+
+  private static final TypeReference<Map<String, Object>> RULE_TYPE = new TypeReference<>() {
+  };
+  private static final ContextDataFormat[] BINARY_FORMATS = {ContextDataFormat.SMILE, ContextDataFormat.CBOR};
+  private static final LZ4Factory LZ4 = LZ4Factory.fastestInstance();
+  private static final int LENGTH_BYTES = Integer.BYTES;
+  // The stored length is not trusted to size the buffer beyond this; real rules are far smaller
+  private static final int MAX_DECOMPRESSED_BYTES = 16 * 1024 * 1024;
+
+  private final ContextDataFormat format;
+  private final boolean compress;
+  private final int minBytes;
+
+  /**
+   * Creates a codec.
+   *
+   * @param format   The format of writes that do not choose one.
+   * @param compress Whether large JSON rules are compressed on write.
+   * @param minBytes The smallest UTF-8 size of a JSON rule that is compressed.
+   */
+  public ContextDataCodec(ContextDataFormat format, boolean compress, int minBytes) {
+    this.format = format;
+    this.compress = compress;
+    this.minBytes = Math.max(0, minBytes);
+  }
+
+  /**
+   * Creates a codec from {@code access.settings.contextdata.format} ({@code json}, {@code smile}
+   * or {@code cbor}), {@code access.settings.contextdata.compression} and
+   * {@code access.settings.contextdata.compression.min.bytes}. The default is uncompressed JSON.
+   *
+   * @param cache The properties to read.
+   * @return The codec.
+   */
+  public static ContextDataCodec fromProperties(PropertiesCache cache) {
+    return new ContextDataCodec(
+        ContextDataFormat.fromName(cache.readProperty(
+            com.igot.cb.transactional.util.Constants.ACCESS_SETTINGS_CONTEXT_DATA_FORMAT), ContextDataFormat.JSON),
+        "true".equalsIgnoreCase(StringUtils.trim(cache.readProperty(
+            com.igot.cb.transactional.util.Constants.ACCESS_SETTINGS_CONTEXT_DATA_COMPRESSION))),
+        NumberUtils.toInt(StringUtils.trim(cache.readProperty(
+            com.igot.cb.transactional.util.Constants.ACCESS_SETTINGS_CONTEXT_DATA_COMPRESSION_MIN_BYTES)), 1024));
+  }
+
+  /**
+   * Encodes a rule for storage in the configured format.
+   *
+   * @param rule The rule.
+   * @return The value to store in {@code contextdata}.
+   * @throws JsonProcessingException If the rule cannot be serialized.
+   */
+  public String encode(Object rule) throws JsonProcessingException {
+    return encode(rule, format);
+  }
+
+  /**
+   * Encodes a rule for storage in the given format.
+   *
+   * @param rule   The rule.
+   * @param format The format to write.
+   * @return The value to store in {@code contextdata}.
+   * @throws JsonProcessingException If the rule cannot be serialized.
+   */
+  public String encode(Object rule, ContextDataFormat format) throws JsonProcessingException {
+    if (format == ContextDataFormat.JSON) {
+      String json = format.mapper().writeValueAsString(rule);
+      return compress ? compress(json) : json;
+    }
+    return format.prefix() + Base64.getEncoder().encodeToString(format.mapper().writeValueAsBytes(rule));
+  }
+
+  private String compress(String json) {
+    byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+    if (bytes.length < minBytes) {
+      return json;
+    }
+    LZ4Compressor compressor = LZ4.fastCompressor();
+    byte[] block = new byte[LENGTH_BYTES + compressor.maxCompressedLength(bytes.length)];
+    ByteBuffer.wrap(block).putInt(bytes.length);
+    int blockLength = LENGTH_BYTES + compressor.compress(bytes, 0, bytes.length, block, LENGTH_BYTES,
+        block.length - LENGTH_BYTES);
+    // Base64 turns every 3 bytes into 4 characters
+    int encodedLength = LZ4_PREFIX.length() + (blockLength + 2) / 3 * 4;
+    if (encodedLength >= bytes.length) {
+      return json;
+    }
+    ByteBuffer encoded = Base64.getEncoder().encode(ByteBuffer.wrap(block, 0, blockLength));
+    return LZ4_PREFIX + StandardCharsets.ISO_8859_1.decode(encoded);
+  }
+
+  /**
+   * Decodes a stored rule, whatever its encoding.
+   *
+   * @param stored The value of {@code contextdata}.
+   * @return The rule, or null if {@code stored} is null.
+   * @throws IllegalArgumentException If the value is corrupt.
+   */
+  public Map<String, Object> decode(String stored) {
+    if (stored == null) {
+      return null;
+    }
+    try {
+      if (stored.startsWith(LZ4_PREFIX)) {
+        return ContextDataFormat.JSON.mapper().readValue(decompress(stored), RULE_TYPE);
+      }
+      for (ContextDataFormat binary : BINARY_FORMATS) {
+        if (stored.startsWith(binary.prefix())) {
+          byte[] bytes = Base64.getDecoder().decode(stored.substring(binary.prefix().length()));
+          return binary.mapper().readValue(bytes, RULE_TYPE);
+        }
+      }
+      return ContextDataFormat.JSON.mapper().readValue(stored, RULE_TYPE);
+    } catch (IOException | LZ4Exception | IllegalArgumentException | BufferUnderflowException e) {
+      throw new IllegalArgumentException("Corrupt contextdata", e);
+    }
+  }
+
+  private static byte[] decompress(String stored) {
+    byte[] block = Base64.getDecoder().decode(stored.substring(LZ4_PREFIX.length()));
+    int length = ByteBuffer.wrap(block).getInt();
+    if (length < 0 || length > MAX_DECOMPRESSED_BYTES) {
+      throw new IllegalArgumentException("Invalid uncompressed length " + length);
+    }
+    byte[] bytes = new byte[length];
+    // The safe decompressor never reads or writes outside the given ranges, whatever the block holds
+    int decompressed = LZ4.safeDecompressor().decompress(block, LENGTH_BYTES, block.length - LENGTH_BYTES,
+        bytes, 0, length);
+    if (decompressed != length) {
+      throw new IllegalArgumentException("Uncompressed length " + decompressed + " does not match " + length);
+    }
+    return bytes;
+  }
+}
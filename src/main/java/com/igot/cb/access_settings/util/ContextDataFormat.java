@@ -0,0 +1,59 @@
+package com.igot.cb.access_settings.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * The encodings of the {@code contextdata} column. Binary encodings are stored as their prefix
+ * followed by the Base64 of the encoded rule, since the column is text; JSON is stored as is.
+ */
+public enum ContextDataFormat {
+
+  JSON("", new ObjectMapper()),
+  SMILE("smile:", new ObjectMapper(new SmileFactory())),
+  CBOR("cbor:", new ObjectMapper(new CBORFactory()));
+
+  private final String prefix;
+  private final ObjectMapper mapper;
+
+  ContextDataFormat(String prefix, ObjectMapper mapper) {
+    this.prefix = prefix;
+    this.mapper = mapper;
+  }
+
+  /**
+   * Returns the marker that starts a stored value of this format.
+   *
+   * @return The prefix, empty for JSON.
+   */
+  public String prefix() {
+    return prefix;
+  }
+
+  /**
+   * Returns the mapper that reads and writes this format.
+   *
+   * @return The mapper.
+   */
+  public ObjectMapper mapper() {
+    return mapper;
+  }
+
+  /**
+   * Returns the format with the given name, ignoring case.
+   *
+   * @param name          The format name, e.g. {@code smile}.
+   * @param defaultFormat The format returned when the name is blank or unknown.
+   * @return The format.
+   */
+  public static ContextDataFormat fromName(String name, ContextDataFormat defaultFormat) {
+    for (ContextDataFormat format : values()) {
+      if (format.name().equalsIgnoreCase(StringUtils.trim(name))) {
+        return format;
+      }
+    }
+    return defaultFormat;
+  }
+}
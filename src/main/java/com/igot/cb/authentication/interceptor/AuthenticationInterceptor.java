@@ -0,0 +1,70 @@
+package com.igot.cb.authentication.interceptor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.igot.cb.authentication.model.TokenClaims;
+import com.igot.cb.authentication.util.AccessTokenValidator;
+import com.igot.cb.transactional.util.ApiResponse;
+import com.igot.cb.transactional.util.Constants;
+import com.igot.cb.transactional.util.ProjectUtil;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+
+/**
+ * Verifies the {@code x-authenticated-user-token} header before the handler runs, and so
+ * before the request body is read. Requests without a valid token get a 401 response and
+ * their body is never parsed. For valid tokens the user id and the token claims are stored
+ * as the {@link Constants#AUTHENTICATED_USER_ID} and {@link Constants#AUTHENTICATED_TOKEN_CLAIMS}
+ * request attributes.
+ */
+@Component
+public class AuthenticationInterceptor implements HandlerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthenticationInterceptor.class);
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    @Autowired
+    private AccessTokenValidator accessTokenValidator;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        // An async handler is dispatched again when its result is ready; the request was
+        // authenticated on the initial dispatch.
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        String token = request.getHeader(Constants.X_AUTH_TOKEN);
+        TokenClaims claims = StringUtils.isBlank(token) ? null : accessTokenValidator.validateTokenClaims(token);
+        String userId = claims == null ? null : AccessTokenValidator.extractUserId(claims.getSub());
+        if (StringUtils.isBlank(userId)) {
+            logger.warn("AuthenticationInterceptor:preHandle: rejected unauthenticated request to {}",
+                    request.getRequestURI());
+            writeUnauthorized(response);
+            return false;
+        }
+        request.setAttribute(Constants.AUTHENTICATED_USER_ID, userId);
+        request.setAttribute(Constants.AUTHENTICATED_TOKEN_CLAIMS, claims);
+        return true;
+    }
+
+    private void writeUnauthorized(HttpServletResponse response) throws IOException {
+        ApiResponse apiResponse = ProjectUtil.createDefaultResponse(Constants.API_AUTHENTICATION);
+        apiResponse.getParams().setStatus(Constants.FAILED);
+        apiResponse.getParams().setErrMsg(Constants.USER_ID_DOESNT_EXIST);
+        apiResponse.setResponseCode(HttpStatus.UNAUTHORIZED);
+        response.setStatus(HttpStatus.UNAUTHORIZED.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        mapper.writeValue(response.getOutputStream(), apiResponse);
+    }
+}
@@ -0,0 +1,23 @@
+package com.igot.cb.authentication.interceptor;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the {@link AuthenticationInterceptor} for the endpoints that require a user token.
+ */
+@Configuration
+public class AuthenticationInterceptorConfig implements WebMvcConfigurer {
+
+    static final String[] AUTHENTICATED_PATHS = {"/accessSetttings/**"};
+
+    @Autowired
+    private AuthenticationInterceptor authenticationInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(authenticationInterceptor).addPathPatterns(AUTHENTICATED_PATHS);
+    }
+}
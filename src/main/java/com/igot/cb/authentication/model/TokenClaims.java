@@ -0,0 +1,66 @@
+package com.igot.cb.authentication.model;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The claims of a verified access token that the service actually reads.
+ * <p>
+ * Only {@code exp}, {@code iss} and {@code sub} are extracted up front. The complete
+ * claim set, which for Keycloak tokens includes large {@code realm_access} and
+ * {@code resource_access} blocks, is only materialised on the first call to
+ * {@link #getAllClaims()}.
+ */
+public final class TokenClaims {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private final Long exp;
+    private final String iss;
+    private final String sub;
+    private final byte[] body;
+    private volatile Map<String, Object> allClaims;
+
+    public TokenClaims(Long exp, String iss, String sub, byte[] body) {
+        this.exp = exp;
+        this.iss = iss;
+        this.sub = sub;
+        this.body = body;
+    }
+
+    public Long getExp() {
+        return exp;
+    }
+
+    public String getIss() {
+        return iss;
+    }
+
+    public String getSub() {
+        return sub;
+    }
+
+    /**
+     * Parses the full token body on first use.
+     *
+     * @return An unmodifiable map of all claims in the token body.
+     */
+    public Map<String, Object> getAllClaims() {
+        Map<String, Object> claims = allClaims;
+        if (claims == null) {
+            try {
+                claims = body == null ? Collections.emptyMap()
+                        : Collections.unmodifiableMap(mapper.readValue(body, new TypeReference<Map<String, Object>>() {
+                }));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to parse token body", e);
+            }
+            allClaims = claims;
+        }
+        return claims;
+    }
+}
@@ -1,10 +1,10 @@
 package com.igot.cb.authentication.util;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.igot.cb.authentication.model.KeyData;
+import com.igot.cb.authentication.model.TokenClaims;
 import com.igot.cb.transactional.util.Constants;
 import com.igot.cb.transactional.util.PropertiesCache;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.keycloak.common.util.Time;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,7 +13,9 @@ import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 
 @Component
@@ -23,10 +25,37 @@ public class AccessTokenValidator {
     KeyManager keyManager;
 
     private static Logger logger = LoggerFactory.getLogger(AccessTokenValidator.class.getName());
-    private static final ObjectMapper mapper = new ObjectMapper();
     private static PropertiesCache cache = PropertiesCache.getInstance();
     private static final String REALM_URL = cache.getProperty(Constants.SSO_URL) + "realms/" + cache.getProperty(Constants.SSO_REALM);
+    private static final int VERIFIED_TOKEN_CACHE_MAX_ENTRIES =
+            NumberUtils.toInt(cache.getProperty(Constants.ACCESS_TOKEN_CACHE_MAX_ENTRIES), 10000);
+    private static final long VERIFIED_TOKEN_CACHE_MAX_TTL_MILLIS =
+            NumberUtils.toLong(cache.getProperty(Constants.ACCESS_TOKEN_CACHE_MAX_TTL_SECONDS), 300) * 1000L;
 
+    private static final int REJECTED_TOKEN_CACHE_MAX_ENTRIES =
+            NumberUtils.toInt(cache.getProperty(Constants.ACCESS_TOKEN_NEGATIVE_CACHE_MAX_ENTRIES), 10000);
+    private static final long REJECTED_TOKEN_CACHE_TTL_MILLIS =
+            NumberUtils.toLong(cache.getProperty(Constants.ACCESS_TOKEN_NEGATIVE_CACHE_TTL_SECONDS), 10) * 1000L;
+
+    /**
+     * Why a token was rejected.
+     */
+    public enum RejectionReason {
+        MALFORMED, EXPIRED, ISSUER, UNKNOWN_KEY, SIGNATURE
+    }
+
+    // Claims of tokens whose signature has already been verified, so repeat tokens skip the RSA check.
+    private final TokenCache<TokenClaims> verifiedTokenCache = new TokenCache<>(VERIFIED_TOKEN_CACHE_MAX_ENTRIES);
+    // Recently rejected tokens, so clients retrying a bad token do not cost an RSA check each time.
+    // Tokens signed with an unknown key are not kept, since the key may be loaded by the next retry.
+    private final TokenCache<RejectionReason> rejectedTokenCache = new TokenCache<>(REJECTED_TOKEN_CACHE_MAX_ENTRIES);
+    private final Map<RejectionReason, LongAdder> rejectionCounts = new EnumMap<>(RejectionReason.class);
+
+    public AccessTokenValidator() {
+        for (RejectionReason reason : RejectionReason.values()) {
+            rejectionCounts.put(reason, new LongAdder());
+        }
+    }
 
     /**
      * Validates the provided JWT token.
@@ -35,50 +64,82 @@ public class AccessTokenValidator {
      * @return A map containing the token body if the token is valid and not expired, otherwise an empty map.
      */
     public Map<String, Object> validateToken(String token) {
+        TokenClaims claims = validateTokenClaims(token);
+        return claims == null ? Collections.emptyMap() : claims.getAllClaims();
+    }
+
+    /**
+     * Validates the provided JWT token and extracts the claims the service reads,
+     * without materialising the full token body. Tokens rejected within the last
+     * {@code accesstoken.negative.cache.ttl.seconds} are rejected again without being processed,
+     * except tokens signed with an unknown key, which are looked up again on every attempt.
+     *
+     * @param token The JWT token to be validated.
+     * @return The token claims if the token is valid, not expired and from the expected issuer, otherwise null.
+     */
+    public TokenClaims validateTokenClaims(String token) {
         try {
             //  Null or empty check before processing
             if (StringUtils.isBlank(token)) {
                 throw new IllegalArgumentException("Token is null or empty");
             }
-            // Split the token into its elements
-            String[] tokenElements = token.split("\\.");
-            // Check if the token has at least three elements
-            if (tokenElements.length < 3) {
-                throw new IllegalArgumentException("Invalid token format");
+            TokenClaims cachedClaims = verifiedTokenCache.get(token);
+            if (cachedClaims != null) {
+                return cachedClaims;
+            }
+            if (rejectedTokenCache.get(token) != null) {
+                return null;
             }
-            // Extract header, body, and signature from token elements
-            String header = tokenElements[0];
-            String body = tokenElements[1];
-            String signature = tokenElements[2];
-            // Concatenate header and body to form the payload
-            String payload = header + Constants.DOT_SEPARATOR + body;
-            // Parse header data from base64 encoded header
-            Map<String, Object> headerData = mapper.readValue(new String(decodeFromBase64(header)), new TypeReference<Map<String, Object>>() {
-            });
-            Map<String, Object> emptyMap = processToken(token, headerData, payload, signature, body);
-            if (emptyMap != null) return emptyMap;
+            // Locate the token segments without copying them
+            JwtToken jwtToken = JwtToken.parse(token);
+            // Read the key id straight from the decoded header bytes
+            String keyId = TokenClaimsReader.readKeyId(jwtToken.decodeHeader());
+            if (keyId == null) {
+                throw new IllegalArgumentException("Token header has no kid");
+            }
+            TokenClaims claims = processToken(token, keyId, jwtToken);
+            if (claims != null) {
+                verifiedTokenCache.put(token, claims, cacheExpiryMillis(claims));
+            }
+            return claims;
         } catch (IOException | IllegalArgumentException e) {
+            rejectionCounts.get(RejectionReason.MALFORMED).increment();
             logger.error("Error validating token: {}", e.getMessage());
         } catch (Exception ex) {
             logger.error("Unexpected error validating token: {}", ex.getMessage());
         }
-        return Collections.emptyMap();
+        return null;
     }
 
-    public Map<String, Object> processToken(String token, Map<String, Object> headerData, String payload, String signature, String body) throws JsonProcessingException {
-        String keyId = headerData.get("kid").toString();
-        // Verify the token signature
-        boolean isValid = CryptoUtil.verifyRSASign(payload, decodeFromBase64(signature), keyManager.getPublicKey(keyId).getPublicKey(), Constants.SHA_256_WITH_RSA);
-        // If token signature is valid, parse token body and check expiration
-        if (isValid) {
-            Map<String, Object> tokenBody = mapper.readValue(new String(decodeFromBase64(body)), new TypeReference<Map<String, Object>>() {
-            });
-            if (isExpired((Integer) tokenBody.get("exp"))) {
-                logger.error("Token expired: {}", token);
-                return Collections.emptyMap();
-            }
-            return tokenBody;
+    public TokenClaims processToken(String token, String keyId, JwtToken jwtToken) throws IOException {
+        // Run the cheap expiry and issuer checks on the unverified body before the RSA verification
+        TokenClaims claims = TokenClaimsReader.readClaims(jwtToken.decodeBody());
+        if (claims.getExp() == null || isExpired(claims.getExp())) {
+            logger.error("Token expired: {}", token);
+            return reject(token, RejectionReason.EXPIRED);
+        }
+        if (!checkIss(claims.getIss())) {
+            return reject(token, RejectionReason.ISSUER);
+        }
+        KeyData keyData = keyManager.getPublicKey(keyId);
+        if (keyData == null) {
+            // Not cached: the key may be published moments later, and a retry must then pass
+            logger.error("No public key found for kid: {}", keyId);
+            rejectionCounts.get(RejectionReason.UNKNOWN_KEY).increment();
+            return null;
         }
+        // Verify the token signature over the signed region of the token bytes
+        boolean isValid = CryptoUtil.verifyRSASign(jwtToken.bytes(), 0, jwtToken.signedLength(), jwtToken.decodeSignature(),
+                keyData, Constants.SHA_256_WITH_RSA);
+        if (!isValid) {
+            return reject(token, RejectionReason.SIGNATURE);
+        }
+        return claims;
+    }
+
+    private TokenClaims reject(String token, RejectionReason reason) {
+        rejectionCounts.get(reason).increment();
+        rejectedTokenCache.put(token, reason, System.currentTimeMillis() + REJECTED_TOKEN_CACHE_TTL_MILLIS);
         return null;
     }
 
@@ -93,16 +154,10 @@ public class AccessTokenValidator {
         // Initialize user ID to UNAUTHORIZED
         String userId = Constants.UNAUTHORIZED;
         try {
-            // Validate the token and obtain its payload
-            Map<String, Object> payload = validateToken(token);
-            // Check if payload is not empty and issuer is valid
-            if (!payload.isEmpty() && checkIss((String) payload.get("iss"))) {
-                // Extract user ID from payload
-                userId = (String) payload.get(Constants.SUB);
-                // If user ID is not blank, extract the actual user ID
-                if (StringUtils.isNotBlank(userId)) {
-                    userId = userId.substring(userId.lastIndexOf(":") + 1);
-                }
+            // Validate the token, including its issuer, and obtain its claims
+            TokenClaims claims = validateTokenClaims(token);
+            if (claims != null) {
+                userId = extractUserId(claims.getSub());
             }
         } catch (Exception ex) {
             logger.error("Exception in verifyUserAccessToken: verify ", ex);
@@ -110,6 +165,19 @@ public class AccessTokenValidator {
         return userId;
     }
 
+    /**
+     * Extracts the user ID from a Keycloak subject such as {@code f:<federation-id>:<user-id>}.
+     *
+     * @param sub The {@code sub} claim of the token.
+     * @return The part after the last colon, or the subject itself if it is blank.
+     */
+    public static String extractUserId(String sub) {
+        if (StringUtils.isNotBlank(sub)) {
+            return sub.substring(sub.lastIndexOf(":") + 1);
+        }
+        return sub;
+    }
+
     /**
      * Checks if the issuer of the token matches the predefined realm URL.
      *
@@ -127,12 +195,47 @@ public class AccessTokenValidator {
     }
 
 
-    private boolean isExpired(Integer expiration) {
+    private boolean isExpired(long expiration) {
         return (Time.currentTime() > expiration);
     }
 
-    byte[] decodeFromBase64(String data) {
-        return Base64Util.decode(data, 11);
+    /**
+     * Computes how long verified token claims may be served from the cache: never past the
+     * token's own expiry, and never longer than the configured maximum TTL, so that a key
+     * rotation or revocation takes effect within that window.
+     */
+    private long cacheExpiryMillis(TokenClaims claims) {
+        long maxExpiry = System.currentTimeMillis() + VERIFIED_TOKEN_CACHE_MAX_TTL_MILLIS;
+        return Math.min(claims.getExp() * 1000L, maxExpiry);
+    }
+
+    /**
+     * Returns the cache of verified token claims, mainly to read its hit, miss and eviction counters.
+     *
+     * @return The verified token cache.
+     */
+    public TokenCache<TokenClaims> getVerifiedTokenCache() {
+        return verifiedTokenCache;
+    }
+
+    /**
+     * Returns the cache of recently rejected tokens, mainly to read its hit counter.
+     *
+     * @return The rejected token cache.
+     */
+    public TokenCache<RejectionReason> getRejectedTokenCache() {
+        return rejectedTokenCache;
+    }
+
+    /**
+     * Returns how many tokens have been rejected for the given reason. Tokens rejected again
+     * from the rejected token cache are not counted twice.
+     *
+     * @param reason The rejection reason.
+     * @return The number of rejections.
+     */
+    public long getRejectionCount(RejectionReason reason) {
+        return rejectionCounts.get(reason).sum();
     }
 
     /**
@@ -17,6 +17,7 @@ package com.igot.cb.authentication.util;
  */
 
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
 
 /**
  * Utilities for encoding and decoding the Base64 representation of
@@ -125,9 +126,86 @@ public class Base64Util {
      *                                  incorrect padding
      */
     public static byte[] decode(byte[] input, int offset, int len, int flags) {
+        byte[] decoded = decodeBulk(input, offset, len, flags);
+        return decoded != null ? decoded : decodeStateMachine(input, offset, len, flags);
+    }
+
+    /**
+     * Decode the Base64-encoded data in input into a caller-provided
+     * buffer, so that the buffer can be reused across calls.  The
+     * result is the same as {@link #decode(byte[], int, int, int)}.
+     * <p>
+     * <p>This runs the {@link Decoder} state machine and allocates
+     * nothing; {@link #decode(byte[], int, int, int)} is faster on
+     * well-formed input but allocates its result.
+     *
+     * @param input        the data to decode
+     * @param offset       the position within the input array at which to start
+     * @param len          the number of bytes of input to decode
+     * @param flags        controls certain features of the decoded output.
+     *                     Pass {@code DEFAULT} to decode standard Base64.
+     * @param output       the buffer to decode into; it must have room for
+     *                     {@link #maxDecodedLength(int)} bytes from {@code outputOffset}
+     * @param outputOffset the position within the output array at which to start
+     * @return the number of bytes written to {@code output}
+     * @throws IllegalArgumentException if the input contains
+     *                                  incorrect padding, or the output buffer is too small
+     */
+    public static int decode(byte[] input, int offset, int len, int flags, byte[] output, int outputOffset) {
+        if (output.length - outputOffset < maxDecodedLength(len)) {
+            throw new IllegalArgumentException("output buffer too small");
+        }
+        Decoder decoder = new Decoder(flags, output);
+        decoder.op = outputOffset;
+        if (!decoder.process(input, offset, len, true)) {
+            throw new IllegalArgumentException("bad base-64");
+        }
+        return decoder.op - outputOffset;
+    }
+
+    /**
+     * @return the size of the output buffer needed to decode {@code len}
+     * bytes of Base64 input with {@link #decode(byte[], int, int, int, byte[], int)}.
+     */
+    public static int maxDecodedLength(int len) {
+        return len * 3 / 4;
+    }
+
+    /**
+     * Decode input that consists only of alphabet characters and
+     * correct trailing padding with {@link java.util.Base64}, whose
+     * decode loop the JVM replaces with vectorised code.  For such
+     * input the result is the same as the state machine's.
+     *
+     * @return the decoded data, or null if the input needs the state
+     * machine (whitespace, other skipped characters, bad padding).
+     */
+    private static byte[] decodeBulk(byte[] input, int offset, int len, int flags) {
+        java.util.Base64.Decoder decoder = ((flags & URL_SAFE) == 0)
+                ? java.util.Base64.getDecoder() : java.util.Base64.getUrlDecoder();
+        ByteBuffer decoded;
+        try {
+            decoded = decoder.decode(ByteBuffer.wrap(input, offset, len));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        byte[] output = decoded.array();
+        if (decoded.remaining() == output.length) {
+            return output;
+        }
+        byte[] temp = new byte[decoded.remaining()];
+        System.arraycopy(output, 0, temp, 0, temp.length);
+        return temp;
+    }
+
+    /**
+     * Decode with the {@link Decoder} state machine, which also skips
+     * whitespace and other non-alphabet characters.
+     */
+    static byte[] decodeStateMachine(byte[] input, int offset, int len, int flags) {
         // Allocate space for the most data the input could represent.
         // (It could contain less if it contains whitespace, etc.)
-        Decoder decoder = new Decoder(flags, new byte[len * 3 / 4]);
+        Decoder decoder = new Decoder(flags, new byte[maxDecodedLength(len)]);
 
         if (!decoder.process(input, offset, len, true)) {
             throw new IllegalArgumentException("bad base-64");
@@ -361,7 +439,9 @@ public class Base64Util {
             // the member variable is final.)
             int state = this.state;
             int value = this.value;
-            int op = 0;
+            // Continue after any output already written, e.g. at a
+            // caller-chosen offset.
+            int op = this.op;
             final byte[] output = this.output;
             final int[] alphabet = this.alphabet;
 
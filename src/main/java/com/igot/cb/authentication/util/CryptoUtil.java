@@ -1,11 +1,17 @@
 package com.igot.cb.authentication.util;
 
+import com.igot.cb.authentication.model.KeyData;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.security.*;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 /**
@@ -14,6 +20,10 @@ import java.security.*;
 public class CryptoUtil {
     private static final Charset US_ASCII = StandardCharsets.US_ASCII;
     private static final Logger logger = LoggerFactory.getLogger(CryptoUtil.class.getName());
+    // Verifier pools per KeyData instance and algorithm. Entries match on the KeyData reference, never on
+    // equals, and hold it weakly, so the pools of rotated-out keys are dropped once their KeyData is collected.
+    private static final Map<Object, SignatureVerifierPool> VERIFIER_POOLS = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<KeyData> COLLECTED_KEYS = new ReferenceQueue<>();
 
     private CryptoUtil() {
     }
@@ -28,14 +38,31 @@ public class CryptoUtil {
      * @return true if the signature is valid, false otherwise.
      */
     public static boolean verifyRSASign(String payLoad, byte[] signature, PublicKey key, String algorithm) {
+        byte[] data = payLoad.getBytes(US_ASCII);
+        return verifyRSASign(data, 0, data.length, signature, key, algorithm);
+    }
+
+    /**
+     * Verifies an RSA signature over a region of the given byte array, so that callers holding
+     * the raw token bytes do not need to build an intermediate payload string.
+     *
+     * @param data      The array holding the signed bytes.
+     * @param offset    The offset of the signed region within {@code data}.
+     * @param len       The length of the signed region.
+     * @param signature The signature to be verified.
+     * @param key       The public key used for verification.
+     * @param algorithm The algorithm used for verification.
+     * @return true if the signature is valid, false otherwise.
+     */
+    public static boolean verifyRSASign(byte[] data, int offset, int len, byte[] signature, PublicKey key, String algorithm) {
         Signature sign;
         try {
             // Initialize a Signature instance with the provided algorithm
             sign = Signature.getInstance(algorithm);
             // Initialize the Signature instance with the public key for verification
             sign.initVerify(key);
-            // Update the Signature instance with the payload bytes
-            sign.update(payLoad.getBytes(US_ASCII));
+            // Update the Signature instance with the signed region
+            sign.update(data, offset, len);
             return sign.verify(signature);
         } catch (NoSuchAlgorithmException | InvalidKeyException | SignatureException e) {
             logger.error("An error occurred during RSA signature verification: {}", e.getMessage(), e);
@@ -43,4 +70,116 @@ public class CryptoUtil {
         }
     }
 
+    /**
+     * Verifies an RSA signature over a region of the given byte array using a verifier
+     * pooled on the given key, so that the provider lookup and key setup are not repeated
+     * on every request.
+     *
+     * @param data      The array holding the signed bytes.
+     * @param offset    The offset of the signed region within {@code data}.
+     * @param len       The length of the signed region.
+     * @param signature The signature to be verified.
+     * @param keyData   The key used for verification.
+     * @param algorithm The algorithm used for verification.
+     * @return true if the signature is valid, false otherwise.
+     */
+    public static boolean verifyRSASign(byte[] data, int offset, int len, byte[] signature, KeyData keyData, String algorithm) {
+        try {
+            return verifierPool(keyData, algorithm).verify(data, offset, len, signature);
+        } catch (GeneralSecurityException e) {
+            logger.error("An error occurred during RSA signature verification: {}", e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Returns the pool of verifiers for the given key and algorithm, creating it on first use
+     * and again whenever the public key held by the KeyData has been replaced.
+     *
+     * @param keyData   The key used for verification.
+     * @param algorithm The algorithm used for verification.
+     * @return The verifier pool for this key and algorithm.
+     */
+    static SignatureVerifierPool verifierPool(KeyData keyData, String algorithm) {
+        PublicKey key = keyData.getPublicKey();
+        SignatureVerifierPool pool = VERIFIER_POOLS.get(new PoolLookup(keyData, algorithm));
+        if (pool != null && pool.getKey() == key) {
+            return pool;
+        }
+        // Only a miss pays for cleaning up; two threads missing together just build one pool each
+        Reference<? extends KeyData> collected;
+        while ((collected = COLLECTED_KEYS.poll()) != null) {
+            VERIFIER_POOLS.remove(collected);
+        }
+        pool = new SignatureVerifierPool(key, algorithm);
+        VERIFIER_POOLS.put(new PoolKey(keyData, algorithm), pool);
+        return pool;
+    }
+
+    private static int poolHash(KeyData keyData, String algorithm) {
+        return 31 * System.identityHashCode(keyData) + algorithm.hashCode();
+    }
+
+    /**
+     * The stored key of a verifier pool. Once its KeyData is collected it only equals itself,
+     * so that the reference taken from the queue removes exactly its own entry.
+     */
+    private static final class PoolKey extends WeakReference<KeyData> {
+        private final String algorithm;
+        private final int hash;
+
+        private PoolKey(KeyData keyData, String algorithm) {
+            super(keyData, COLLECTED_KEYS);
+            this.algorithm = algorithm;
+            this.hash = poolHash(keyData, algorithm);
+        }
+
+        private boolean matches(KeyData keyData, String algorithm) {
+            KeyData referent = get();
+            return referent != null && referent == keyData && this.algorithm.equals(algorithm);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (other == this) {
+                return true;
+            }
+            if (other instanceof PoolLookup lookup) {
+                return matches(lookup.keyData, lookup.algorithm);
+            }
+            return other instanceof PoolKey key && matches(key.get(), key.algorithm);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * The key a lookup is made with, so that the hot path does not create a weak reference.
+     */
+    private static final class PoolLookup {
+        private final KeyData keyData;
+        private final String algorithm;
+
+        private PoolLookup(KeyData keyData, String algorithm) {
+            this.keyData = keyData;
+            this.algorithm = algorithm;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (other instanceof PoolKey key) {
+                return key.matches(keyData, algorithm);
+            }
+            return other instanceof PoolLookup lookup && lookup.keyData == keyData && lookup.algorithm.equals(algorithm);
+        }
+
+        @Override
+        public int hashCode() {
+            return poolHash(keyData, algorithm);
+        }
+    }
+
 }
\ No newline at end of file
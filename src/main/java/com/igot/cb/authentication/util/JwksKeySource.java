@@ -0,0 +1,228 @@
+package com.igot.cb.authentication.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.igot.cb.authentication.model.KeyData;
+import com.igot.cb.transactional.util.Constants;
+import com.igot.cb.transactional.util.PropertiesCache;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.math.BigInteger;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Supplies token verification keys from the realm's JWKS document
+ * ({@code sso.url} + {@code realms/} + {@code sso.realm} + {@code /protocol/openid-connect/certs}).
+ * <p>
+ * Keys are refreshed on a fixed schedule in the background and published as an immutable
+ * snapshot. Lookups never wait once keys are loaded: an unknown {@code kid} starts a
+ * background refresh, at most once per {@code accesstoken.jwks.miss.refresh.min.interval.ms},
+ * and returns null, and a slow or failing endpoint leaves the last good
+ * snapshot in place. Only the very first lookup, before any key is loaded, waits for the
+ * fetch, bounded by {@code accesstoken.jwks.cold.fetch.timeout.ms}. All fetches are
+ * single-flight.
+ */
+@Component
+public class JwksKeySource {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwksKeySource.class.getName());
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final String JWKS_PATH = "/protocol/openid-connect/certs";
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    private final boolean enabled;
+    private final String jwksUrl;
+    private final long refreshIntervalMillis;
+    private final long missRefreshIntervalNanos;
+    private final long coldFetchTimeoutMillis;
+
+    private volatile Map<String, KeyData> keyMap = Collections.emptyMap();
+    private volatile long lastMissRefreshNanos;
+    private final AtomicReference<CompletableFuture<Void>> inFlight = new AtomicReference<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jwks-key-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public JwksKeySource() {
+        PropertiesCache cache = PropertiesCache.getInstance();
+        this.enabled = Boolean.parseBoolean(cache.getProperty(Constants.ACCESS_TOKEN_JWKS_ENABLED));
+        this.jwksUrl = cache.getProperty(Constants.SSO_URL) + "realms/" + cache.getProperty(Constants.SSO_REALM) + JWKS_PATH;
+        this.refreshIntervalMillis = TimeUnit.SECONDS.toMillis(
+                NumberUtils.toLong(cache.getProperty(Constants.ACCESS_TOKEN_JWKS_REFRESH_INTERVAL_SECONDS), 300));
+        this.missRefreshIntervalNanos = TimeUnit.MILLISECONDS.toNanos(
+                NumberUtils.toLong(cache.getProperty(Constants.ACCESS_TOKEN_JWKS_MISS_REFRESH_MIN_INTERVAL_MS), 10000));
+        this.coldFetchTimeoutMillis =
+                NumberUtils.toLong(cache.getProperty(Constants.ACCESS_TOKEN_JWKS_COLD_FETCH_TIMEOUT_MS), 2000);
+        this.lastMissRefreshNanos = System.nanoTime() - missRefreshIntervalNanos;
+    }
+
+    JwksKeySource(RestTemplate restTemplate, String jwksUrl, long refreshIntervalMillis,
+                  long missRefreshIntervalMillis, long coldFetchTimeoutMillis) {
+        this.restTemplate = restTemplate;
+        this.enabled = true;
+        this.jwksUrl = jwksUrl;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+        this.missRefreshIntervalNanos = TimeUnit.MILLISECONDS.toNanos(missRefreshIntervalMillis);
+        this.coldFetchTimeoutMillis = coldFetchTimeoutMillis;
+        this.lastMissRefreshNanos = System.nanoTime() - missRefreshIntervalNanos;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        scheduler.scheduleWithFixedDelay(this::refreshAsync, 0, refreshIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Returns the key for the given key id from the current snapshot.
+     *
+     * @param keyId The {@code kid} of the token.
+     * @return The key data, or null if the key is not (yet) known.
+     */
+    public KeyData getKey(String keyId) {
+        if (!enabled || keyId == null) {
+            return null;
+        }
+        Map<String, KeyData> keys = keyMap;
+        KeyData keyData = keys.get(keyId);
+        if (keyData != null) {
+            return keyData;
+        }
+        long now = System.nanoTime();
+        if (now - lastMissRefreshNanos < missRefreshIntervalNanos) {
+            return null;
+        }
+        lastMissRefreshNanos = now;
+        CompletableFuture<Void> refresh = refreshAsync();
+        if (!keys.isEmpty()) {
+            return null;
+        }
+        try {
+            refresh.get(coldFetchTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("JwksKeySource:getKey: keys not available for key id {} ", keyId, e);
+        }
+        return keyMap.get(keyId);
+    }
+
+    /**
+     * Starts a refresh on the background thread unless one is already running, in which
+     * case the running one is returned.
+     *
+     * @return A future that completes when the refresh has finished.
+     */
+    CompletableFuture<Void> refreshAsync() {
+        CompletableFuture<Void> refresh = new CompletableFuture<>();
+        while (true) {
+            CompletableFuture<Void> running = inFlight.get();
+            if (running != null) {
+                return running;
+            }
+            if (inFlight.compareAndSet(null, refresh)) {
+                break;
+            }
+        }
+        try {
+            scheduler.execute(() -> {
+                Exception failure = null;
+                try {
+                    refresh();
+                } catch (Exception e) {
+                    logger.error("JwksKeySource:refresh: exception in fetching {}, keeping {} cached keys ",
+                            jwksUrl, keyMap.size(), e);
+                    failure = e;
+                }
+                // Clear before completing, so callers woken by the future can start a new fetch.
+                inFlight.compareAndSet(refresh, null);
+                if (failure == null) {
+                    refresh.complete(null);
+                } else {
+                    refresh.completeExceptionally(failure);
+                }
+            });
+        } catch (Exception e) {
+            inFlight.compareAndSet(refresh, null);
+            refresh.completeExceptionally(e);
+        }
+        return refresh;
+    }
+
+    private void refresh() throws Exception {
+        String response = restTemplate.getForObject(jwksUrl, String.class);
+        JsonNode keys = mapper.readTree(StringUtils.defaultString(response)).path("keys");
+        if (!keys.isArray()) {
+            throw new IllegalStateException("JWKS document has no keys");
+        }
+        Map<String, KeyData> current = keyMap;
+        Map<String, KeyData> next = new HashMap<>();
+        for (JsonNode jwk : keys) {
+            String keyId = jwk.path("kid").asText(null);
+            if (keyId == null || !"RSA".equals(jwk.path("kty").asText())
+                    || !"sig".equals(jwk.path("use").asText("sig"))) {
+                continue;
+            }
+            PublicKey publicKey;
+            try {
+                publicKey = loadPublicKey(jwk.path("n").asText(), jwk.path("e").asText());
+            } catch (Exception e) {
+                // Skip only this key, so that a bad key does not hold back the valid ones
+                logger.error("JwksKeySource:refresh: skipping invalid key {} from {}: {}",
+                        keyId, jwksUrl, e.getMessage());
+                continue;
+            }
+            KeyData existing = current.get(keyId);
+            // Keep the existing KeyData for an unchanged key so its verifier pool survives.
+            next.put(keyId, existing != null && existing.getPublicKey().equals(publicKey)
+                    ? existing : new KeyData(keyId, publicKey));
+        }
+        if (!next.equals(current)) {
+            keyMap = Map.copyOf(next);
+            logger.info("JwksKeySource:refresh: loaded {} keys from {}", next.size(), jwksUrl);
+        }
+    }
+
+    /**
+     * Builds an RSA public key from the base64url-encoded modulus and exponent of a JWK.
+     *
+     * @param modulus  The {@code n} member of the JWK.
+     * @param exponent The {@code e} member of the JWK.
+     * @return The public key.
+     * @throws Exception If the values do not form a valid RSA key.
+     */
+    static PublicKey loadPublicKey(String modulus, String exponent) throws Exception {
+        BigInteger n = new BigInteger(1, Base64Util.decode(modulus, JwtToken.SEGMENT_FLAGS));
+        BigInteger e = new BigInteger(1, Base64Util.decode(exponent, JwtToken.SEGMENT_FLAGS));
+        return KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(n, e));
+    }
+}
@@ -0,0 +1,85 @@
+package com.igot.cb.authentication.util;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A compact, signed JWT split into its three segments without copying them.
+ * <p>
+ * The token is held once as ASCII bytes; the header, body and signature are addressed
+ * by index and decoded straight from that array, and the signed region
+ * ({@code header.body}) is handed to the verifier as an offset and length.
+ */
+public final class JwtToken {
+
+    /**
+     * Base64 flags used for JWT segments: URL-safe alphabet, no padding, no wrapping.
+     */
+    static final int SEGMENT_FLAGS = Base64Util.URL_SAFE | Base64Util.NO_PADDING | Base64Util.NO_WRAP;
+
+    private final byte[] bytes;
+    private final int headerEnd;
+    private final int bodyEnd;
+    private final int signatureEnd;
+
+    private JwtToken(byte[] bytes, int headerEnd, int bodyEnd, int signatureEnd) {
+        this.bytes = bytes;
+        this.headerEnd = headerEnd;
+        this.bodyEnd = bodyEnd;
+        this.signatureEnd = signatureEnd;
+    }
+
+    /**
+     * Splits the given token into its segments by locating the separating dots.
+     *
+     * @param token The compact JWT.
+     * @return The parsed token.
+     * @throws IllegalArgumentException if the token does not have three segments.
+     */
+    public static JwtToken parse(String token) {
+        int headerEnd = token.indexOf('.');
+        int bodyEnd = headerEnd < 0 ? -1 : token.indexOf('.', headerEnd + 1);
+        if (bodyEnd < 0 || bodyEnd == token.length() - 1) {
+            throw new IllegalArgumentException("Invalid token format");
+        }
+        int signatureEnd = token.indexOf('.', bodyEnd + 1);
+        if (signatureEnd < 0) {
+            signatureEnd = token.length();
+        }
+        return new JwtToken(token.getBytes(StandardCharsets.US_ASCII), headerEnd, bodyEnd, signatureEnd);
+    }
+
+    /**
+     * @return The decoded header JSON bytes.
+     */
+    public byte[] decodeHeader() {
+        return Base64Util.decode(bytes, 0, headerEnd, SEGMENT_FLAGS);
+    }
+
+    /**
+     * @return The decoded body JSON bytes.
+     */
+    public byte[] decodeBody() {
+        return Base64Util.decode(bytes, headerEnd + 1, bodyEnd - headerEnd - 1, SEGMENT_FLAGS);
+    }
+
+    /**
+     * @return The decoded signature bytes.
+     */
+    public byte[] decodeSignature() {
+        return Base64Util.decode(bytes, bodyEnd + 1, signatureEnd - bodyEnd - 1, SEGMENT_FLAGS);
+    }
+
+    /**
+     * @return The token bytes; the signed region starts at offset 0 and spans {@link #signedLength()} bytes.
+     */
+    public byte[] bytes() {
+        return bytes;
+    }
+
+    /**
+     * @return The length of the signed region, i.e. {@code header.body}.
+     */
+    public int signedLength() {
+        return bodyEnd;
+    }
+}
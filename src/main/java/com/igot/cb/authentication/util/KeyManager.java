@@ -5,25 +5,48 @@ import com.igot.cb.authentication.model.KeyData;
 
 import com.igot.cb.transactional.util.Constants;
 import com.igot.cb.transactional.util.PropertiesCache;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.FileTime;
 import java.security.KeyFactory;
 import java.security.PublicKey;
 import java.security.spec.X509EncodedKeySpec;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Stream;
 
 /**
+ * Holds the public keys used to verify access tokens, loaded from the PEM files under
+ * {@code accesstoken.publickey.basepath}. The file name is the key id.
+ * <p>
+ * Keys are published as an immutable snapshot that is swapped atomically, so lookups never
+ * lock. A background thread watches the key directory and its subdirectories, including ones
+ * created later, and reloads new or changed files. Only while the watcher is not running, a
+ * lookup for an unknown key id triggers one reload, at most once per
+ * {@code accesstoken.publickey.reload.min.interval.ms}. Keys not found on disk are looked up
+ * in the realm's JWKS document through {@link JwksKeySource}.
+ *
  * @author Mahesh RV
  */
 @Component
@@ -32,36 +55,215 @@ public class KeyManager {
     private static final Logger logger = LoggerFactory.getLogger(KeyManager.class.getName());
     private static final PropertiesCache propertiesCache = PropertiesCache.getInstance();
 
-    private static final Map<String, KeyData> keyMap = new HashMap<>();
+    // Events that arrive within this window are folded into a single reload.
+    private static final long WATCH_DEBOUNCE_MILLIS = 200;
+
+    private final long missReloadIntervalNanos = TimeUnit.MILLISECONDS.toNanos(NumberUtils.toLong(
+            propertiesCache.getProperty(Constants.ACCESS_TOKEN_PUBLICKEY_RELOAD_MIN_INTERVAL_MS), 10000));
+
+    @Autowired(required = false)
+    private JwksKeySource jwksKeySource;
+
+    private volatile Map<String, KeyData> keyMap = Collections.emptyMap();
+
+    // Guarded by reloadLock.
+    private final Map<String, FileTime> loadedModifiedTimes = new HashMap<>();
+    private final Object reloadLock = new Object();
+    private final AtomicBoolean missReloading = new AtomicBoolean();
+    private volatile long lastMissReloadNanos = System.nanoTime() - missReloadIntervalNanos;
+
+    private volatile String basePath;
+    private WatchService watchService;
+    private Thread watcherThread;
+    private volatile boolean watching;
 
     @PostConstruct
     public void init() {
-        // Read the content of the file and load it as a PublicKey
-        String basePath = propertiesCache.getProperty(Constants.ACCESS_TOKEN_PUBLICKEY_BASEPATH);
-        try (Stream<Path> walk = Files.walk(Paths.get(basePath))) {
-            List<String> result =
-                    walk.filter(Files::isRegularFile).map(Path::toString).toList();
-            result.forEach(file -> {
-                try {
-                    Path path = Paths.get(file);
-                    List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
-                    String content = String.join("", lines);
-                    KeyData keyData = new KeyData(path.getFileName().toString(), loadPublicKey(content));
-                    // Store the KeyData object in the keyMap
-                    keyMap.put(path.getFileName().toString(), keyData);
-                } catch (Exception e) {
-                    logger.error("KeyManager:init: exception in reading public keys ", e);
-                }
-            });
-        } catch (Exception e) {
-            logger.error("KeyManager:init: exception in loading publickeys ", e);
+        init(propertiesCache.getProperty(Constants.ACCESS_TOKEN_PUBLICKEY_BASEPATH));
+    }
+
+    void init(String basePath) {
+        this.basePath = basePath;
+        reload();
+        startWatcher();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        watching = false;
+        WatchService service = watchService;
+        if (service != null) {
+            try {
+                service.close();
+            } catch (IOException e) {
+                logger.error("KeyManager:shutdown: exception in closing key watcher ", e);
+            }
         }
     }
 
+    /**
+     * Returns the key for the given key id. While the watcher is not running, an unknown key id
+     * triggers a reload of the key directory, unless one was triggered the same way within the
+     * configured interval. A key id still unknown is then looked up in the JWKS source.
+     *
+     * @param keyId The key id, i.e. the name of the PEM file or the JWKS {@code kid}.
+     * @return The key data, or null if the key is unknown.
+     */
     public KeyData getPublicKey(String keyId) {
-        return keyMap.get(keyId);
+        KeyData keyData = keyMap.get(keyId);
+        if (keyData != null || keyId == null) {
+            return keyData;
+        }
+        if (!watching) {
+            keyData = reloadOnMiss(keyId);
+        }
+        if (keyData == null && jwksKeySource != null) {
+            keyData = jwksKeySource.getKey(keyId);
+        }
+        return keyData;
+    }
+
+    // A single caller reloads; the others do not wait for it and go on to the JWKS source.
+    private KeyData reloadOnMiss(String keyId) {
+        if (System.nanoTime() - lastMissReloadNanos < missReloadIntervalNanos
+                || !missReloading.compareAndSet(false, true)) {
+            return null;
+        }
+        try {
+            // Another caller may have reloaded between the check and taking the flag.
+            long now = System.nanoTime();
+            if (now - lastMissReloadNanos < missReloadIntervalNanos) {
+                return null;
+            }
+            lastMissReloadNanos = now;
+            logger.info("KeyManager:getPublicKey: unknown key id {} and no key watcher, reloading public keys", keyId);
+            reload();
+            return keyMap.get(keyId);
+        } finally {
+            missReloading.set(false);
+        }
     }
 
+    /**
+     * Re-reads the key directory and publishes a new snapshot. Files whose modification time
+     * is unchanged keep their existing key. A file that fails to parse keeps its previous key,
+     * so a half-written file during rotation does not drop a working key.
+     */
+    void reload() {
+        String path = basePath;
+        if (path == null) {
+            return;
+        }
+        synchronized (reloadLock) {
+            Map<String, KeyData> current = keyMap;
+            Map<String, KeyData> next = new HashMap<>();
+            Map<String, FileTime> nextModifiedTimes = new HashMap<>();
+            try (Stream<Path> walk = Files.walk(Paths.get(path))) {
+                List<String> result =
+                        walk.filter(Files::isRegularFile).map(Path::toString).toList();
+                result.forEach(file -> {
+                    Path filePath = Paths.get(file);
+                    String keyId = String.valueOf(filePath.getFileName());
+                    try {
+                        FileTime modified = Files.getLastModifiedTime(filePath);
+                        KeyData existing = current.get(keyId);
+                        if (existing != null && modified != null
+                                && modified.equals(loadedModifiedTimes.get(keyId))) {
+                            next.put(keyId, existing);
+                        } else {
+                            List<String> lines = Files.readAllLines(filePath, StandardCharsets.UTF_8);
+                            String content = String.join("", lines);
+                            next.put(keyId, new KeyData(keyId, loadPublicKey(content)));
+                        }
+                        nextModifiedTimes.put(keyId, modified);
+                    } catch (Exception e) {
+                        logger.error("KeyManager:reload: exception in reading public key {} ", keyId, e);
+                        KeyData existing = current.get(keyId);
+                        if (existing != null) {
+                            next.put(keyId, existing);
+                            nextModifiedTimes.put(keyId, loadedModifiedTimes.get(keyId));
+                        }
+                    }
+                });
+            } catch (Exception e) {
+                logger.error("KeyManager:reload: exception in loading publickeys ", e);
+                return;
+            }
+            loadedModifiedTimes.clear();
+            loadedModifiedTimes.putAll(nextModifiedTimes);
+            if (!next.equals(current)) {
+                keyMap = Map.copyOf(next);
+                logger.info("KeyManager:reload: loaded {} public keys", next.size());
+            }
+        }
+    }
+
+    private void startWatcher() {
+        if (basePath == null) {
+            return;
+        }
+        Path dir = Paths.get(basePath);
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try {
+            WatchService service = FileSystems.getDefault().newWatchService();
+            registerTree(service, dir);
+            watchService = service;
+            watching = true;
+            watcherThread = new Thread(() -> watch(service), "key-manager-watcher");
+            watcherThread.setDaemon(true);
+            watcherThread.start();
+        } catch (Exception e) {
+            logger.error("KeyManager:startWatcher: exception in watching publickeys, keys reload on miss only ", e);
+        }
+    }
+
+    private static void registerTree(WatchService service, Path root) throws IOException {
+        try (Stream<Path> walk = Files.walk(root)) {
+            for (Path subDir : walk.filter(Files::isDirectory).toList()) {
+                subDir.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            }
+        }
+    }
+
+    private void watch(WatchService service) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                // Drain the burst of events a key rotation produces before reloading once.
+                do {
+                    registerCreatedDirectories(service, key);
+                    key.reset();
+                    key = service.poll(WATCH_DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+                } while (key != null);
+                reload();
+            }
+        } catch (ClosedWatchServiceException e) {
+            logger.debug("KeyManager:watch: key watcher closed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            watching = false;
+        }
+    }
+
+    // Watches directories created after startup too; the reload that follows reads the files
+    // already written to them
+    private void registerCreatedDirectories(WatchService service, WatchKey key) {
+        Path dir = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && event.context() instanceof Path name
+                    && Files.isDirectory(dir.resolve(name))) {
+                try {
+                    registerTree(service, dir.resolve(name));
+                } catch (IOException e) {
+                    logger.error("KeyManager:watch: exception in watching new directory {} ", dir.resolve(name), e);
+                }
+            }
+        }
+    }
 
     /**
      * Loads a public key from a string representation.
@@ -83,4 +285,4 @@ public class KeyManager {
         KeyFactory kf = KeyFactory.getInstance("RSA");
         return kf.generatePublic(x509publicKey);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,88 @@
+package com.igot.cb.authentication.util;
+
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of {@link Signature} objects initialised for verification with one public key.
+ * <p>
+ * {@link Signature#getInstance(String)} and {@link Signature#initVerify(PublicKey)} are paid
+ * once per pooled instance instead of once per request. A successful call to
+ * {@link Signature#verify(byte[])} resets the object to its freshly initialised state, so
+ * an instance can be handed back to the pool right away. Instances that fail mid-way are
+ * discarded, since their state is no longer defined.
+ */
+public class SignatureVerifierPool {
+
+    private static final int DEFAULT_MAX_IDLE = Runtime.getRuntime().availableProcessors() * 4;
+
+    private final PublicKey key;
+    private final String algorithm;
+    private final int maxIdle;
+    private final Deque<Signature> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    public SignatureVerifierPool(PublicKey key, String algorithm) {
+        this(key, algorithm, DEFAULT_MAX_IDLE);
+    }
+
+    public SignatureVerifierPool(PublicKey key, String algorithm, int maxIdle) {
+        this.key = key;
+        this.algorithm = algorithm;
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * Verifies a signature over a region of the given byte array.
+     *
+     * @param data      The array holding the signed bytes.
+     * @param offset    The offset of the signed region within {@code data}.
+     * @param len       The length of the signed region.
+     * @param signature The signature to be verified.
+     * @return true if the signature is valid, false otherwise.
+     * @throws GeneralSecurityException If a verifier cannot be created or the signature cannot be processed.
+     */
+    public boolean verify(byte[] data, int offset, int len, byte[] signature) throws GeneralSecurityException {
+        Signature verifier = borrow();
+        // If update or verify throws, the verifier is simply not returned to the pool.
+        verifier.update(data, offset, len);
+        boolean valid = verifier.verify(signature);
+        release(verifier);
+        return valid;
+    }
+
+    public PublicKey getKey() {
+        return key;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    int idleCount() {
+        return idleCount.get();
+    }
+
+    private Signature borrow() throws GeneralSecurityException {
+        Signature verifier = idle.pollFirst();
+        if (verifier != null) {
+            idleCount.decrementAndGet();
+            return verifier;
+        }
+        verifier = Signature.getInstance(algorithm);
+        verifier.initVerify(key);
+        return verifier;
+    }
+
+    private void release(Signature verifier) {
+        if (idleCount.incrementAndGet() <= maxIdle) {
+            idle.offerFirst(verifier);
+        } else {
+            idleCount.decrementAndGet();
+        }
+    }
+}
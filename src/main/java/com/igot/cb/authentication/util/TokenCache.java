@@ -0,0 +1,170 @@
+package com.igot.cb.authentication.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * A bounded, concurrent cache keyed by the SHA-256 digest of a token.
+ * <p>
+ * Every entry carries its own expiry instant, so callers can tie the lifetime of an
+ * entry to the token it was computed from. Entries are evicted lazily on lookup once
+ * they expire, and in insertion order once the cache grows beyond its capacity.
+ * The raw token is never retained.
+ *
+ * @param <V> the type of the cached value
+ */
+public class TokenCache<V> {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    private final Map<String, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final Queue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedKeys = new AtomicInteger();
+    private final int maxEntries;
+    private final LongSupplier clock;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache holding at most {@code maxEntries} entries.
+     *
+     * @param maxEntries The maximum number of entries kept in the cache.
+     */
+    public TokenCache(int maxEntries) {
+        this(maxEntries, System::currentTimeMillis);
+    }
+
+    TokenCache(int maxEntries, LongSupplier clock) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the value cached for the given token, if present and not yet expired.
+     *
+     * @param token The raw token.
+     * @return The cached value, or null if there is none.
+     */
+    public V get(String token) {
+        String key = digest(token);
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAtMillis <= clock.getAsLong()) {
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    /**
+     * Caches a value for the given token until {@code expiresAtMillis}.
+     * Values that are already expired are not cached.
+     *
+     * @param token           The raw token.
+     * @param value           The value to cache.
+     * @param expiresAtMillis The epoch millis after which the entry must no longer be served.
+     */
+    public void put(String token, V value, long expiresAtMillis) {
+        if (value == null || expiresAtMillis <= clock.getAsLong()) {
+            return;
+        }
+        String key = digest(token);
+        if (entries.put(key, new Entry<>(value, expiresAtMillis)) == null) {
+            insertionOrder.add(key);
+            if (queuedKeys.incrementAndGet() > maxEntries * 2) {
+                trimInsertionOrder();
+            }
+        }
+        if (entries.size() > maxEntries) {
+            evictOverflow();
+        }
+    }
+
+    /**
+     * Removes the entry cached for the given token, if any.
+     *
+     * @param token The raw token.
+     */
+    public void invalidate(String token) {
+        entries.remove(digest(token));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    private void evictOverflow() {
+        while (entries.size() > maxEntries) {
+            String oldest = insertionOrder.poll();
+            if (oldest == null) {
+                break;
+            }
+            queuedKeys.decrementAndGet();
+            if (entries.remove(oldest) != null) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private void trimInsertionOrder() {
+        // Keys dropped through expiry or invalidation stay queued until they reach the head;
+        // prune them once the queue grows well past the capacity so that it stays bounded.
+        insertionOrder.removeIf(key -> !entries.containsKey(key));
+        queuedKeys.set(insertionOrder.size());
+    }
+
+    static String digest(String token) {
+        MessageDigest md = SHA_256.get();
+        md.reset();
+        return Base64.getEncoder().encodeToString(md.digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAtMillis;
+
+        private Entry(V value, long expiresAtMillis) {
+            this.value = value;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
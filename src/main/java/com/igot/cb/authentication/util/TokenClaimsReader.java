@@ -0,0 +1,79 @@
+package com.igot.cb.authentication.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.igot.cb.authentication.model.TokenClaims;
+import com.igot.cb.transactional.util.Constants;
+
+import java.io.IOException;
+
+/**
+ * Reads the few fields the service needs from decoded JWT header and body JSON with the
+ * Jackson streaming API. Nested objects and arrays are skipped without being materialised.
+ */
+public final class TokenClaimsReader {
+
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
+    private TokenClaimsReader() {
+    }
+
+    /**
+     * Reads the {@code kid} field from a decoded JWT header.
+     *
+     * @param header The decoded header JSON bytes.
+     * @return The key id, or null if the header has none.
+     * @throws IOException If the header is not a JSON object.
+     */
+    public static String readKeyId(byte[] header) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(header)) {
+            startObject(parser);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("kid".equals(field) && value == JsonToken.VALUE_STRING) {
+                    return parser.getText();
+                }
+                parser.skipChildren();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Reads {@code exp}, {@code iss} and {@code sub} from a decoded JWT body.
+     *
+     * @param body The decoded body JSON bytes.
+     * @return The extracted claims; the full claim set stays available lazily.
+     * @throws IOException If the body is not a JSON object.
+     */
+    public static TokenClaims readClaims(byte[] body) throws IOException {
+        Long exp = null;
+        String iss = null;
+        String sub = null;
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            startObject(parser);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("exp".equals(field) && value.isNumeric()) {
+                    exp = parser.getValueAsLong();
+                } else if ("iss".equals(field) && value == JsonToken.VALUE_STRING) {
+                    iss = parser.getText();
+                } else if (Constants.SUB.equals(field) && value == JsonToken.VALUE_STRING) {
+                    sub = parser.getText();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return new TokenClaims(exp, iss, sub, body);
+    }
+
+    private static void startObject(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a JSON object");
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.igot.cb.transactional.cassandrautils;
+
+import com.igot.cb.transactional.util.Constants;
+import com.igot.cb.transactional.util.exceptions.CustomException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Bounds the number of asynchronous calls in flight. Calls beyond {@code maxConcurrent} wait in
+ * a queue of at most {@code maxQueued} calls, without holding a thread, and start in order as
+ * earlier calls complete. A call that has waited {@code maxQueueTime} is removed from the queue
+ * and failed, even if no earlier call ever completes, and a call whose turn comes after it has
+ * waited that long is failed instead of started; a call that finds the queue full is failed at
+ * once. All of them fail with a {@link CustomException} with status
+ * {@link HttpStatus#SERVICE_UNAVAILABLE}.
+ */
+public class Bulkhead {
+
+    // Fails queued calls that reach their deadline, shared by all bulkheads
+    private static final ScheduledExecutorService QUEUE_TIMER = queueTimer();
+
+    private static final class Waiter {
+        private final long enqueuedAt;
+        private final Runnable start;
+        private final CompletableFuture<?> result;
+        private ScheduledFuture<?> deadline;
+
+        private Waiter(long enqueuedAt, Runnable start, CompletableFuture<?> result) {
+            this.enqueuedAt = enqueuedAt;
+            this.start = start;
+            this.result = result;
+        }
+    }
+
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final long maxQueueNanos;
+    private final LongSupplier nanoClock;
+    private final ScheduledExecutorService timer;
+
+    private final ArrayDeque<Waiter> queue = new ArrayDeque<>();
+    private int inFlight;
+
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder shedCalls = new LongAdder();
+
+    /**
+     * Creates a bulkhead.
+     *
+     * @param name          What the bulkhead protects, for the error messages.
+     * @param maxConcurrent The most calls in flight.
+     * @param maxQueued     The most calls waiting for a slot.
+     * @param maxQueueTime  How long a call may wait for a slot.
+     */
+    public Bulkhead(String name, int maxConcurrent, int maxQueued, Duration maxQueueTime) {
+        this(name, maxConcurrent, maxQueued, maxQueueTime, System::nanoTime, QUEUE_TIMER);
+    }
+
+    Bulkhead(String name, int maxConcurrent, int maxQueued, Duration maxQueueTime, LongSupplier nanoClock,
+             ScheduledExecutorService timer) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("maxConcurrent must be positive");
+        }
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = Math.max(0, maxQueued);
+        this.maxQueueNanos = maxQueueTime.toNanos();
+        this.nanoClock = nanoClock;
+        this.timer = timer;
+    }
+
+    private static ScheduledExecutorService queueTimer() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "cassandra-bulkhead-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Most deadlines are cancelled when the call starts; do not keep them until they are due
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    /**
+     * Starts the call now if a slot is free, or once one frees up.
+     *
+     * @param call Starts the call; only invoked when the call gets a slot.
+     * @param <T>  The result type.
+     * @return A stage completing with the outcome of the call, or exceptionally if the call was
+     *         rejected or shed.
+     */
+    public <T> CompletionStage<T> submit(Supplier<? extends CompletionStage<T>> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable start = () -> start(call, result);
+        synchronized (this) {
+            if (inFlight >= maxConcurrent) {
+                if (queue.size() >= maxQueued) {
+                    rejections.increment();
+                    return CompletableFuture.failedFuture(unavailable("is full"));
+                }
+                Waiter waiter = new Waiter(nanoClock.getAsLong(), start, result);
+                queue.add(waiter);
+                waiter.deadline = timer.schedule(() -> expire(waiter), maxQueueNanos, TimeUnit.NANOSECONDS);
+                return result;
+            }
+            inFlight++;
+        }
+        start.run();
+        return result;
+    }
+
+    // Fails a call still queued at its deadline, so its caller is not held until a slot frees up
+    private void expire(Waiter waiter) {
+        synchronized (this) {
+            if (!queue.remove(waiter)) {
+                return;
+            }
+        }
+        shed(waiter);
+    }
+
+    private void shed(Waiter waiter) {
+        shedCalls.increment();
+        waiter.result.completeExceptionally(unavailable("queue wait exceeded the limit"));
+    }
+
+    private <T> void start(Supplier<? extends CompletionStage<T>> call, CompletableFuture<T> result) {
+        CompletionStage<T> stage;
+        try {
+            stage = call.get();
+        } catch (RuntimeException e) {
+            stage = CompletableFuture.failedFuture(e);
+        }
+        stage.whenComplete((value, error) -> {
+            completed();
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(value);
+            }
+        });
+    }
+
+    // Hands the slot of a completed call to the next waiter that has not waited too long
+    private void completed() {
+        List<Waiter> expired = new ArrayList<>(0);
+        Waiter next;
+        synchronized (this) {
+            long now = nanoClock.getAsLong();
+            while ((next = queue.poll()) != null && now - next.enqueuedAt > maxQueueNanos) {
+                expired.add(next);
+            }
+            if (next == null) {
+                inFlight--;
+            }
+        }
+        for (Waiter waiter : expired) {
+            waiter.deadline.cancel(false);
+            shed(waiter);
+        }
+        if (next != null) {
+            next.deadline.cancel(false);
+            next.start.run();
+        }
+    }
+
+    private CustomException unavailable(String reason) {
+        return new CustomException(Constants.ERROR, "Cassandra bulkhead of " + name + " " + reason,
+                HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    /**
+     * Returns the number of calls in flight.
+     *
+     * @return The in-flight count.
+     */
+    public synchronized int getInFlightCount() {
+        return inFlight;
+    }
+
+    /**
+     * Returns the number of calls waiting for a slot.
+     *
+     * @return The queue length.
+     */
+    public synchronized int getQueuedCount() {
+        return queue.size();
+    }
+
+    /**
+     * Returns the number of calls failed because the queue was full.
+     *
+     * @return The rejection count.
+     */
+    public long getRejectedCount() {
+        return rejections.sum();
+    }
+
+    /**
+     * Returns the number of calls failed because they waited too long for a slot.
+     *
+     * @return The shed count.
+     */
+    public long getShedCount() {
+        return shedCalls.sum();
+    }
+}
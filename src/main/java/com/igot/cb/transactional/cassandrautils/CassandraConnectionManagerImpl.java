@@ -1,30 +1,38 @@
 package com.igot.cb.transactional.cassandrautils;
 
-import com.datastax.oss.driver.api.core.ConsistencyLevel;
 import com.datastax.oss.driver.api.core.CqlSession;
-import com.datastax.oss.driver.api.core.DefaultConsistencyLevel;
 import com.datastax.oss.driver.api.core.ProtocolVersion;
 import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
 import com.datastax.oss.driver.api.core.config.DriverConfigLoader;
+import com.datastax.oss.driver.api.core.config.ProgrammaticDriverConfigLoaderBuilder;
 import com.datastax.oss.driver.api.core.metadata.Metadata;
 import com.datastax.oss.driver.api.core.metadata.Node;
+import com.datastax.oss.driver.api.core.metrics.DefaultNodeMetric;
+import com.datastax.oss.driver.api.core.metrics.DefaultSessionMetric;
+import com.datastax.oss.driver.api.core.metrics.NodeMetric;
+import com.datastax.oss.driver.api.core.metrics.SessionMetric;
+import com.datastax.oss.driver.internal.core.specex.ConstantSpeculativeExecutionPolicy;
+import com.datastax.oss.driver.internal.core.specex.NoSpeculativeExecutionPolicy;
 import com.datastax.oss.driver.internal.core.time.AtomicTimestampGenerator;
 
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.ScheduledReporter;
+import com.codahale.metrics.Slf4jReporter;
 import com.igot.cb.transactional.util.Constants;
 import com.igot.cb.transactional.util.PropertiesCache;
 import com.igot.cb.transactional.util.exceptions.CustomException;
-import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.net.InetSocketAddress;
-import java.util.Arrays;
+import java.time.Duration;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 
 /**
@@ -36,8 +44,26 @@ import java.util.concurrent.ConcurrentHashMap;
 @Component
 public class CassandraConnectionManagerImpl implements CassandraConnectionManager {
     private static final Logger logger = LoggerFactory.getLogger(CassandraConnectionManagerImpl.class);
-    private static final Map<String, CqlSession> cassandraSessionMap = new ConcurrentHashMap<>(2);
-    private static CqlSession session;
+    private static final Logger metricsLogger = LoggerFactory.getLogger("com.igot.cb.cassandra.metrics");
+    private static final List<String> SESSION_METRICS = Stream.of(
+                    DefaultSessionMetric.CONNECTED_NODES, DefaultSessionMetric.CQL_REQUESTS,
+                    DefaultSessionMetric.CQL_CLIENT_TIMEOUTS, DefaultSessionMetric.THROTTLING_ERRORS)
+            .map(SessionMetric::getPath)
+            .toList();
+    // Pool usage tells exhausted connections apart from slow nodes, whose errors and retries go up
+    private static final List<String> NODE_METRICS = Stream.of(
+                    DefaultNodeMetric.OPEN_CONNECTIONS, DefaultNodeMetric.AVAILABLE_STREAMS,
+                    DefaultNodeMetric.IN_FLIGHT, DefaultNodeMetric.ORPHANED_STREAMS, DefaultNodeMetric.CQL_MESSAGES,
+                    DefaultNodeMetric.UNSENT_REQUESTS, DefaultNodeMetric.ABORTED_REQUESTS,
+                    DefaultNodeMetric.WRITE_TIMEOUTS, DefaultNodeMetric.READ_TIMEOUTS, DefaultNodeMetric.UNAVAILABLES,
+                    DefaultNodeMetric.OTHER_ERRORS, DefaultNodeMetric.RETRIES,
+                    DefaultNodeMetric.SPECULATIVE_EXECUTIONS, DefaultNodeMetric.CONNECTION_INIT_ERRORS)
+            .map(NodeMetric::getPath)
+            .toList();
+
+    private static volatile CqlSession session;
+    private static volatile SlowQueryTracker slowQueryTracker;
+    private static ScheduledReporter metricsReporter;
 
     /**
      * Method invoked after bean creation for initialization
@@ -49,87 +75,83 @@ public class CassandraConnectionManagerImpl implements CassandraConnectionManage
     }
 
     /**
-     * Retrieves a session for the specified keyspace.
-     * If a session for the keyspace already exists, returns it; otherwise, creates a new session.
+     * Retrieves the session to run statements against the specified keyspace.
+     * All keyspaces share one session, so every statement must name its keyspace;
+     * the session is only created again if it has been closed.
      *
      * @param keyspaceName The keyspace for which to retrieve the session.
-     * @return The session object for the specified keyspace.
+     * @return The shared session object.
      */
     @Override
     public CqlSession getSession(String keyspaceName) {
-        // Check if session for keyspace already exists
-        CqlSession currentSession = cassandraSessionMap.get(keyspaceName);
-        if (currentSession != null&& !currentSession.isClosed()) {
+        CqlSession currentSession = session;
+        if (currentSession != null && !currentSession.isClosed()) {
             return currentSession;
-        } else {
-            // Create new session scoped to keyspace using the USE command
-            CqlSession newSession = createCassandraConnectionWithKeySpaces(keyspaceName);
-            cassandraSessionMap.put(keyspaceName, newSession);
-            return newSession;
+        }
+        synchronized (CassandraConnectionManagerImpl.class) {
+            if (session == null || session.isClosed()) {
+                createCassandraConnection();
+            }
+            return session;
         }
     }
 
     /**
      * Creates a Cassandra connection based on properties
      */
-    private CqlSession createCassandraConnectionWithKeySpaces(String keySpaceName) {
+    private CqlSession buildSession() {
         try {
-            // Load the properties required for connection
-            PropertiesCache cache = PropertiesCache.getInstance();
-            String cassandraHost = cache.getProperty(Constants.CASSANDRA_CONFIG_HOST);
-            if (StringUtils.isBlank(cassandraHost)) {
-                throw new CustomException(
-                        Constants.ERROR,
-                        "Cassandra host is not configured",
-                        HttpStatus.INTERNAL_SERVER_ERROR);
-            }
-            List<String> hosts = Arrays.asList(cassandraHost.split(","));
-            List<InetSocketAddress> contactPoints = hosts.stream()
-                    .map(host -> new InetSocketAddress(host.trim(), 9042)) // Assuming default port 9042
+            CassandraTuningConfig config = CassandraTuningConfig.fromProperties(PropertiesCache.getInstance());
+            logger.info("Cassandra session settings: {}", config);
+            List<InetSocketAddress> contactPoints = config.hosts().stream()
+                    .map(host -> new InetSocketAddress(host, config.port()))
                     .collect(Collectors.toList());
-            List<String> contactPointsString = hosts.stream()
-                    .map(host -> host.trim() + ":9042") // Ensure proper host:port format
-                    .collect(Collectors.toList());
-            DriverConfigLoader loader = DriverConfigLoader.programmaticBuilder()
-                    .withStringList(DefaultDriverOption.CONTACT_POINTS, contactPointsString)
-                    .withString(DefaultDriverOption.REQUEST_CONSISTENCY, getConsistencyLevel().name())
-                    .withString(DefaultDriverOption.LOAD_BALANCING_LOCAL_DATACENTER, "datacenter1")
-                    .withInt(DefaultDriverOption.CONNECTION_POOL_LOCAL_SIZE,
-                            Integer.parseInt(cache.getProperty(Constants.CORE_CONNECTIONS_PER_HOST_FOR_LOCAL)))
-                    .withInt(DefaultDriverOption.CONNECTION_POOL_REMOTE_SIZE,
-                            Integer.parseInt(cache.getProperty(Constants.CORE_CONNECTIONS_PER_HOST_FOR_REMOTE)))
-                    .withInt(DefaultDriverOption.HEARTBEAT_INTERVAL,
-                            Integer.parseInt(cache.getProperty(Constants.HEARTBEAT_INTERVAL)))
-                    .withInt(DefaultDriverOption.CONNECTION_INIT_QUERY_TIMEOUT, 10000)
-                    .withInt(DefaultDriverOption.REQUEST_TIMEOUT, 10000)
+            ProgrammaticDriverConfigLoaderBuilder loaderBuilder = DriverConfigLoader.programmaticBuilder()
+                    .withString(DefaultDriverOption.REQUEST_CONSISTENCY, config.consistency().name())
+                    .withInt(DefaultDriverOption.CONNECTION_POOL_LOCAL_SIZE, config.localPoolSize())
+                    .withInt(DefaultDriverOption.CONNECTION_POOL_REMOTE_SIZE, config.remotePoolSize())
+                    .withInt(DefaultDriverOption.CONNECTION_MAX_REQUESTS, config.maxRequestsPerConnection())
+                    .withDuration(DefaultDriverOption.HEARTBEAT_INTERVAL, config.heartbeatInterval())
+                    .withDuration(DefaultDriverOption.CONNECTION_CONNECT_TIMEOUT, config.connectTimeout())
+                    .withDuration(DefaultDriverOption.CONNECTION_INIT_QUERY_TIMEOUT, config.connectTimeout())
+                    .withDuration(DefaultDriverOption.REQUEST_TIMEOUT, config.requestTimeout())
+                    .withString(DefaultDriverOption.PROTOCOL_COMPRESSION, config.compression())
                     .withString(DefaultDriverOption.PROTOCOL_VERSION, ProtocolVersion.V4.toString())
                     .withClass(DefaultDriverOption.RETRY_POLICY_CLASS, com.datastax.oss.driver.internal.core.retry.DefaultRetryPolicy.class)
                     .withClass(DefaultDriverOption.TIMESTAMP_GENERATOR_CLASS, AtomicTimestampGenerator.class)
-                    .build();
-            CqlSession sessionWithKeyspaces;
-            if (StringUtils.isNotBlank(keySpaceName)) {
-                sessionWithKeyspaces = CqlSession.builder()
-                        .addContactPoints(contactPoints)
-                        .withLocalDatacenter("datacenter1")
-                        .withKeyspace(keySpaceName)
-                        .withConfigLoader(loader)
-                        .build();
-            } else {
-                sessionWithKeyspaces = CqlSession.builder()
-                        .addContactPoints(contactPoints)
-                        .withLocalDatacenter("datacenter1")
-                        .withConfigLoader(loader)
-                        .build();
+                    .withStringList(DefaultDriverOption.METRICS_SESSION_ENABLED, SESSION_METRICS)
+                    .withStringList(DefaultDriverOption.METRICS_NODE_ENABLED, NODE_METRICS)
+                    .withBoolean(DefaultDriverOption.LOAD_BALANCING_POLICY_SLOW_AVOIDANCE, config.slowReplicaAvoidance())
+                    // Only statements marked idempotent are ever speculated
+                    .withClass(DefaultDriverOption.SPECULATIVE_EXECUTION_POLICY_CLASS,
+                            config.speculativeExecutionMax() > 1
+                                    ? ConstantSpeculativeExecutionPolicy.class : NoSpeculativeExecutionPolicy.class)
+                    .withInt(DefaultDriverOption.SPECULATIVE_EXECUTION_MAX, config.speculativeExecutionMax())
+                    .withDuration(DefaultDriverOption.SPECULATIVE_EXECUTION_DELAY, config.speculativeExecutionDelay());
+            for (CassandraExecutionProfile profile : config.executionProfiles()) {
+                addProfile(loaderBuilder, profile);
             }
-            logger.info("Connected to the keyspaces: " + keySpaceName);
+            DriverConfigLoader loader = loaderBuilder.build();
+            SlowQueryTracker tracker = new SlowQueryTracker(config.slowQueryThreshold());
+            // No keyspace is set on the session; statements are keyspace-qualified
+            CqlSession sharedSession = CqlSession.builder()
+                    .addContactPoints(contactPoints)
+                    .withLocalDatacenter(config.localDatacenter())
+                    .withConfigLoader(loader)
+                    .addRequestTracker(tracker)
+                    .build();
+            slowQueryTracker = tracker;
+            sharedSession.getMetrics().ifPresent(metrics -> exportMetrics(sharedSession.getName(),
+                    metrics.getRegistry(), tracker, config.metricsLogInterval()));
+            logger.info("Connected to Cassandra");
             // Get metadata and log cluster information
-            final Metadata metadata = sessionWithKeyspaces.getMetadata();
+            final Metadata metadata = sharedSession.getMetadata();
             logger.info(String.format("Connected to cluster: %s", metadata.getClusterName()));
             // Log nodes in the cluster
             for (Node host : metadata.getNodes().values()) {
                 logger.info(String.format("Datacenter: %s; Host: %s; Rack: %s", host.getDatacenter(), host.getEndPoint(), host.getRack()));
             }
-            return sessionWithKeyspaces;
+            return sharedSession;
         } catch (Exception e) {
             logger.error("Error while creating Cassandra connection", e);
             throw new CustomException(
@@ -139,9 +161,53 @@ public class CassandraConnectionManagerImpl implements CassandraConnectionManage
         }
     }
 
+    /**
+     * Registers an execution profile; the settings it leaves unset are inherited from the session.
+     */
+    private static void addProfile(ProgrammaticDriverConfigLoaderBuilder loaderBuilder,
+                                   CassandraExecutionProfile profile) {
+        loaderBuilder.startProfile(profile.name());
+        if (profile.consistency() != null) {
+            loaderBuilder.withString(DefaultDriverOption.REQUEST_CONSISTENCY, profile.consistency().name());
+        }
+        if (profile.requestTimeout() != null) {
+            loaderBuilder.withDuration(DefaultDriverOption.REQUEST_TIMEOUT, profile.requestTimeout());
+        }
+        if (profile.pageSize() > 0) {
+            loaderBuilder.withInt(DefaultDriverOption.REQUEST_PAGE_SIZE, profile.pageSize());
+        }
+        if (profile.retryPolicy() != null) {
+            loaderBuilder.withClass(DefaultDriverOption.RETRY_POLICY_CLASS, profile.retryPolicy());
+        }
+        loaderBuilder.endProfile();
+    }
+
+    /**
+     * Adds the slow query counts to the driver metrics and logs all of them periodically.
+     */
+    private static synchronized void exportMetrics(String sessionName, MetricRegistry registry,
+                                                   SlowQueryTracker tracker, Duration logInterval) {
+        registry.register(MetricRegistry.name(sessionName, "slow-queries"),
+                (Gauge<Long>) tracker::getSlowQueryCount);
+        registry.register(MetricRegistry.name(sessionName, "slow-queries", "failed"),
+                (Gauge<Long>) tracker::getSlowFailedQueryCount);
+        if (metricsReporter != null) {
+            metricsReporter.stop();
+            metricsReporter = null;
+        }
+        if (!logInterval.isZero()) {
+            metricsReporter = Slf4jReporter.forRegistry(registry)
+                    .outputTo(metricsLogger)
+                    .convertRatesTo(TimeUnit.SECONDS)
+                    .convertDurationsTo(TimeUnit.MILLISECONDS)
+                    .build();
+            metricsReporter.start(logInterval.toSeconds(), TimeUnit.SECONDS);
+        }
+    }
+
     private void createCassandraConnection() {
         try {
-            session = createCassandraConnectionWithKeySpaces(null);
+            session = buildSession();
         } catch (Exception e) {
             logger.error("Error while creating Cassandra connection", e);
             throw new CustomException(
@@ -152,26 +218,15 @@ public class CassandraConnectionManagerImpl implements CassandraConnectionManage
     }
 
     /**
-     * Retrieves consistency level from properties
+     * Returns the tracker of slow requests on the current session, mainly to read its counters.
+     * The same counts are exported with the driver metrics.
      *
-     * @return -consistency level from properties
+     * @return The slow query tracker, or null before the session is created.
      */
-    private static ConsistencyLevel getConsistencyLevel() {
-        String consistency = PropertiesCache.getInstance().readProperty(Constants.SUNBIRD_CASSANDRA_CONSISTENCY_LEVEL);
-        logger.info("CassandraConnectionManagerImpl:getConsistencyLevel: level = " + consistency);
-        if (StringUtils.isBlank(consistency)) return null;
-
-        try {
-            return DefaultConsistencyLevel.valueOf(consistency.toUpperCase());
-        } catch (IllegalArgumentException exception) {
-            logger.info("CassandraConnectionManagerImpl:getConsistencyLevel: Exception occurred with error message = "
-                    + exception.getMessage());
-        }
-        return null;
+    public SlowQueryTracker getSlowQueryTracker() {
+        return slowQueryTracker;
     }
 
-
-
     /**
      * Registers a shutdown hook to clean-up resources
      */
@@ -189,8 +244,10 @@ public class CassandraConnectionManagerImpl implements CassandraConnectionManage
         public void run() {
             try {
                 logger.info("Started resource cleanup for Cassandra.");
-                for (Map.Entry<String, CqlSession> entry : cassandraSessionMap.entrySet()) {
-                    entry.getValue().close();
+                synchronized (CassandraConnectionManagerImpl.class) {
+                    if (metricsReporter != null) {
+                        metricsReporter.stop();
+                    }
                 }
                 if (session != null) {
                     session.close();
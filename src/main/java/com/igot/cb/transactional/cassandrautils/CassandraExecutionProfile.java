@@ -0,0 +1,112 @@
+package com.igot.cb.transactional.cassandrautils;
+
+import com.datastax.oss.driver.api.core.ConsistencyLevel;
+import com.datastax.oss.driver.api.core.DefaultConsistencyLevel;
+import com.datastax.oss.driver.api.core.retry.RetryPolicy;
+import com.datastax.oss.driver.internal.core.retry.ConsistencyDowngradingRetryPolicy;
+import com.datastax.oss.driver.internal.core.retry.DefaultRetryPolicy;
+import com.igot.cb.transactional.util.Constants;
+import com.igot.cb.transactional.util.PropertiesCache;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A named set of request settings, registered as a driver execution profile and selected per
+ * call with {@link CassandraOperation#withProfile(String)}. Calls without a profile use the
+ * session defaults.
+ * <p>
+ * The profiles are listed in {@code cassandra.execution.profiles}. Each setting is read from
+ * {@code cassandra.profile.<name>.consistency}, {@code .timeout.ms}, {@code .page.size} and
+ * {@code .retry.policy} ({@code default} or {@code downgrading}), falling back to the defaults
+ * of the built-in profiles below, or to the session defaults for other names.
+ *
+ * @param name           The profile name.
+ * @param consistency    The consistency level, or null for the session default.
+ * @param requestTimeout The request timeout, or null for the session default.
+ * @param pageSize       The rows fetched per page, or 0 for the driver default.
+ * @param retryPolicy    The retry policy class, or null for the session default.
+ */
+public record CassandraExecutionProfile(String name, ConsistencyLevel consistency, Duration requestTimeout,
+                                        int pageSize, Class<? extends RetryPolicy> retryPolicy) {
+
+    /**
+     * Single-replica reads with a short timeout, for latency-sensitive lookups that can
+     * tolerate slightly stale data.
+     */
+    public static final String FAST_READ = "fast-read";
+
+    /**
+     * Quorum writes in the local datacenter, for data that must survive the loss of a replica.
+     */
+    public static final String DURABLE_WRITE = "durable-write";
+
+    /**
+     * Large pages and a long timeout, for scans and backfills.
+     */
+    public static final String BULK = "bulk";
+
+    private static final Logger logger = LoggerFactory.getLogger(CassandraExecutionProfile.class);
+
+    private static final List<CassandraExecutionProfile> BUILT_IN = List.of(
+            new CassandraExecutionProfile(FAST_READ, DefaultConsistencyLevel.LOCAL_ONE, Duration.ofSeconds(2),
+                    100, DefaultRetryPolicy.class),
+            new CassandraExecutionProfile(DURABLE_WRITE, DefaultConsistencyLevel.LOCAL_QUORUM, Duration.ofSeconds(10),
+                    0, DefaultRetryPolicy.class),
+            new CassandraExecutionProfile(BULK, DefaultConsistencyLevel.LOCAL_ONE, Duration.ofSeconds(30),
+                    5000, DefaultRetryPolicy.class));
+
+    /**
+     * Reads the configured profiles.
+     *
+     * @param cache The properties to read.
+     * @return The profiles, in the order they are listed.
+     */
+    public static List<CassandraExecutionProfile> fromProperties(PropertiesCache cache) {
+        String names = cache.readProperty(Constants.CASSANDRA_EXECUTION_PROFILES);
+        List<CassandraExecutionProfile> profiles = new ArrayList<>();
+        for (String name : StringUtils.defaultIfBlank(names, String.join(",", FAST_READ, DURABLE_WRITE, BULK)).split(",")) {
+            if (StringUtils.isNotBlank(name)) {
+                profiles.add(read(cache, name.trim()));
+            }
+        }
+        return profiles;
+    }
+
+    private static CassandraExecutionProfile read(PropertiesCache cache, String name) {
+        CassandraExecutionProfile defaults = BUILT_IN.stream()
+                .filter(profile -> profile.name().equals(name))
+                .findFirst()
+                .orElse(new CassandraExecutionProfile(name, null, null, 0, null));
+        String prefix = Constants.CASSANDRA_PROFILE_PREFIX + name + Constants.DOT;
+        ConsistencyLevel consistency = defaults.consistency();
+        String configuredConsistency = cache.readProperty(prefix + "consistency");
+        if (StringUtils.isNotBlank(configuredConsistency)) {
+            try {
+                consistency = DefaultConsistencyLevel.valueOf(configuredConsistency.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                logger.info("Ignoring invalid consistency level {}consistency={}", prefix, configuredConsistency);
+            }
+        }
+        long timeoutMillis = NumberUtils.toLong(StringUtils.trim(cache.readProperty(prefix + "timeout.ms")), 0);
+        int pageSize = NumberUtils.toInt(StringUtils.trim(cache.readProperty(prefix + "page.size")), 0);
+        return new CassandraExecutionProfile(name, consistency,
+                timeoutMillis > 0 ? Duration.ofMillis(timeoutMillis) : defaults.requestTimeout(),
+                pageSize > 0 ? pageSize : defaults.pageSize(),
+                retryPolicy(cache.readProperty(prefix + "retry.policy"), defaults.retryPolicy()));
+    }
+
+    private static Class<? extends RetryPolicy> retryPolicy(String configured, Class<? extends RetryPolicy> defaultPolicy) {
+        if ("downgrading".equalsIgnoreCase(StringUtils.trim(configured))) {
+            return ConsistencyDowngradingRetryPolicy.class;
+        }
+        if ("default".equalsIgnoreCase(StringUtils.trim(configured))) {
+            return DefaultRetryPolicy.class;
+        }
+        return defaultPolicy;
+    }
+}
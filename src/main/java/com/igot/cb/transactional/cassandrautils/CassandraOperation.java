@@ -1,7 +1,9 @@
 package com.igot.cb.transactional.cassandrautils;
 
+import com.igot.cb.transactional.util.ApiResponse;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletionStage;
 
 /**
  * @author Mahesh RV
@@ -20,6 +22,12 @@ public interface CassandraOperation {
      */
     public Object insertRecord(String keyspaceName, String tableName, Map<String, Object> request);
 
+    /**
+     * Reads records matching the given properties; see {@link #getRecordsAsync}.
+     *
+     * @throws com.igot.cb.transactional.util.exceptions.CustomException With status 503 if the
+     *         circuit breaker or bulkhead of the keyspace rejects the read.
+     */
     public List<Map<String, Object>> getRecordsByPropertiesWithoutFiltering(String keyspaceName, String tableName,
                                                                             Map<String, Object> propertyMap, List<String> fields, Integer limit);
 
@@ -28,4 +36,117 @@ public interface CassandraOperation {
         Map<String, Object> compositeKey
     );
 
+    /**
+     * Inserts a record into Cassandra without blocking the calling thread.
+     *
+     * @param keyspaceName The name of the keyspace containing the table.
+     * @param tableName    The name of the table into which to insert the record.
+     * @param request      A map representing the record to insert.
+     * @return A stage completing with the same response {@link #insertRecord} returns, including
+     *         the failed response when the insert fails.
+     */
+    public CompletionStage<ApiResponse> insertRecordAsync(String keyspaceName, String tableName, Map<String, Object> request);
+
+    /**
+     * Inserts many records. Rows of the same partition are written together in unlogged
+     * batches of up to {@code cassandra.batch.max.rows} rows; other rows are written
+     * concurrently, at most {@code cassandra.write.max.in.flight} requests at a time.
+     *
+     * @param keyspaceName The name of the keyspace containing the table.
+     * @param tableName    The name of the table into which to insert the records.
+     * @param requests     The records to insert.
+     * @return One response per record, in the order of {@code requests}, each the same as
+     *         {@link #insertRecord} would return for that record. Rows written in one batch
+     *         succeed or fail together.
+     */
+    public List<ApiResponse> insertRecords(String keyspaceName, String tableName, List<Map<String, Object>> requests);
+
+    /**
+     * Same as {@link #insertRecords}, without blocking the calling thread.
+     *
+     * @param keyspaceName The name of the keyspace containing the table.
+     * @param tableName    The name of the table into which to insert the records.
+     * @param requests     The records to insert.
+     * @return A stage completing with one response per record, in the order of {@code requests}.
+     */
+    public CompletionStage<List<ApiResponse>> insertRecordsAsync(String keyspaceName, String tableName,
+                                                                 List<Map<String, Object>> requests);
+
+    /**
+     * Reads records matching the given properties without blocking the calling thread.
+     *
+     * @param keyspaceName The name of the keyspace containing the table.
+     * @param tableName    The name of the table to read from.
+     * @param propertyMap  The column values to match; a list value matches any of its elements.
+     * @param fields       The columns to return, or null for all columns.
+     * @param limit        The maximum number of rows, or null for no limit.
+     * @return A stage completing with the matching records, or an empty list if the read fails.
+     *         Fails with a 503 {@code CustomException} if the circuit breaker or bulkhead of the
+     *         keyspace rejects the read.
+     */
+    public CompletionStage<List<Map<String, Object>>> getRecordsAsync(String keyspaceName, String tableName,
+                                                                      Map<String, Object> propertyMap, List<String> fields, Integer limit);
+
+    /**
+     * Reads one page of the records matching the given properties, so that large results can
+     * be read without holding every row in memory at once.
+     *
+     * @param keyspaceName The name of the keyspace containing the table.
+     * @param tableName    The name of the table to read from.
+     * @param propertyMap  The column values to match; a list value matches any of its elements.
+     * @param fields       The columns to return, or null for all columns.
+     * @param pageSize     The maximum number of rows in the page, or null for
+     *                     {@code cassandra.read.page.size}. Capped at {@code cassandra.read.max.page.size}.
+     * @param pagingState  The token of the previous page to resume from, or null for the first page.
+     * @return The page of records and the token of the next page, which is null on the last page.
+     *         If the read fails, or the token belongs to a different query, an empty last page.
+     * @throws com.igot.cb.transactional.util.exceptions.CustomException With status 503 if the
+     *         circuit breaker or bulkhead of the keyspace rejects the read.
+     */
+    public RecordPage getRecordsPage(String keyspaceName, String tableName, Map<String, Object> propertyMap,
+                                     List<String> fields, Integer pageSize, String pagingState);
+
+    /**
+     * Same as {@link #getRecordsPage}, without blocking the calling thread.
+     *
+     * @param keyspaceName The name of the keyspace containing the table.
+     * @param tableName    The name of the table to read from.
+     * @param propertyMap  The column values to match; a list value matches any of its elements.
+     * @param fields       The columns to return, or null for all columns.
+     * @param pageSize     The maximum number of rows in the page, or null for the default.
+     * @param pagingState  The token of the previous page to resume from, or null for the first page.
+     * @return A stage completing with the page of records, or failing with a 503
+     *         {@code CustomException} if the circuit breaker or bulkhead of the keyspace rejects the read.
+     */
+    public CompletionStage<RecordPage> getRecordsPageAsync(String keyspaceName, String tableName,
+                                                           Map<String, Object> propertyMap, List<String> fields,
+                                                           Integer pageSize, String pagingState);
+
+    /**
+     * Updates a record without blocking the calling thread.
+     *
+     * @param keyspaceName     The name of the keyspace containing the table.
+     * @param tableName        The name of the table to update.
+     * @param updateAttributes The columns to set.
+     * @param compositeKey     The primary key of the record.
+     * @return A stage completing with the success response, or exceptionally with the error
+     *         {@link #updateRecord} would throw.
+     */
+    public CompletionStage<Map<String, Object>> updateRecordAsync(String keyspaceName, String tableName,
+                                                                  Map<String, Object> updateAttributes,
+                                                                  Map<String, Object> compositeKey);
+
+    /**
+     * Returns a view of this operation whose statements run with the given execution profile,
+     * for example {@link CassandraExecutionProfile#FAST_READ} for lookups that favour latency
+     * or {@link CassandraExecutionProfile#DURABLE_WRITE} for writes that must reach a quorum.
+     * The profile sets the consistency level, timeout, default page size and retry policy;
+     * calls on this operation itself keep the session defaults.
+     *
+     * @param profileName The name of a profile listed in {@code cassandra.execution.profiles}.
+     * @return An operation using the profile, sharing this operation's session and statements.
+     * @throws IllegalArgumentException If no such profile is configured.
+     */
+    public CassandraOperation withProfile(String profileName);
+
 }
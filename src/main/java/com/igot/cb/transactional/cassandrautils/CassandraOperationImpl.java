@@ -1,27 +1,49 @@
 package com.igot.cb.transactional.cassandrautils;
 
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
 import com.datastax.oss.driver.api.core.CqlSession;
-import com.datastax.oss.driver.api.core.cql.ResultSet;
-import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BatchStatementBuilder;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.DefaultBatchType;
+import com.datastax.oss.driver.api.core.cql.PagingState;
+import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.servererrors.QueryValidationException;
+import com.datastax.oss.driver.api.querybuilder.QueryBuilder;
 import com.datastax.oss.driver.api.querybuilder.relation.Relation;
+import com.datastax.oss.driver.api.querybuilder.select.Select;
 import com.datastax.oss.driver.api.querybuilder.term.Term;
 import com.datastax.oss.driver.api.querybuilder.update.Assignment;
-import com.datastax.oss.driver.api.querybuilder.update.UpdateStart;
-import com.datastax.oss.driver.api.querybuilder.update.UpdateWithAssignments;
+import com.datastax.oss.driver.api.querybuilder.update.Update;
 
 import com.igot.cb.transactional.util.ApiResponse;
 import com.igot.cb.transactional.util.Constants;
+import com.igot.cb.transactional.util.PropertiesCache;
+import com.igot.cb.transactional.util.exceptions.CustomException;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 
 import java.text.MessageFormat;
+import java.time.Duration;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 
@@ -37,99 +59,707 @@ public class CassandraOperationImpl implements CassandraOperation {
     @Autowired
     CassandraConnectionManager connectionManager;
 
-    private com.datastax.oss.driver.api.querybuilder.select.Select processQuery(String keyspaceName, String tableName, Map<String, Object> propertyMap,
-                                                                                List<String> fields) {
-        com.datastax.oss.driver.api.querybuilder.select.Select select;
-        if (CollectionUtils.isNotEmpty(fields)) {
-            select = com.datastax.oss.driver.api.querybuilder.QueryBuilder.selectFrom(keyspaceName, tableName).columns(fields);
-        } else {
-            select = com.datastax.oss.driver.api.querybuilder.QueryBuilder.selectFrom(keyspaceName, tableName).all();
+    private static final int MAX_BATCH_ROWS = Math.max(1, NumberUtils.toInt(
+            PropertiesCache.getInstance().getProperty(Constants.CASSANDRA_BATCH_MAX_ROWS), 20));
+    private static final long MAX_BATCH_BYTES = Math.max(1, NumberUtils.toLong(
+            PropertiesCache.getInstance().getProperty(Constants.CASSANDRA_BATCH_MAX_BYTES), 40960));
+    private static final int MAX_WRITES_IN_FLIGHT = Math.max(1, NumberUtils.toInt(
+            PropertiesCache.getInstance().getProperty(Constants.CASSANDRA_WRITE_MAX_IN_FLIGHT), 64));
+
+    private static final int DEFAULT_PAGE_SIZE = Math.max(1, NumberUtils.toInt(
+            PropertiesCache.getInstance().getProperty(Constants.CASSANDRA_READ_PAGE_SIZE), 100));
+    private static final int MAX_PAGE_SIZE = Math.max(DEFAULT_PAGE_SIZE, NumberUtils.toInt(
+            PropertiesCache.getInstance().getProperty(Constants.CASSANDRA_READ_MAX_PAGE_SIZE), 1000));
+
+    private static final Map<String, CassandraExecutionProfile> EXECUTION_PROFILES =
+            CassandraExecutionProfile.fromProperties(PropertiesCache.getInstance()).stream()
+                    .collect(Collectors.toMap(CassandraExecutionProfile::name, profile -> profile, (a, b) -> b));
+
+    private final PreparedStatementCache preparedStatementCache;
+
+    // Writes are only retried or speculated for tables listed here; a duplicated write could
+    // otherwise be applied after a later one
+    private final Set<String> idempotentWriteTables;
+
+    // The execution profile of every statement, or null for the session defaults
+    private final CassandraExecutionProfile profile;
+
+    // The view of each execution profile, built on first use and shared by all views
+    private final Map<String, CassandraOperation> profileViews;
+
+    private static final CircuitBreaker.Settings CIRCUIT_BREAKER_SETTINGS =
+            CircuitBreaker.Settings.fromProperties(PropertiesCache.getInstance());
+    private static final int BULKHEAD_MAX_CONCURRENT = Math.max(1, NumberUtils.toInt(
+            PropertiesCache.getInstance().getProperty(Constants.CASSANDRA_BULKHEAD_MAX_CONCURRENT), 256));
+    private static final int BULKHEAD_MAX_QUEUED = Math.max(0, NumberUtils.toInt(
+            PropertiesCache.getInstance().getProperty(Constants.CASSANDRA_BULKHEAD_MAX_QUEUED), 512));
+    private static final Duration BULKHEAD_MAX_QUEUE_TIME = Duration.ofMillis(Math.max(0, NumberUtils.toInt(
+            PropertiesCache.getInstance().getProperty(Constants.CASSANDRA_BULKHEAD_MAX_QUEUE_MS), 200)));
+
+    /**
+     * The circuit breaker and bulkhead of a keyspace, so that a degraded keyspace fails fast
+     * instead of holding the callers of every keyspace for the request timeout.
+     */
+    private static final class KeyspaceGuard {
+        private final CircuitBreaker circuitBreaker;
+        private final Bulkhead bulkhead;
+        // The session whose metric registry the gauges were added to
+        private volatile CqlSession metricsSession;
+
+        private KeyspaceGuard(String keyspaceName) {
+            this.circuitBreaker = new CircuitBreaker(keyspaceName, CIRCUIT_BREAKER_SETTINGS);
+            this.bulkhead = new Bulkhead(keyspaceName, BULKHEAD_MAX_CONCURRENT, BULKHEAD_MAX_QUEUED,
+                    BULKHEAD_MAX_QUEUE_TIME);
         }
-        if (MapUtils.isEmpty(propertyMap)) {
-            return select; // Build and return the query
+    }
+
+    private final Map<String, KeyspaceGuard> guards;
+
+    // IN lists up to this size are padded to the next power of two, so that lists of similar
+    // size share a prepared statement; longer lists are prepared at their exact size.
+    private static final int MAX_IN_LIST_BUCKET = 256;
+
+    /**
+     * The shape of a SELECT: everything that determines its query text, but none of its values.
+     * An IN arity of 0 stands for an equality relation.
+     */
+    private record SelectShape(List<String> fields, List<String> columns, List<Integer> inArities, boolean limited) {
+    }
+
+    /**
+     * The shape of an UPDATE: the assigned columns and the key columns, each in sorted order.
+     */
+    private record UpdateShape(List<String> assignedColumns, List<String> keyColumns) {
+    }
+
+    public CassandraOperationImpl() {
+        this.preparedStatementCache = new PreparedStatementCache(NumberUtils.toInt(
+                PropertiesCache.getInstance().getProperty(Constants.CASSANDRA_PREPARED_STATEMENT_CACHE_MAX_ENTRIES), 1000));
+        this.idempotentWriteTables = parseTables(
+                PropertiesCache.getInstance().readProperty(Constants.CASSANDRA_IDEMPOTENT_WRITE_TABLES));
+        this.profile = null;
+        this.profileViews = new ConcurrentHashMap<>();
+        this.guards = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Creates the view of an execution profile, sharing the session, the prepared statements
+     * and the keyspace guards of {@code shared}.
+     */
+    private CassandraOperationImpl(CassandraOperationImpl shared, CassandraExecutionProfile profile) {
+        this.connectionManager = shared.connectionManager;
+        this.preparedStatementCache = shared.preparedStatementCache;
+        this.idempotentWriteTables = shared.idempotentWriteTables;
+        this.profile = profile;
+        this.profileViews = shared.profileViews;
+        this.guards = shared.guards;
+    }
+
+    private static Select processQuery(String keyspaceName, String tableName, SelectShape shape) {
+        Select select;
+        if (CollectionUtils.isNotEmpty(shape.fields())) {
+            select = QueryBuilder.selectFrom(keyspaceName, tableName).columns(shape.fields());
+        } else {
+            select = QueryBuilder.selectFrom(keyspaceName, tableName).all();
         }
-        for (Map.Entry<String, Object> entry : propertyMap.entrySet()) {
-            String columnName = entry.getKey();
-            Object value = entry.getValue();
-            if (value instanceof List) {
-                List<?> valueList = (List<?>) value;
-                if (CollectionUtils.isNotEmpty(valueList)) {
-                    List<Term> terms = valueList.stream()
-                            .map(com.datastax.oss.driver.api.querybuilder.QueryBuilder::literal)
-                            .collect(Collectors.toList());
-                    select = select.whereColumn(columnName).in(terms);
+        for (int i = 0; i < shape.columns().size(); i++) {
+            String columnName = shape.columns().get(i);
+            int arity = shape.inArities().get(i);
+            if (arity > 0) {
+                List<Term> markers = new ArrayList<>(arity);
+                for (int j = 0; j < arity; j++) {
+                    markers.add(QueryBuilder.bindMarker());
                 }
+                select = select.whereColumn(columnName).in(markers);
             } else {
-                select = select.whereColumn(columnName).isEqualTo(com.datastax.oss.driver.api.querybuilder.QueryBuilder.literal(value));
+                select = select.whereColumn(columnName).isEqualTo(QueryBuilder.bindMarker());
             }
         }
+        if (shape.limited()) {
+            select = select.limit(QueryBuilder.bindMarker());
+        }
         return select;
     }
 
+    /**
+     * Returns the number of bind markers used for an IN list of the given size.
+     *
+     * @param size The number of values in the list.
+     * @return The next power of two for lists up to {@value #MAX_IN_LIST_BUCKET} values, otherwise the size itself.
+     */
+    static int inListArity(int size) {
+        if (size > MAX_IN_LIST_BUCKET) {
+            return size;
+        }
+        return size <= 1 ? 1 : Integer.highestOneBit(size - 1) << 1;
+    }
+
     @Override
     public Object insertRecord(String keyspaceName, String tableName, Map<String, Object> request) {
-        ApiResponse response = new ApiResponse();
+        return await(insertRecordAsync(keyspaceName, tableName, request));
+    }
+
+    @Override
+    public CompletionStage<ApiResponse> insertRecordAsync(String keyspaceName, String tableName, Map<String, Object> request) {
         try {
-            String query = CassandraUtil.getPreparedStatement(keyspaceName, tableName, request);
             CqlSession session = connectionManager.getSession(keyspaceName);
-            com.datastax.oss.driver.api.core.cql.PreparedStatement statement = session.prepare(query);
-            com.datastax.oss.driver.api.core.cql.BoundStatement boundStatement = statement.bind(request.values().toArray());
-            session.execute(boundStatement);
-            response.put(Constants.RESPONSE, Constants.SUCCESS);
+            return bindInsert(session, keyspaceName, tableName, request)
+                    .thenCompose(statement -> execute(session, keyspaceName, statement))
+                    .handle((results, error) -> error == null
+                            ? successResponse() : insertFailedResponse(tableName, unwrap(error)));
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(insertFailedResponse(tableName, e));
+        }
+    }
+
+    private CompletionStage<BoundStatement> bindInsert(CqlSession session, String keyspaceName, String tableName,
+                                                       Map<String, Object> request) {
+        // Sort the columns so that every request with the same column set shares one statement
+        List<String> columns = new ArrayList<>(request.keySet());
+        Collections.sort(columns);
+        Object[] values = new Object[columns.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = request.get(columns.get(i));
+        }
+        return preparedStatementCache.getAsync(session,
+                        new PreparedStatementCache.StatementKey(keyspaceName, tableName, columns),
+                        () -> CassandraUtil.getInsertQuery(keyspaceName, tableName, columns))
+                .thenApply(statement -> applyProfile(statement.bind(values)
+                        .setIdempotent(isIdempotentWrite(keyspaceName, tableName))));
+    }
+
+    /**
+     * Executes a statement through the circuit breaker and bulkhead of its keyspace. Calls
+     * rejected by either fail with a {@link CustomException} with status 503, without reaching
+     * the driver. Invalid queries do not count as failures, as they say nothing about the
+     * health of the cluster.
+     */
+    private CompletionStage<AsyncResultSet> execute(CqlSession session, String keyspaceName, Statement<?> statement) {
+        KeyspaceGuard guard = guard(session, keyspaceName);
+        CircuitBreaker circuitBreaker = guard.circuitBreaker;
+        long permit = circuitBreaker.tryAcquire();
+        if (permit == CircuitBreaker.REJECTED) {
+            return CompletableFuture.failedFuture(new CustomException(Constants.ERROR,
+                    "Cassandra circuit breaker of " + keyspaceName + " is open", HttpStatus.SERVICE_UNAVAILABLE));
+        }
+        // Stays null if the bulkhead rejects or sheds the call
+        AtomicReference<Long> startedAt = new AtomicReference<>();
+        return guard.bulkhead.<AsyncResultSet>submit(() -> {
+                    startedAt.set(System.nanoTime());
+                    return session.executeAsync(statement);
+                })
+                .whenComplete((resultSet, error) -> {
+                    Long start = startedAt.get();
+                    if (start == null) {
+                        circuitBreaker.release(permit);
+                    } else {
+                        circuitBreaker.onResult(permit, System.nanoTime() - start,
+                                error != null && !(unwrap(error) instanceof QueryValidationException));
+                    }
+                });
+    }
+
+    private KeyspaceGuard guard(CqlSession session, String keyspaceName) {
+        KeyspaceGuard guard = guards.computeIfAbsent(keyspaceName, KeyspaceGuard::new);
+        if (guard.metricsSession != session) {
+            guard.metricsSession = session;
+            session.getMetrics().ifPresent(metrics -> {
+                MetricRegistry registry = metrics.getRegistry();
+                String circuitBreaker = MetricRegistry.name(session.getName(), "circuit-breaker", keyspaceName);
+                CircuitBreaker breaker = guard.circuitBreaker;
+                registerGauge(registry, circuitBreaker + ".state", () -> breaker.getState().ordinal());
+                registerGauge(registry, circuitBreaker + ".successes", breaker::getSuccessCount);
+                registerGauge(registry, circuitBreaker + ".failures", breaker::getFailureCount);
+                registerGauge(registry, circuitBreaker + ".slow-calls", breaker::getSlowCallCount);
+                registerGauge(registry, circuitBreaker + ".rejected", breaker::getRejectedCount);
+                registerGauge(registry, circuitBreaker + ".opened", breaker::getOpenedCount);
+                String bulkhead = MetricRegistry.name(session.getName(), "bulkhead", keyspaceName);
+                registerGauge(registry, bulkhead + ".in-flight", guard.bulkhead::getInFlightCount);
+                registerGauge(registry, bulkhead + ".queued", guard.bulkhead::getQueuedCount);
+                registerGauge(registry, bulkhead + ".rejected", guard.bulkhead::getRejectedCount);
+                registerGauge(registry, bulkhead + ".shed", guard.bulkhead::getShedCount);
+            });
+        }
+        return guard;
+    }
+
+    // Keeps the existing gauge if another thread or an earlier session registered it
+    private static void registerGauge(MetricRegistry registry, String name, Gauge<?> gauge) {
+        registry.gauge(name, () -> gauge);
+    }
+
+    private <S extends Statement<S>> S applyProfile(S statement) {
+        return profile == null ? statement : statement.setExecutionProfileName(profile.name());
+    }
+
+    private boolean isIdempotentWrite(String keyspaceName, String tableName) {
+        return idempotentWriteTables.contains((keyspaceName + Constants.DOT + tableName).toLowerCase());
+    }
+
+    private static Set<String> parseTables(String tables) {
+        if (StringUtils.isBlank(tables)) {
+            return Set.of();
+        }
+        Set<String> parsed = new HashSet<>();
+        for (String table : tables.split(",")) {
+            if (StringUtils.isNotBlank(table)) {
+                parsed.add(table.trim().toLowerCase());
+            }
+        }
+        return parsed;
+    }
+
+    @Override
+    public List<ApiResponse> insertRecords(String keyspaceName, String tableName, List<Map<String, Object>> requests) {
+        return await(insertRecordsAsync(keyspaceName, tableName, requests));
+    }
+
+    @Override
+    public CompletionStage<List<ApiResponse>> insertRecordsAsync(String keyspaceName, String tableName,
+                                                                 List<Map<String, Object>> requests) {
+        ApiResponse[] responses = new ApiResponse[requests.size()];
+        try {
+            CqlSession session = connectionManager.getSession(keyspaceName);
+            List<String> partitionKey = partitionKeyColumns(session, keyspaceName, tableName);
+            List<Supplier<CompletionStage<Void>>> writes = new ArrayList<>();
+            for (List<Integer> rows : groupByPartition(requests, partitionKey)) {
+                writes.add(() -> writeRows(session, keyspaceName, tableName, requests, rows, responses));
+            }
+            return new WindowedWrites(writes, MAX_WRITES_IN_FLIGHT).start()
+                    .thenApply(done -> Arrays.asList(responses));
+        } catch (Exception e) {
+            Arrays.fill(responses, insertFailedResponse(tableName, e));
+            return CompletableFuture.completedFuture(Arrays.asList(responses));
+        }
+    }
+
+    /**
+     * Groups the rows into units that are written together: rows of the same partition, up to
+     * {@code cassandra.batch.max.rows} per unit, and every other row on its own. Without a known
+     * partition key every row is its own unit. A unit is further split by size once bound.
+     */
+    private List<List<Integer>> groupByPartition(List<Map<String, Object>> requests, List<String> partitionKey) {
+        Map<List<Object>, List<Integer>> partitions = new LinkedHashMap<>();
+        List<List<Integer>> units = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            Map<String, Object> request = requests.get(i);
+            if (partitionKey.isEmpty() || !request.keySet().containsAll(partitionKey)) {
+                units.add(List.of(i));
+                continue;
+            }
+            List<Object> key = new ArrayList<>(partitionKey.size());
+            for (String column : partitionKey) {
+                key.add(request.get(column));
+            }
+            partitions.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+        }
+        for (List<Integer> rows : partitions.values()) {
+            for (int from = 0; from < rows.size(); from += MAX_BATCH_ROWS) {
+                units.add(rows.subList(from, Math.min(from + MAX_BATCH_ROWS, rows.size())));
+            }
+        }
+        return units;
+    }
+
+    private CompletionStage<Void> writeRows(CqlSession session, String keyspaceName, String tableName,
+                                            List<Map<String, Object>> requests, List<Integer> rows,
+                                            ApiResponse[] responses) {
+        try {
+            List<CompletableFuture<BoundStatement>> statements = new ArrayList<>(rows.size());
+            for (int row : rows) {
+                statements.add(bindInsert(session, keyspaceName, tableName, requests.get(row)).toCompletableFuture());
+            }
+            return CompletableFuture.allOf(statements.toArray(new CompletableFuture[0]))
+                    .thenCompose(bound -> {
+                        List<BoundStatement> boundStatements = statements.stream().map(CompletableFuture::join).toList();
+                        // The batches of a unit are written one after the other, so a unit keeps one write in flight
+                        CompletionStage<Void> written = CompletableFuture.completedFuture(null);
+                        for (List<Integer> batch : splitBySize(session, boundStatements)) {
+                            written = written.thenCompose(done -> writeBatch(session, keyspaceName, tableName,
+                                    rows, boundStatements, batch, responses));
+                        }
+                        return written;
+                    })
+                    .handle((results, error) -> {
+                        for (int row : rows) {
+                            if (responses[row] == null) {
+                                responses[row] = insertFailedResponse(tableName, unwrap(error));
+                            }
+                        }
+                        return null;
+                    });
+        } catch (Exception e) {
+            for (int row : rows) {
+                responses[row] = insertFailedResponse(tableName, e);
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /**
+     * Splits the bound rows of one unit into batches of at most {@code cassandra.batch.max.bytes},
+     * since Cassandra rejects a whole batch above its {@code batch_size_fail_threshold}. A row
+     * larger than the limit is written on its own.
+     *
+     * @return The positions in {@code statements} of the rows of each batch.
+     */
+    private static List<List<Integer>> splitBySize(CqlSession session, List<BoundStatement> statements) {
+        List<List<Integer>> batches = new ArrayList<>();
+        List<Integer> batch = new ArrayList<>();
+        long batchBytes = 0;
+        for (int i = 0; i < statements.size(); i++) {
+            long bytes = statements.size() == 1 ? 0 : statements.get(i).computeSizeInBytes(session.getContext());
+            if (!batch.isEmpty() && batchBytes + bytes > MAX_BATCH_BYTES) {
+                batches.add(batch);
+                batch = new ArrayList<>();
+                batchBytes = 0;
+            }
+            batch.add(i);
+            batchBytes += bytes;
+        }
+        batches.add(batch);
+        return batches;
+    }
+
+    private CompletionStage<Void> writeBatch(CqlSession session, String keyspaceName, String tableName,
+                                             List<Integer> rows, List<BoundStatement> statements,
+                                             List<Integer> batch, ApiResponse[] responses) {
+        CompletionStage<AsyncResultSet> write;
+        try {
+            if (batch.size() == 1) {
+                write = execute(session, keyspaceName, statements.get(batch.get(0)));
+            } else {
+                // Rows of one partition: an unlogged batch is applied as a single mutation
+                BatchStatementBuilder builder = BatchStatement.builder(DefaultBatchType.UNLOGGED)
+                        .setIdempotence(isIdempotentWrite(keyspaceName, tableName));
+                batch.forEach(position -> builder.addStatement(statements.get(position)));
+                write = execute(session, keyspaceName, applyProfile(builder.build()));
+            }
         } catch (Exception e) {
-            String errMsg = String.format("Exception occurred while inserting record to %s %s", tableName, e.getMessage());
-            logger.error("Error inserting record into {}: {}", tableName, e.getMessage());
-            response.put(Constants.RESPONSE, Constants.FAILED);
-            response.put(Constants.ERROR_MESSAGE, errMsg);
+            write = CompletableFuture.failedFuture(e);
+        }
+        return write.handle((results, error) -> {
+            for (int position : batch) {
+                responses[rows.get(position)] = error == null
+                        ? successResponse() : insertFailedResponse(tableName, unwrap(error));
+            }
+            return null;
+        });
+    }
+
+    private static List<String> partitionKeyColumns(CqlSession session, String keyspaceName, String tableName) {
+        return session.getMetadata().getKeyspace(keyspaceName)
+                .flatMap(keyspace -> keyspace.getTable(tableName))
+                .map(table -> table.getPartitionKey().stream()
+                        .map(column -> column.getName().asInternal())
+                        .toList())
+                .orElse(List.of());
+    }
+
+    /**
+     * Runs writes with at most {@code window} of them in flight, starting the next one as soon as
+     * one completes. The writes must not complete exceptionally.
+     */
+    private static final class WindowedWrites {
+
+        private final List<Supplier<CompletionStage<Void>>> writes;
+        private final int window;
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicInteger remaining;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        private WindowedWrites(List<Supplier<CompletionStage<Void>>> writes, int window) {
+            this.writes = writes;
+            this.window = window;
+            this.remaining = new AtomicInteger(writes.size());
+        }
+
+        private CompletableFuture<Void> start() {
+            if (writes.isEmpty()) {
+                done.complete(null);
+            }
+            for (int i = 0; i < Math.min(window, writes.size()); i++) {
+                launchNext();
+            }
+            return done;
         }
+
+        private void launchNext() {
+            int index;
+            // Loop instead of recursing when a write completes synchronously, to bound the stack
+            while ((index = next.getAndIncrement()) < writes.size()) {
+                CompletableFuture<Void> write = writes.get(index).get().toCompletableFuture();
+                if (!write.isDone()) {
+                    write.whenComplete((result, error) -> {
+                        finished();
+                        launchNext();
+                    });
+                    return;
+                }
+                finished();
+            }
+        }
+
+        private void finished() {
+            if (remaining.decrementAndGet() == 0) {
+                done.complete(null);
+            }
+        }
+    }
+
+    private ApiResponse successResponse() {
+        ApiResponse response = new ApiResponse();
+        response.put(Constants.RESPONSE, Constants.SUCCESS);
+        return response;
+    }
+
+    private ApiResponse insertFailedResponse(String tableName, Throwable e) {
+        ApiResponse response = new ApiResponse();
+        String errMsg = String.format("Exception occurred while inserting record to %s %s", tableName, e.getMessage());
+        logger.error("Error inserting record into {}: {}", tableName, e.getMessage());
+        response.put(Constants.RESPONSE, Constants.FAILED);
+        response.put(Constants.ERROR_MESSAGE, errMsg);
         return response;
     }
 
     @Override
     public List<Map<String, Object>> getRecordsByPropertiesWithoutFiltering(String keyspaceName, String tableName, Map<String, Object> propertyMap, List<String> fields, Integer limit) {
+        return await(getRecordsAsync(keyspaceName, tableName, propertyMap, fields, limit));
+    }
 
-        List<Map<String, Object>> response = new ArrayList<>();
+    @Override
+    public CompletionStage<List<Map<String, Object>>> getRecordsAsync(String keyspaceName, String tableName,
+                                                                      Map<String, Object> propertyMap, List<String> fields, Integer limit) {
         try {
-            com.datastax.oss.driver.api.querybuilder.select.Select selectQuery = null;
-            selectQuery = processQuery(keyspaceName, tableName, propertyMap, fields);
+            CqlSession session = connectionManager.getSession(keyspaceName);
+            return bindSelect(session, keyspaceName, tableName, propertyMap, fields, limit)
+                    .thenCompose(statement -> execute(session, keyspaceName, statement))
+                    .thenCompose(CassandraUtil::createResponseAsync)
+                    .exceptionally(error -> readFailed(tableName, error));
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(fetchFailedResponse(tableName, e));
+        }
+    }
 
-            if (limit != null) selectQuery = selectQuery.limit(limit);
-            String queryString = selectQuery.toString();
-            SimpleStatement statement = SimpleStatement.newInstance(queryString);
-            ResultSet results = connectionManager.getSession(keyspaceName).execute(statement);
-            response = CassandraUtil.createResponse(results);
+    @Override
+    public RecordPage getRecordsPage(String keyspaceName, String tableName, Map<String, Object> propertyMap,
+                                     List<String> fields, Integer pageSize, String pagingState) {
+        return await(getRecordsPageAsync(keyspaceName, tableName, propertyMap, fields, pageSize, pagingState));
+    }
 
+    @Override
+    public CompletionStage<RecordPage> getRecordsPageAsync(String keyspaceName, String tableName,
+                                                           Map<String, Object> propertyMap, List<String> fields,
+                                                           Integer pageSize, String pagingState) {
+        try {
+            CqlSession session = connectionManager.getSession(keyspaceName);
+            // A profile page size replaces the default and may exceed the usual maximum
+            int defaultPageSize = profile != null && profile.pageSize() > 0 ? profile.pageSize() : DEFAULT_PAGE_SIZE;
+            int fetchSize = pageSize != null && pageSize > 0
+                    ? Math.min(pageSize, Math.max(MAX_PAGE_SIZE, defaultPageSize)) : defaultPageSize;
+            PagingState resumeFrom = StringUtils.isBlank(pagingState) ? null : PagingState.fromString(pagingState);
+            return bindSelect(session, keyspaceName, tableName, propertyMap, fields, null)
+                    .thenApply(statement -> {
+                        BoundStatement page = statement.setPageSize(fetchSize);
+                        // Rejects a token that was issued for a different query
+                        return resumeFrom == null ? page : page.setPagingState(resumeFrom, session);
+                    })
+                    .thenCompose(statement -> execute(session, keyspaceName, statement))
+                    .thenApply(CassandraUtil::createPage)
+                    .exceptionally(error -> new RecordPage(readFailed(tableName, error), null));
         } catch (Exception e) {
-            logger.error("Error fetching records from {}: {}", tableName, e.getMessage());
+            return CompletableFuture.completedFuture(new RecordPage(fetchFailedResponse(tableName, e), null));
         }
-        return response;
+    }
+
+    private CompletionStage<BoundStatement> bindSelect(CqlSession session, String keyspaceName, String tableName,
+                                                       Map<String, Object> propertyMap, List<String> fields,
+                                                       Integer limit) {
+        List<String> columns = new ArrayList<>();
+        if (MapUtils.isNotEmpty(propertyMap)) {
+            for (Map.Entry<String, Object> entry : propertyMap.entrySet()) {
+                // An empty IN list matches nothing, so it is left out of the query as before
+                if (!(entry.getValue() instanceof List) || CollectionUtils.isNotEmpty((List<?>) entry.getValue())) {
+                    columns.add(entry.getKey());
+                }
+            }
+            Collections.sort(columns);
+        }
+        List<Integer> inArities = new ArrayList<>(columns.size());
+        List<Object> values = new ArrayList<>();
+        for (String columnName : columns) {
+            Object value = propertyMap.get(columnName);
+            if (value instanceof List) {
+                List<?> valueList = (List<?>) value;
+                int arity = inListArity(valueList.size());
+                inArities.add(arity);
+                values.addAll(valueList);
+                // Pad with the last value; Cassandra ignores duplicates in an IN list
+                Object last = valueList.get(valueList.size() - 1);
+                for (int i = valueList.size(); i < arity; i++) {
+                    values.add(last);
+                }
+            } else {
+                inArities.add(0);
+                values.add(value);
+            }
+        }
+        if (limit != null) {
+            values.add(limit);
+        }
+        SelectShape shape = new SelectShape(CollectionUtils.isNotEmpty(fields) ? List.copyOf(fields) : List.of(),
+                columns, inArities, limit != null);
+        return preparedStatementCache.getAsync(session,
+                        new PreparedStatementCache.StatementKey(keyspaceName, tableName, shape),
+                        () -> processQuery(keyspaceName, tableName, shape).asCql())
+                // Reads can be safely retried and speculated on another replica
+                .thenApply(statement -> applyProfile(statement.bind(values.toArray()).setIdempotent(true)));
+    }
+
+    /**
+     * Turns a failed read into the empty result reads have always returned, except a rejection
+     * by the circuit breaker or bulkhead, which is rethrown so that callers can tell an
+     * unavailable keyspace from a read that found no rows.
+     */
+    private List<Map<String, Object>> readFailed(String tableName, Throwable error) {
+        Throwable cause = unwrap(error);
+        if (cause instanceof CustomException rejection
+                && rejection.getHttpStatusCode() == HttpStatus.SERVICE_UNAVAILABLE) {
+            throw rejection;
+        }
+        return fetchFailedResponse(tableName, cause);
+    }
+
+    private List<Map<String, Object>> fetchFailedResponse(String tableName, Throwable e) {
+        logger.error("Error fetching records from {}: {}", tableName, e.getMessage());
+        return new ArrayList<>();
     }
 
     @Override
     public Map<String,Object> updateRecord(String keyspaceName, String tableName, Map<String, Object> updateAttributes,
                                            Map<String, Object> compositeKey) {
-        Map<String, Object> response = new HashMap<>();
-        CqlSession session = null;
+        return await(updateRecordAsync(keyspaceName, tableName, updateAttributes, compositeKey));
+    }
+
+    @Override
+    public CompletionStage<Map<String, Object>> updateRecordAsync(String keyspaceName, String tableName,
+                                                                  Map<String, Object> updateAttributes,
+                                                                  Map<String, Object> compositeKey) {
         try {
-            session = connectionManager.getSession(keyspaceName);
-            UpdateStart updateStart = com.datastax.oss.driver.api.querybuilder.QueryBuilder.update(keyspaceName, tableName);
-            UpdateWithAssignments updateWithAssignments = updateStart.set(updateAttributes.entrySet().stream()
-                    .map(entry -> Assignment.setColumn(entry.getKey(), com.datastax.oss.driver.api.querybuilder.QueryBuilder.literal(entry.getValue())))
-                    .toArray(Assignment[]::new));
-            com.datastax.oss.driver.api.querybuilder.update.Update update = updateWithAssignments.where(compositeKey.entrySet().stream()
-                    .map(entry -> Relation.column(entry.getKey()).isEqualTo(com.datastax.oss.driver.api.querybuilder.QueryBuilder.literal(entry.getValue())))
-                    .toArray(Relation[]::new));
-            SimpleStatement statement = update.build();
-            session.execute(statement);
-            response.put(Constants.RESPONSE, Constants.SUCCESS);
+            CqlSession session = connectionManager.getSession(keyspaceName);
+            List<String> assignedColumns = new ArrayList<>(updateAttributes.keySet());
+            Collections.sort(assignedColumns);
+            List<String> keyColumns = new ArrayList<>(compositeKey.keySet());
+            Collections.sort(keyColumns);
+            UpdateShape shape = new UpdateShape(assignedColumns, keyColumns);
+            Object[] values = new Object[assignedColumns.size() + keyColumns.size()];
+            int index = 0;
+            for (String column : assignedColumns) {
+                values[index++] = updateAttributes.get(column);
+            }
+            for (String column : keyColumns) {
+                values[index++] = compositeKey.get(column);
+            }
+            return preparedStatementCache.getAsync(session,
+                            new PreparedStatementCache.StatementKey(keyspaceName, tableName, shape),
+                            () -> buildUpdate(keyspaceName, tableName, shape).asCql())
+                    .thenCompose(statement -> execute(session, keyspaceName, applyProfile(statement.bind(values)
+                            .setIdempotent(isIdempotentWrite(keyspaceName, tableName)))))
+                    .handle((results, error) -> {
+                        if (error != null) {
+                            throw updateFailed(tableName, unwrap(error));
+                        }
+                        Map<String, Object> response = new HashMap<>();
+                        response.put(Constants.RESPONSE, Constants.SUCCESS);
+                        return response;
+                    });
         } catch (Exception e) {
-            String errMsg = String.format("Exception occurred while updating record to %s: %s", tableName, e.getMessage());
-            logger.error(errMsg, e);
-            response.put(Constants.RESPONSE, Constants.FAILED);
-            response.put(Constants.ERROR_MESSAGE, errMsg);
+            return CompletableFuture.failedFuture(updateFailed(tableName, e));
+        }
+    }
+
+    private CompletionException updateFailed(String tableName, Throwable e) {
+        String errMsg = String.format("Exception occurred while updating record to %s: %s", tableName, e.getMessage());
+        logger.error(errMsg, e);
+        return e instanceof CompletionException completionException
+                ? completionException : new CompletionException(e);
+    }
+
+    /**
+     * Waits for an asynchronous operation, rethrowing the exception it failed with the way the
+     * blocking methods always have, rather than wrapped in a {@link CompletionException}.
+     */
+    private static <T> T await(CompletionStage<T> stage) {
+        try {
+            return stage.toCompletableFuture().join();
+        } catch (CompletionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
             throw e;
         }
-        return response;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private static Update buildUpdate(String keyspaceName, String tableName, UpdateShape shape) {
+        return QueryBuilder.update(keyspaceName, tableName)
+                .set(shape.assignedColumns().stream()
+                        .map(column -> Assignment.setColumn(column, QueryBuilder.bindMarker()))
+                        .toArray(Assignment[]::new))
+                .where(shape.keyColumns().stream()
+                        .map(column -> Relation.column(column).isEqualTo(QueryBuilder.bindMarker()))
+                        .toArray(Relation[]::new));
+    }
+
+    @Override
+    public CassandraOperation withProfile(String profileName) {
+        CassandraExecutionProfile selected = EXECUTION_PROFILES.get(profileName);
+        if (selected == null) {
+            throw new IllegalArgumentException("Unknown Cassandra execution profile: " + profileName);
+        }
+        return profileViews.computeIfAbsent(profileName, name -> new CassandraOperationImpl(this, selected));
+    }
+
+    /**
+     * Returns the circuit breaker of a keyspace, mainly to read its state and counters.
+     *
+     * @param keyspaceName The keyspace.
+     * @return The circuit breaker, or null if nothing has been executed against the keyspace.
+     */
+    public CircuitBreaker getCircuitBreaker(String keyspaceName) {
+        KeyspaceGuard guard = guards.get(keyspaceName);
+        return guard == null ? null : guard.circuitBreaker;
+    }
+
+    /**
+     * Returns the bulkhead of a keyspace, mainly to read its counters.
+     *
+     * @param keyspaceName The keyspace.
+     * @return The bulkhead, or null if nothing has been executed against the keyspace.
+     */
+    public Bulkhead getBulkhead(String keyspaceName) {
+        KeyspaceGuard guard = guards.get(keyspaceName);
+        return guard == null ? null : guard.bulkhead;
+    }
+
+    /**
+     * Returns the cache of prepared statements, mainly to read its hit and miss counters.
+     *
+     * @return The prepared statement cache.
+     */
+    public PreparedStatementCache getPreparedStatementCache() {
+        return preparedStatementCache;
     }
 
 }
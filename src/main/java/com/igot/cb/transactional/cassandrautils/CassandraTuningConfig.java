@@ -0,0 +1,143 @@
+package com.igot.cb.transactional.cassandrautils;
+
+import com.datastax.oss.driver.api.core.ConsistencyLevel;
+import com.datastax.oss.driver.api.core.DefaultConsistencyLevel;
+import com.igot.cb.transactional.util.Constants;
+import com.igot.cb.transactional.util.PropertiesCache;
+import com.igot.cb.transactional.util.exceptions.CustomException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+
+/**
+ * The connection and throughput settings of the Cassandra session, read from
+ * {@code cassandra.config.properties} and {@code application.properties}.
+ * <p>
+ * Driver 4 keeps a fixed number of connections per node, so the pool sizes are taken from
+ * {@code maxConnectionsPerHostForLocal} and {@code maxConnectionsPerHostForRemote}, the most
+ * connections the pools were allowed to open.
+ *
+ * @param hosts                    The contact points, without port.
+ * @param port                     The native protocol port of the contact points.
+ * @param localDatacenter          The datacenter whose nodes are queried.
+ * @param consistency              The default consistency level of requests.
+ * @param localPoolSize            The connections per node of the local datacenter.
+ * @param remotePoolSize           The connections per node of other datacenters.
+ * @param maxRequestsPerConnection The most requests in flight on one connection.
+ * @param requestTimeout           How long a request may take before it fails.
+ * @param connectTimeout           How long opening a connection may take.
+ * @param heartbeatInterval        How long a connection may stay idle before it is probed.
+ * @param slowQueryThreshold       The latency above which a request is logged as slow.
+ * @param metricsLogInterval       How often the driver metrics are logged, or zero for never.
+ * @param speculativeExecutionMax  The most executions of an idempotent request, including the
+ *                                 first; 1 disables speculative execution.
+ * @param speculativeExecutionDelay How long to wait for a response before the next execution.
+ * @param slowReplicaAvoidance     Whether replicas that respond slowly are moved to the back of
+ *                                 the query plan.
+ * @param executionProfiles        The named profiles that calls can select.
+ * @param compression              The protocol compression, {@code lz4} or {@code none}.
+ */
+public record CassandraTuningConfig(List<String> hosts, int port, String localDatacenter,
+                                    ConsistencyLevel consistency, int localPoolSize, int remotePoolSize,
+                                    int maxRequestsPerConnection, Duration requestTimeout,
+                                    Duration connectTimeout, Duration heartbeatInterval,
+                                    Duration slowQueryThreshold, Duration metricsLogInterval,
+                                    int speculativeExecutionMax, Duration speculativeExecutionDelay,
+                                    boolean slowReplicaAvoidance,
+                                    List<CassandraExecutionProfile> executionProfiles,
+                                    String compression) {
+
+    private static final Logger logger = LoggerFactory.getLogger(CassandraTuningConfig.class);
+
+    /**
+     * Reads the settings, falling back to the driver defaults for the ones that are missing
+     * or invalid.
+     *
+     * @param cache The properties to read.
+     * @return The settings.
+     * @throws CustomException If no Cassandra host is configured.
+     */
+    public static CassandraTuningConfig fromProperties(PropertiesCache cache) {
+        String cassandraHost = cache.getProperty(Constants.CASSANDRA_CONFIG_HOST);
+        if (StringUtils.isBlank(cassandraHost)) {
+            throw new CustomException(
+                    Constants.ERROR,
+                    "Cassandra host is not configured",
+                    HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        List<String> hosts = Arrays.stream(cassandraHost.split(","))
+                .map(String::trim)
+                .filter(StringUtils::isNotEmpty)
+                .toList();
+        String localDatacenter = cache.readProperty(Constants.SPRING_CASSANDRA_LOCAL_DATACENTER);
+        ConsistencyLevel consistency = readConsistencyLevel(cache);
+        return new CassandraTuningConfig(
+                hosts,
+                NumberUtils.toInt(cache.readProperty(Constants.CASSANDRA_CONFIG_PORT), 9042),
+                StringUtils.isNotBlank(localDatacenter) ? localDatacenter.trim() : "datacenter1",
+                consistency != null ? consistency : DefaultConsistencyLevel.LOCAL_ONE,
+                positive(cache, Constants.MAX_CONNECTIONS_PER_HOST_FOR_LOCAL, 1),
+                positive(cache, Constants.MAX_CONNECTIONS_PER_HOST_FOR_REMOTE, 1),
+                positive(cache, Constants.MAX_REQUEST_PER_CONNECTION, 1024),
+                Duration.ofMillis(positive(cache, Constants.CASSANDRA_REQUEST_TIMEOUT_MS, 10000)),
+                Duration.ofMillis(positive(cache, Constants.CASSANDRA_CONNECT_TIMEOUT_MS, 10000)),
+                Duration.ofSeconds(positive(cache, Constants.HEARTBEAT_INTERVAL, 30)),
+                Duration.ofMillis(positive(cache, Constants.QUERY_LOGGER_CONSTANT_THRESHOLD, 300)),
+                Duration.ofSeconds(Math.max(0, NumberUtils.toInt(
+                        StringUtils.trim(cache.readProperty(Constants.CASSANDRA_METRICS_LOG_INTERVAL_SECONDS)), 60))),
+                positive(cache, Constants.CASSANDRA_SPECULATIVE_EXECUTION_MAX, 1),
+                Duration.ofMillis(positive(cache, Constants.CASSANDRA_SPECULATIVE_EXECUTION_DELAY_MS, 100)),
+                !"false".equalsIgnoreCase(StringUtils.trim(
+                        cache.readProperty(Constants.CASSANDRA_SLOW_REPLICA_AVOIDANCE_ENABLED))),
+                CassandraExecutionProfile.fromProperties(cache),
+                readCompression(cache));
+    }
+
+    /**
+     * Reads {@code cassandra.protocol.compression}. Only LZ4 is supported, as its library is on
+     * the classpath; any other value disables compression.
+     */
+    private static String readCompression(PropertiesCache cache) {
+        String compression = StringUtils.trim(cache.readProperty(Constants.CASSANDRA_PROTOCOL_COMPRESSION));
+        if (StringUtils.isBlank(compression) || "none".equalsIgnoreCase(compression)) {
+            return "none";
+        }
+        if ("lz4".equalsIgnoreCase(compression)) {
+            return "lz4";
+        }
+        logger.info("Ignoring unsupported protocol compression {}", compression);
+        return "none";
+    }
+
+    /**
+     * Reads the consistency level from {@code sunbird_cassandra_consistency_level}, or else from
+     * {@code consistencyLevel}.
+     *
+     * @param cache The properties to read.
+     * @return The consistency level, or null if neither property names a valid level.
+     */
+    static ConsistencyLevel readConsistencyLevel(PropertiesCache cache) {
+        for (String key : List.of(Constants.SUNBIRD_CASSANDRA_CONSISTENCY_LEVEL, Constants.CONSISTENCY_LEVEL)) {
+            String consistency = cache.readProperty(key);
+            if (StringUtils.isBlank(consistency)) {
+                continue;
+            }
+            try {
+                return DefaultConsistencyLevel.valueOf(consistency.trim().toUpperCase());
+            } catch (IllegalArgumentException exception) {
+                logger.info("Ignoring invalid consistency level {}={}", key, consistency);
+            }
+        }
+        return null;
+    }
+
+    private static int positive(PropertiesCache cache, String key, int defaultValue) {
+        int value = NumberUtils.toInt(StringUtils.trim(cache.readProperty(key)), defaultValue);
+        return value > 0 ? value : defaultValue;
+    }
+}
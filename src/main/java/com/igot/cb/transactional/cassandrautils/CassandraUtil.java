@@ -1,11 +1,19 @@
 package com.igot.cb.transactional.cassandrautils;
 
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
 import com.datastax.oss.driver.api.core.cql.ResultSet;
 import com.datastax.oss.driver.api.core.cql.Row;
 
 
 import com.igot.cb.transactional.util.Constants;
+import com.igot.cb.transactional.util.PropertiesCache;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.apache.commons.lang3.math.NumberUtils;
 
 /**
  * @author Mahesh RV
@@ -17,18 +25,32 @@ public final class CassandraUtil {
     }
 
     private static final CassandraPropertyReader propertiesCache = CassandraPropertyReader.getInstance();
+    private static final RowMapperCache ROW_MAPPERS = new RowMapperCache(Math.max(1, NumberUtils.toInt(
+            PropertiesCache.getInstance().getProperty(Constants.CASSANDRA_ROW_MAPPER_CACHE_MAX_ENTRIES), 256)));
 
 
     public static String getPreparedStatement(
             String keyspaceName, String tableName, Map<String, Object> map) {
+        return getInsertQuery(keyspaceName, tableName, map.keySet());
+    }
+
+    /**
+     * Builds an INSERT query with one bind marker per column, in the iteration order of
+     * {@code columns}.
+     *
+     * @param keyspaceName The keyspace name.
+     * @param tableName    The table name.
+     * @param columns      The columns to insert.
+     * @return The INSERT query text.
+     */
+    public static String getInsertQuery(String keyspaceName, String tableName, Collection<String> columns) {
         StringBuilder query = new StringBuilder();
         query.append(Constants.INSERT_INTO).append(keyspaceName).append(Constants.DOT).append(tableName).append(Constants.OPEN_BRACE);
-        Set<String> keySet = map.keySet();
-        query.append(String.join(",", keySet)).append(Constants.VALUES_WITH_BRACE);
+        query.append(String.join(",", columns)).append(Constants.VALUES_WITH_BRACE);
         StringBuilder commaSepValueBuilder = new StringBuilder();
-        for (int i = 0; i < keySet.size(); i++) {
+        for (int i = 0; i < columns.size(); i++) {
             commaSepValueBuilder.append(Constants.QUE_MARK);
-            if (i != keySet.size() - 1) {
+            if (i != columns.size() - 1) {
                 commaSepValueBuilder.append(Constants.COMMA);
             }
         }
@@ -39,32 +61,153 @@ public final class CassandraUtil {
 
     public static List<Map<String, Object>> createResponse(ResultSet results) {
         List<Map<String, Object>> responseList = new ArrayList<>();
-        Map<String, String> columnsMapping = fetchColumnsMapping(results);
-        for (com.datastax.oss.driver.api.core.cql.Row row : results) {
-            Map<String, Object> rowMap = new HashMap<>();
-            columnsMapping.forEach((key, value) -> rowMap.put(key, row.getObject(value)));
-            responseList.add(rowMap);
+        RowMapper rowMapper = rowMapper(results.getColumnDefinitions());
+        for (Row row : results) {
+            responseList.add(rowMapper.map(row));
         }
         return responseList;
     }
 
     public static Map<String, Object> createResponse(ResultSet results, String key) {
         Map<String, Object> responseList = new HashMap<>();
-        Map<String, String> columnsMapping = fetchColumnsMapping(results);
+        RowMapper rowMapper = rowMapper(results.getColumnDefinitions());
         for (Row row : results) {
-            Map<String, Object> rowMap = new HashMap<>();
-            columnsMapping.forEach((key1, value) -> rowMap.put(key1, row.getObject(value)));
+            Map<String, Object> rowMap = rowMapper.map(row);
             responseList.put((String) rowMap.get(key), rowMap);
         }
         return responseList;
     }
 
+    /**
+     * Maps every row of an asynchronous result set the same way {@link #createResponse(ResultSet)}
+     * does, fetching the following pages without blocking.
+     *
+     * @param results The first page of the result set.
+     * @return A stage completing with one map per row, across all pages.
+     */
+    public static CompletionStage<List<Map<String, Object>>> createResponseAsync(AsyncResultSet results) {
+        RowMapper rowMapper = rowMapper(results.getColumnDefinitions());
+        return collectRows(results, rowMapper, new ArrayList<>(results.remaining()));
+    }
+
+    private static CompletionStage<List<Map<String, Object>>> collectRows(
+            AsyncResultSet page, RowMapper rowMapper, List<Map<String, Object>> responseList) {
+        addRows(page, rowMapper, responseList);
+        if (!page.hasMorePages()) {
+            return CompletableFuture.completedFuture(responseList);
+        }
+        return page.fetchNextPage().thenCompose(next -> collectRows(next, rowMapper, responseList));
+    }
+
+    /**
+     * Maps the rows of the current page only, without fetching the following pages.
+     *
+     * @param results The page to map.
+     * @return The page rows and, if more pages follow, the token to fetch the next one with.
+     */
+    public static RecordPage createPage(AsyncResultSet results) {
+        RowMapper rowMapper = rowMapper(results.getColumnDefinitions());
+        List<Map<String, Object>> records = new ArrayList<>(results.remaining());
+        addRows(results, rowMapper, records);
+        String pagingState = results.hasMorePages()
+                ? results.getExecutionInfo().getSafePagingState().toString() : null;
+        return new RecordPage(records, pagingState);
+    }
+
+    private static void addRows(AsyncResultSet page, RowMapper rowMapper, List<Map<String, Object>> responseList) {
+        for (Row row : page.currentPage()) {
+            responseList.add(rowMapper.map(row));
+        }
+    }
+
+    /**
+     * Returns the row mapper for the given columns, built once per list of column names.
+     */
+    static RowMapper rowMapper(ColumnDefinitions columnDefinitions) {
+        return ROW_MAPPERS.get(columnDefinitions);
+    }
+
+    /**
+     * Caches row mappers by the ordered list of column names, so that the definitions of a
+     * re-prepared or unprepared statement reuse the mapper of the same columns. Once
+     * {@code maxEntries} is exceeded, the oldest mappers are evicted.
+     */
+    static final class RowMapperCache {
+
+        private final Map<List<String>, RowMapper> mappers = new ConcurrentHashMap<>();
+        private final Queue<List<String>> insertionOrder = new ConcurrentLinkedQueue<>();
+        private final int maxEntries;
+
+        RowMapperCache(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        RowMapper get(ColumnDefinitions columnDefinitions) {
+            String[] columns = new String[columnDefinitions.size()];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = columnDefinitions.get(i).getName().asInternal();
+            }
+            List<String> key = Arrays.asList(columns);
+            RowMapper rowMapper = mappers.get(key);
+            if (rowMapper == null) {
+                rowMapper = new RowMapper(columns);
+                RowMapper existing = mappers.putIfAbsent(key, rowMapper);
+                if (existing != null) {
+                    return existing;
+                }
+                insertionOrder.add(key);
+                while (mappers.size() > maxEntries) {
+                    List<String> oldest = insertionOrder.poll();
+                    if (oldest == null) {
+                        break;
+                    }
+                    mappers.remove(oldest);
+                }
+            }
+            return rowMapper;
+        }
+
+        int size() {
+            return mappers.size();
+        }
+    }
+
     public static Map<String, String> fetchColumnsMapping(ResultSet results) {
+        return fetchColumnsMapping(results.getColumnDefinitions());
+    }
+
+    public static Map<String, String> fetchColumnsMapping(ColumnDefinitions columnDefinitions) {
         Map<String, String> columnsMapping = new HashMap<>();
-        results.getColumnDefinitions().forEach(column -> {
+        columnDefinitions.forEach(column -> {
             String property = propertiesCache.readProperty(column.getName().asInternal()).trim();
             columnsMapping.put(property, column.getName().asInternal());
         });
         return columnsMapping;
     }
+
+    /**
+     * Maps rows to response maps keyed by property name, reading the columns by index.
+     */
+    static final class RowMapper {
+
+        private final String[] properties;
+        private final int mapCapacity;
+
+        private RowMapper(String[] columns) {
+            properties = new String[columns.length];
+            for (int i = 0; i < properties.length; i++) {
+                properties[i] = propertiesCache.readProperty(columns[i]).trim();
+            }
+            // Large enough that the map never resizes
+            mapCapacity = (int) (properties.length / 0.75f) + 1;
+        }
+
+        Map<String, Object> map(Row row) {
+            Map<String, Object> rowMap = new HashMap<>(mapCapacity);
+            for (int i = 0; i < properties.length; i++) {
+                rowMap.put(properties[i], row.getObject(i));
+            }
+            return rowMap;
+        }
+    }
 }
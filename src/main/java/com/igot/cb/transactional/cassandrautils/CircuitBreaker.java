@@ -0,0 +1,289 @@
+package com.igot.cb.transactional.cassandrautils;
+
+import com.igot.cb.transactional.util.Constants;
+import com.igot.cb.transactional.util.PropertiesCache;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fails calls fast while the calls that went through recently have mostly failed or been slow.
+ * <p>
+ * While closed, the outcomes of the last {@code windowSize} calls are kept. Once at least
+ * {@code minimumCalls} of them are known and the share of failed or of slow calls reaches its
+ * threshold, the breaker opens and rejects every call for {@code openDuration}. It then lets
+ * {@code halfOpenProbes} calls through: if all of them succeed in time it closes again with an
+ * empty window, and the first failed or slow probe opens it again.
+ * <p>
+ * A call is admitted with {@link #tryAcquire()}, which returns a permit, and reported with
+ * {@link #onResult(long, long, boolean)}, or {@link #release(long)} if it never ran. Outcomes of
+ * calls admitted before the last state change are counted but do not move the breaker.
+ */
+public class CircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    /**
+     * Returned by {@link #tryAcquire()} when the call is rejected.
+     */
+    public static final long REJECTED = -1;
+
+    /**
+     * The breaker states, in the order of their metric values.
+     */
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    /**
+     * The thresholds of a breaker.
+     *
+     * @param failureRatePercent  The share of failed calls, in percent, that opens the breaker.
+     * @param slowCallThreshold   The latency from which a call is slow.
+     * @param slowCallRatePercent The share of slow calls, in percent, that opens the breaker.
+     * @param windowSize          The number of recent calls the rates are computed over.
+     * @param minimumCalls        The fewest calls in the window before the breaker can open.
+     * @param openDuration        How long the breaker rejects calls once open.
+     * @param halfOpenProbes      The calls let through to decide whether to close again.
+     */
+    public record Settings(int failureRatePercent, Duration slowCallThreshold, int slowCallRatePercent,
+                           int windowSize, int minimumCalls, Duration openDuration, int halfOpenProbes) {
+
+        /**
+         * Reads the {@code cassandra.circuit.breaker.*} properties, falling back to the defaults
+         * for the ones that are missing or invalid.
+         *
+         * @param cache The properties to read.
+         * @return The settings.
+         */
+        public static Settings fromProperties(PropertiesCache cache) {
+            int windowSize = positive(cache, Constants.CASSANDRA_CIRCUIT_BREAKER_WINDOW_SIZE, 100);
+            return new Settings(
+                    Math.min(100, positive(cache, Constants.CASSANDRA_CIRCUIT_BREAKER_FAILURE_RATE_PERCENT, 50)),
+                    Duration.ofMillis(positive(cache, Constants.CASSANDRA_CIRCUIT_BREAKER_SLOW_CALL_MS, 2000)),
+                    Math.min(100, positive(cache, Constants.CASSANDRA_CIRCUIT_BREAKER_SLOW_CALL_RATE_PERCENT, 80)),
+                    windowSize,
+                    Math.min(windowSize, positive(cache, Constants.CASSANDRA_CIRCUIT_BREAKER_MINIMUM_CALLS, 20)),
+                    Duration.ofMillis(positive(cache, Constants.CASSANDRA_CIRCUIT_BREAKER_OPEN_MS, 5000)),
+                    positive(cache, Constants.CASSANDRA_CIRCUIT_BREAKER_HALF_OPEN_PROBES, 5));
+        }
+
+        private static int positive(PropertiesCache cache, String key, int defaultValue) {
+            int value = NumberUtils.toInt(StringUtils.trim(cache.readProperty(key)), defaultValue);
+            return value > 0 ? value : defaultValue;
+        }
+    }
+
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    private final String name;
+    private final Settings settings;
+    private final LongSupplier nanoClock;
+    private final long slowCallNanos;
+    private final long openNanos;
+
+    // Outcomes of the last calls while closed, as FAILED and SLOW flags
+    private final byte[] window;
+    private int windowNext;
+    private int windowCalls;
+    private int windowFailures;
+    private int windowSlowCalls;
+
+    private volatile State state = State.CLOSED;
+    // Incremented on every state change, so that late outcomes can be told apart
+    private long generation;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder slowCalls = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder openings = new LongAdder();
+
+    /**
+     * Creates a closed breaker.
+     *
+     * @param name     What the breaker protects, for the logs.
+     * @param settings The thresholds.
+     */
+    public CircuitBreaker(String name, Settings settings) {
+        this(name, settings, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, Settings settings, LongSupplier nanoClock) {
+        this.name = name;
+        this.settings = settings;
+        this.nanoClock = nanoClock;
+        this.slowCallNanos = settings.slowCallThreshold().toNanos();
+        this.openNanos = settings.openDuration().toNanos();
+        this.window = new byte[settings.windowSize()];
+    }
+
+    /**
+     * Admits a call, unless the breaker is open or all half-open probes are already running.
+     *
+     * @return The permit to report the call with, or {@link #REJECTED}.
+     */
+    public synchronized long tryAcquire() {
+        if (state == State.OPEN) {
+            if (nanoClock.getAsLong() - openedAt < openNanos) {
+                rejections.increment();
+                return REJECTED;
+            }
+            transition(State.HALF_OPEN);
+            probesStarted = 0;
+            probesSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesStarted >= settings.halfOpenProbes()) {
+                rejections.increment();
+                return REJECTED;
+            }
+            probesStarted++;
+        }
+        return generation;
+    }
+
+    /**
+     * Reports the outcome of an admitted call.
+     *
+     * @param permit       The permit returned by {@link #tryAcquire()}.
+     * @param latencyNanos How long the call took.
+     * @param failed       Whether the call failed.
+     */
+    public synchronized void onResult(long permit, long latencyNanos, boolean failed) {
+        boolean slow = latencyNanos >= slowCallNanos;
+        (failed ? failures : successes).increment();
+        if (slow) {
+            slowCalls.increment();
+        }
+        if (permit != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            if (failed || slow) {
+                logger.warn("A probe of the circuit breaker of {} {}; opening it again",
+                        name, failed ? "failed" : "was slow");
+                open();
+            } else if (++probesSucceeded >= settings.halfOpenProbes()) {
+                close();
+            }
+            return;
+        }
+        record((byte) ((failed ? FAILED : 0) | (slow ? SLOW : 0)));
+        if (windowCalls >= settings.minimumCalls()
+                && (windowFailures * 100 >= settings.failureRatePercent() * windowCalls
+                || windowSlowCalls * 100 >= settings.slowCallRatePercent() * windowCalls)) {
+            logger.warn("Opening the circuit breaker of {}: {} failed and {} slow of the last {} calls",
+                    name, windowFailures, windowSlowCalls, windowCalls);
+            open();
+        }
+    }
+
+    /**
+     * Gives back the permit of a call that was admitted but never ran.
+     *
+     * @param permit The permit returned by {@link #tryAcquire()}.
+     */
+    public synchronized void release(long permit) {
+        if (permit == generation && state == State.HALF_OPEN && probesStarted > 0) {
+            probesStarted--;
+        }
+    }
+
+    private void record(byte outcome) {
+        if (windowCalls == window.length) {
+            byte evicted = window[windowNext];
+            windowFailures -= evicted & FAILED;
+            windowSlowCalls -= (evicted & SLOW) >> 1;
+        } else {
+            windowCalls++;
+        }
+        window[windowNext] = outcome;
+        windowFailures += outcome & FAILED;
+        windowSlowCalls += (outcome & SLOW) >> 1;
+        windowNext = (windowNext + 1) % window.length;
+    }
+
+    private void open() {
+        transition(State.OPEN);
+        openedAt = nanoClock.getAsLong();
+        openings.increment();
+    }
+
+    private void close() {
+        logger.info("Closing the circuit breaker of {}", name);
+        transition(State.CLOSED);
+        windowNext = 0;
+        windowCalls = 0;
+        windowFailures = 0;
+        windowSlowCalls = 0;
+    }
+
+    private void transition(State next) {
+        state = next;
+        generation++;
+    }
+
+    /**
+     * Returns the current state. An open breaker whose open duration has elapsed still reports
+     * {@link State#OPEN} until the next call is admitted.
+     *
+     * @return The state.
+     */
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Returns the number of admitted calls that succeeded.
+     *
+     * @return The success count.
+     */
+    public long getSuccessCount() {
+        return successes.sum();
+    }
+
+    /**
+     * Returns the number of admitted calls that failed.
+     *
+     * @return The failure count.
+     */
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    /**
+     * Returns the number of admitted calls that were slow, failed or not.
+     *
+     * @return The slow call count.
+     */
+    public long getSlowCallCount() {
+        return slowCalls.sum();
+    }
+
+    /**
+     * Returns the number of calls rejected without being run.
+     *
+     * @return The rejection count.
+     */
+    public long getRejectedCount() {
+        return rejections.sum();
+    }
+
+    /**
+     * Returns how many times the breaker has opened.
+     *
+     * @return The opening count.
+     */
+    public long getOpenedCount() {
+        return openings.sum();
+    }
+}
@@ -0,0 +1,171 @@
+package com.igot.cb.transactional.cassandrautils;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches prepared statements by statement shape, so a query is prepared once per session
+ * instead of on every call.
+ * <p>
+ * A shape is identified by a {@link StatementKey}: the keyspace, the table and whatever
+ * determines the query text, such as the ordered list of inserted columns. Entries remember
+ * the session they were prepared on and are prepared again if the connection manager hands
+ * out a new session for the keyspace. Shapes come from code, not from request values, so the
+ * number of entries stays small; should it exceed {@code maxEntries}, the least recently used
+ * statements are evicted, and a warning is logged the first time.
+ */
+public class PreparedStatementCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PreparedStatementCache.class);
+
+    /**
+     * Identifies a statement shape.
+     *
+     * @param keyspace The keyspace the statement runs against.
+     * @param table    The table the statement runs against.
+     * @param shape    What else determines the query text, e.g. the ordered column names.
+     */
+    public record StatementKey(String keyspace, String table, Object shape) {
+    }
+
+    private static final class Entry {
+        private final CqlSession session;
+        private final PreparedStatement statement;
+        private volatile long lastUsed;
+
+        private Entry(CqlSession session, PreparedStatement statement, long lastUsed) {
+            this.session = session;
+            this.statement = statement;
+            this.lastUsed = lastUsed;
+        }
+    }
+
+    private final Map<StatementKey, Entry> statements = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    // Orders the uses of the entries, for the eviction
+    private final AtomicLong useClock = new AtomicLong();
+    private volatile boolean warnedFull;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache holding at most {@code maxEntries} statements.
+     *
+     * @param maxEntries The maximum number of statements kept in the cache.
+     */
+    public PreparedStatementCache(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the statement prepared for the given shape on the given session, preparing it
+     * asynchronously on first use. A hit completes immediately. Concurrent first uses of the
+     * same shape may each send a prepare request; the driver coalesces them per session.
+     *
+     * @param session The session the statement will be executed on.
+     * @param key     The statement shape.
+     * @param query   Builds the query text; only called when the statement must be prepared.
+     * @return A stage completing with the prepared statement.
+     */
+    public CompletionStage<PreparedStatement> getAsync(CqlSession session, StatementKey key, Supplier<String> query) {
+        Entry entry = statements.get(key);
+        if (entry != null && entry.session == session) {
+            hits.increment();
+            entry.lastUsed = useClock.incrementAndGet();
+            return CompletableFuture.completedFuture(entry.statement);
+        }
+        misses.increment();
+        return session.prepareAsync(query.get()).thenApply(statement -> {
+            statements.put(key, new Entry(session, statement, useClock.incrementAndGet()));
+            if (statements.size() > maxEntries) {
+                evictLeastRecentlyUsed();
+            }
+            return statement;
+        });
+    }
+
+    // Scans the entries, which only happens on a miss once the cache is full
+    private synchronized void evictLeastRecentlyUsed() {
+        if (!warnedFull) {
+            warnedFull = true;
+            logger.warn("Prepared statement cache is full at {} statements; evicting the least recently used. "
+                    + "Raise cassandra.prepared.statement.cache.max.entries if this repeats", maxEntries);
+        }
+        while (statements.size() > maxEntries) {
+            Map.Entry<StatementKey, Entry> oldest = null;
+            for (Map.Entry<StatementKey, Entry> candidate : statements.entrySet()) {
+                if (oldest == null || candidate.getValue().lastUsed < oldest.getValue().lastUsed) {
+                    oldest = candidate;
+                }
+            }
+            if (oldest == null) {
+                return;
+            }
+            if (statements.remove(oldest.getKey(), oldest.getValue())) {
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of lookups served from the cache.
+     *
+     * @return The hit count.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that had to prepare the statement.
+     *
+     * @return The miss count.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of statements evicted to stay within {@code maxEntries}.
+     *
+     * @return The eviction count.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Returns the fraction of lookups served from the cache.
+     *
+     * @return The hit rate between 0 and 1, or 0 before the first lookup.
+     */
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * Returns the number of cached statements.
+     *
+     * @return The cache size.
+     */
+    public int size() {
+        return statements.size();
+    }
+}
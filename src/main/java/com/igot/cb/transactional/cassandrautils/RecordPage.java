@@ -0,0 +1,23 @@
+package com.igot.cb.transactional.cassandrautils;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of a paged read.
+ *
+ * @param records     The records of the page.
+ * @param pagingState The opaque token to pass back to read the next page, or null if this is
+ *                    the last page.
+ */
+public record RecordPage(List<Map<String, Object>> records, String pagingState) {
+
+    /**
+     * Returns whether more pages follow this one.
+     *
+     * @return true if {@link #pagingState()} is set.
+     */
+    public boolean hasMorePages() {
+        return pagingState != null;
+    }
+}
@@ -0,0 +1,104 @@
+package com.igot.cb.transactional.cassandrautils;
+
+import com.datastax.oss.driver.api.core.config.DriverExecutionProfile;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.metadata.Node;
+import com.datastax.oss.driver.api.core.session.Request;
+import com.datastax.oss.driver.api.core.tracker.RequestTracker;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Logs and counts the requests that take longer than a threshold, successful or not.
+ * <p>
+ * Only the statement shape is logged: the query text of a prepared statement, with its bind
+ * markers, and never the bound values. The latency is the driver's, from the request being
+ * sent to its completion, including retries and speculative executions.
+ */
+public class SlowQueryTracker implements RequestTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlowQueryTracker.class);
+
+    private final long thresholdNanos;
+    private final LongAdder slowQueries = new LongAdder();
+    private final LongAdder slowFailedQueries = new LongAdder();
+
+    /**
+     * Creates a tracker for requests slower than {@code threshold}.
+     *
+     * @param threshold The latency above which a request is slow.
+     */
+    public SlowQueryTracker(Duration threshold) {
+        this.thresholdNanos = threshold.toNanos();
+    }
+
+    @Override
+    public void onSuccess(Request request, long latencyNanos, DriverExecutionProfile executionProfile,
+                          Node node, String requestLogPrefix) {
+        if (latencyNanos > thresholdNanos) {
+            slowQueries.increment();
+            logger.warn("[{}] Slow query on {} took {} ms: {}", requestLogPrefix, node == null ? null : node.getEndPoint(),
+                    TimeUnit.NANOSECONDS.toMillis(latencyNanos), shape(request));
+        }
+    }
+
+    @Override
+    public void onError(Request request, Throwable error, long latencyNanos, DriverExecutionProfile executionProfile,
+                        Node node, String requestLogPrefix) {
+        if (latencyNanos > thresholdNanos) {
+            slowQueries.increment();
+            slowFailedQueries.increment();
+            logger.warn("[{}] Slow query on {} failed after {} ms with {}: {}", requestLogPrefix,
+                    node == null ? null : node.getEndPoint(), TimeUnit.NANOSECONDS.toMillis(latencyNanos),
+                    error.getClass().getSimpleName(), shape(request));
+        }
+    }
+
+    /**
+     * Describes a request without its values.
+     *
+     * @param request The request.
+     * @return The query text of a prepared or simple statement, or the size and first query of a batch.
+     */
+    static String shape(Request request) {
+        if (request instanceof BoundStatement boundStatement) {
+            return boundStatement.getPreparedStatement().getQuery();
+        }
+        if (request instanceof BatchStatement batchStatement) {
+            String first = batchStatement.size() == 0 ? "" : shape(batchStatement.iterator().next());
+            return String.format("%s batch of %d: %s", batchStatement.getBatchType(), batchStatement.size(), first);
+        }
+        if (request instanceof SimpleStatement simpleStatement) {
+            return simpleStatement.getQuery();
+        }
+        return request.getClass().getSimpleName();
+    }
+
+    /**
+     * Returns the number of slow requests, including the failed ones.
+     *
+     * @return The slow request count.
+     */
+    public long getSlowQueryCount() {
+        return slowQueries.sum();
+    }
+
+    /**
+     * Returns the number of slow requests that failed.
+     *
+     * @return The slow failed request count.
+     */
+    public long getSlowFailedQueryCount() {
+        return slowFailedQueries.sum();
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release
+    }
+}
@@ -13,8 +13,39 @@ public class Constants {
     public static final String MAX_REQUEST_PER_CONNECTION = "maxRequestsPerConnection";
     public static final String HEARTBEAT_INTERVAL = "heartbeatIntervalSeconds";
     public static final String POOL_TIMEOUT = "poolTimeoutMillis";
+    public static final String CONSISTENCY_LEVEL = "consistencyLevel";
+    public static final String QUERY_LOGGER_CONSTANT_THRESHOLD = "queryLoggerConstantThreshold";
     public static final String CASSANDRA_CONFIG_HOST = "cassandra.config.host";
+    public static final String CASSANDRA_CONFIG_PORT = "cassandra.config.port";
+    public static final String CASSANDRA_REQUEST_TIMEOUT_MS = "cassandra.request.timeout.ms";
+    public static final String CASSANDRA_CONNECT_TIMEOUT_MS = "cassandra.connect.timeout.ms";
+    public static final String CASSANDRA_METRICS_LOG_INTERVAL_SECONDS = "cassandra.metrics.log.interval.seconds";
+    public static final String SPRING_CASSANDRA_LOCAL_DATACENTER = "spring.cassandra.local-datacenter";
     public static final String SUNBIRD_CASSANDRA_CONSISTENCY_LEVEL = "sunbird_cassandra_consistency_level";
+    public static final String CASSANDRA_PREPARED_STATEMENT_CACHE_MAX_ENTRIES = "cassandra.prepared.statement.cache.max.entries";
+    public static final String CASSANDRA_ROW_MAPPER_CACHE_MAX_ENTRIES = "cassandra.row.mapper.cache.max.entries";
+    public static final String CASSANDRA_BATCH_MAX_ROWS = "cassandra.batch.max.rows";
+    public static final String CASSANDRA_BATCH_MAX_BYTES = "cassandra.batch.max.bytes";
+    public static final String CASSANDRA_WRITE_MAX_IN_FLIGHT = "cassandra.write.max.in.flight";
+    public static final String CASSANDRA_READ_PAGE_SIZE = "cassandra.read.page.size";
+    public static final String CASSANDRA_READ_MAX_PAGE_SIZE = "cassandra.read.max.page.size";
+    public static final String CASSANDRA_IDEMPOTENT_WRITE_TABLES = "cassandra.idempotent.write.tables";
+    public static final String CASSANDRA_SPECULATIVE_EXECUTION_MAX = "cassandra.speculative.execution.max";
+    public static final String CASSANDRA_SPECULATIVE_EXECUTION_DELAY_MS = "cassandra.speculative.execution.delay.ms";
+    public static final String CASSANDRA_SLOW_REPLICA_AVOIDANCE_ENABLED = "cassandra.slow.replica.avoidance.enabled";
+    public static final String CASSANDRA_EXECUTION_PROFILES = "cassandra.execution.profiles";
+    public static final String CASSANDRA_PROFILE_PREFIX = "cassandra.profile.";
+    public static final String CASSANDRA_PROTOCOL_COMPRESSION = "cassandra.protocol.compression";
+    public static final String CASSANDRA_CIRCUIT_BREAKER_FAILURE_RATE_PERCENT = "cassandra.circuit.breaker.failure.rate.percent";
+    public static final String CASSANDRA_CIRCUIT_BREAKER_SLOW_CALL_MS = "cassandra.circuit.breaker.slow.call.ms";
+    public static final String CASSANDRA_CIRCUIT_BREAKER_SLOW_CALL_RATE_PERCENT = "cassandra.circuit.breaker.slow.call.rate.percent";
+    public static final String CASSANDRA_CIRCUIT_BREAKER_WINDOW_SIZE = "cassandra.circuit.breaker.window.size";
+    public static final String CASSANDRA_CIRCUIT_BREAKER_MINIMUM_CALLS = "cassandra.circuit.breaker.minimum.calls";
+    public static final String CASSANDRA_CIRCUIT_BREAKER_OPEN_MS = "cassandra.circuit.breaker.open.ms";
+    public static final String CASSANDRA_CIRCUIT_BREAKER_HALF_OPEN_PROBES = "cassandra.circuit.breaker.half.open.probes";
+    public static final String CASSANDRA_BULKHEAD_MAX_CONCURRENT = "cassandra.bulkhead.max.concurrent";
+    public static final String CASSANDRA_BULKHEAD_MAX_QUEUED = "cassandra.bulkhead.max.queued";
+    public static final String CASSANDRA_BULKHEAD_MAX_QUEUE_MS = "cassandra.bulkhead.max.queue.ms";
     public static final String EXCEPTION_MSG_FETCH = "Exception occurred while fetching record from ";
     public static final String INSERT_INTO = "INSERT INTO ";
     public static final String DOT = ".";
@@ -38,6 +69,19 @@ public class Constants {
     public static final String SSO_URL = "sso.url";
     public static final String SSO_REALM = "sso.realm";
     public static final String ACCESS_TOKEN_PUBLICKEY_BASEPATH = "accesstoken.publickey.basepath";
+    public static final String ACCESS_TOKEN_CACHE_MAX_ENTRIES = "accesstoken.cache.max.entries";
+    public static final String ACCESS_TOKEN_CACHE_MAX_TTL_SECONDS = "accesstoken.cache.max.ttl.seconds";
+    public static final String ACCESS_TOKEN_NEGATIVE_CACHE_MAX_ENTRIES = "accesstoken.negative.cache.max.entries";
+    public static final String ACCESS_TOKEN_NEGATIVE_CACHE_TTL_SECONDS = "accesstoken.negative.cache.ttl.seconds";
+    public static final String ACCESS_TOKEN_PUBLICKEY_RELOAD_MIN_INTERVAL_MS = "accesstoken.publickey.reload.min.interval.ms";
+    public static final String ACCESS_TOKEN_JWKS_ENABLED = "accesstoken.jwks.enabled";
+    public static final String ACCESS_TOKEN_JWKS_REFRESH_INTERVAL_SECONDS = "accesstoken.jwks.refresh.interval.seconds";
+    public static final String ACCESS_TOKEN_JWKS_MISS_REFRESH_MIN_INTERVAL_MS = "accesstoken.jwks.miss.refresh.min.interval.ms";
+    public static final String ACCESS_TOKEN_JWKS_COLD_FETCH_TIMEOUT_MS = "accesstoken.jwks.cold.fetch.timeout.ms";
+    public static final String ACCESS_SETTINGS_ASYNC_TIMEOUT_MS = "access.settings.async.timeout.ms";
+    public static final String ACCESS_SETTINGS_CONTEXT_DATA_FORMAT = "access.settings.contextdata.format";
+    public static final String ACCESS_SETTINGS_CONTEXT_DATA_COMPRESSION = "access.settings.contextdata.compression";
+    public static final String ACCESS_SETTINGS_CONTEXT_DATA_COMPRESSION_MIN_BYTES = "access.settings.contextdata.compression.min.bytes";
     public static final String ID = "id";
     public static final String FETCH_RESULT_CONSTANT = ".fetchResult:";
     public static final String URI_CONSTANT = "URI: ";
@@ -68,6 +112,9 @@ public class Constants {
     public static final String EXCEPTION_MSG_UPDATE = "Exception occurred while updating record to ";
     public static final String X_AUTH_USER_ORG_ID = "x-authenticated-user-orgid";
     public static final String X_AUTH_TOKEN = "x-authenticated-user-token";
+    public static final String AUTHENTICATED_USER_ID = "authenticatedUserId";
+    public static final String AUTHENTICATED_TOKEN_CLAIMS = "authenticatedTokenClaims";
+    public static final String API_AUTHENTICATION = "api.authentication";
     public static final String INDEX_NAME = "community_entity_alias";
     public static final String ERROR = "ERROR";
     public static final String INVALID_DATA = "No data found";
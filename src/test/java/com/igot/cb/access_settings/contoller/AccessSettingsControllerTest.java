@@ -11,13 +11,16 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
 
 
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 class AccessSettingsControllerTest {
@@ -57,4 +60,49 @@ class AccessSettingsControllerTest {
     assertEquals(mockResponse, responseEntity.getBody());
     verify(accessSettingsService, times(1)).upsert(userGroupDetails, authToken);
   }
+
+  @Test
+  void testUpsertAsync_ReturnsApiResponse() {
+    Map<String, Object> userGroupDetails = new HashMap<>();
+    String authToken = "dummy-token";
+    ApiResponse mockResponse = new ApiResponse();
+    mockResponse.setResponseCode(HttpStatus.OK);
+
+    when(accessSettingsService.upsertAsync(userGroupDetails, authToken))
+        .thenReturn(CompletableFuture.completedFuture(mockResponse));
+
+    ResponseEntity<ApiResponse> responseEntity = controller.upsertAsync(userGroupDetails, authToken).join();
+
+    assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+    assertEquals(mockResponse, responseEntity.getBody());
+  }
+
+  @Test
+  void testUpsertAsync_TimeoutReturnsGatewayTimeout() {
+    Map<String, Object> userGroupDetails = new HashMap<>();
+    String authToken = "dummy-token";
+    ReflectionTestUtils.setField(controller, "upsertAsyncTimeoutMillis", 50L);
+
+    when(accessSettingsService.upsertAsync(userGroupDetails, authToken)).thenReturn(new CompletableFuture<>());
+
+    ResponseEntity<ApiResponse> responseEntity = controller.upsertAsync(userGroupDetails, authToken).join();
+
+    assertEquals(HttpStatus.GATEWAY_TIMEOUT, responseEntity.getStatusCode());
+    assertEquals(HttpStatus.GATEWAY_TIMEOUT, responseEntity.getBody().getResponseCode());
+    assertEquals("FAILED", responseEntity.getBody().getParams().getStatus());
+  }
+
+  @Test
+  void testUpsertAsync_ErrorReturnsInternalServerError() {
+    Map<String, Object> userGroupDetails = new HashMap<>();
+    String authToken = "dummy-token";
+
+    when(accessSettingsService.upsertAsync(userGroupDetails, authToken))
+        .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("boom")));
+
+    ResponseEntity<ApiResponse> responseEntity = controller.upsertAsync(userGroupDetails, authToken).join();
+
+    assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, responseEntity.getStatusCode());
+    assertTrue(responseEntity.getBody().getParams().getErrMsg().contains("boom"));
+  }
 }
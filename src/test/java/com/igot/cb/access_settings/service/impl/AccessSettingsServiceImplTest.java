@@ -3,22 +3,27 @@ package com.igot.cb.access_settings.service.impl;
 
 
 import com.igot.cb.access_settings.util.Constants;
+import com.igot.cb.access_settings.util.ContextDataCodec;
+import com.igot.cb.access_settings.util.ContextDataFormat;
 import com.igot.cb.access_settings.util.PayloadValidation;
 import com.igot.cb.transactional.cassandrautils.CassandraOperation;
 import com.igot.cb.transactional.util.ApiResponse;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -40,6 +45,8 @@ class AccessSettingsServiceImplTest {
   @BeforeEach
   void setUp() {
     mocks = MockitoAnnotations.openMocks(this);
+    // Mockito stops after constructor injection, so the field-injected mock is set here
+    ReflectionTestUtils.setField(service, "cassandraOperation", cassandraOperation);
   }
 
   @AfterEach
@@ -91,6 +98,25 @@ class AccessSettingsServiceImplTest {
     assertNotNull(response.getResult().get(Constants.DATA));
   }
 
+  @Test
+  void testUpsert_StoresContextDataInConfiguredFormat() {
+    Map<String, Object> details = new HashMap<>();
+    details.put(Constants.CONTENT_ID, "cid");
+    details.put(Constants.ACCESS_CONTROL, new HashMap<>());
+    when(payloadValidation.validateAccessControlPayload(details)).thenReturn("");
+    ContextDataCodec codec = new ContextDataCodec(ContextDataFormat.SMILE, false, 0);
+    ReflectionTestUtils.setField(service, "contextDataCodec", codec);
+
+    service.upsert(details, "token");
+
+    ArgumentCaptor<Map<String, Object>> row = ArgumentCaptor.forClass(Map.class);
+    verify(cassandraOperation).insertRecord(eq(Constants.KEYSPACE_SUNBIRD_COURSE),
+        eq(Constants.ACCESS_SETTINGS_RULES_TABLE), row.capture());
+    String stored = (String) row.getValue().get(Constants.CONTEXT_DATA);
+    assertTrue(stored.startsWith(ContextDataFormat.SMILE.prefix()));
+    assertEquals(details, codec.decode(stored));
+  }
+
   @Test
   void testUpsert_Exception() {
     Map<String, Object> details = new HashMap<>();
@@ -105,6 +131,57 @@ class AccessSettingsServiceImplTest {
     assertTrue(response.getParams().getErrMsg().contains("Failed to create access settings"));
   }
 
+  @Test
+  void testUpsertAsync_Success() {
+    Map<String, Object> details = new HashMap<>();
+    details.put(Constants.CONTENT_ID, "cid");
+    details.put(Constants.ACCESS_CONTROL, new HashMap<>());
+    when(payloadValidation.validateAccessControlPayload(details)).thenReturn("");
+    ApiResponse insertResponse = new ApiResponse();
+    insertResponse.put(Constants.RESPONSE, "success");
+    CompletableFuture<ApiResponse> write = new CompletableFuture<>();
+    when(cassandraOperation.insertRecordAsync(anyString(), anyString(), anyMap())).thenReturn(write);
+
+    CompletableFuture<ApiResponse> result = service.upsertAsync(details, "token").toCompletableFuture();
+    assertFalse(result.isDone());
+    write.complete(insertResponse);
+
+    ApiResponse response = result.join();
+    assertEquals(HttpStatus.OK, response.getResponseCode());
+    assertEquals(Constants.CREATED_RULES, response.getResult().get(Constants.MSG));
+    assertNotNull(response.getResult().get(Constants.DATA));
+  }
+
+  @Test
+  void testUpsertAsync_InsertFailed() {
+    Map<String, Object> details = new HashMap<>();
+    details.put(Constants.CONTENT_ID, "cid");
+    details.put(Constants.ACCESS_CONTROL, new HashMap<>());
+    when(payloadValidation.validateAccessControlPayload(details)).thenReturn("");
+    ApiResponse insertResponse = new ApiResponse();
+    insertResponse.put(Constants.RESPONSE, "Failed");
+    insertResponse.put(Constants.ERROR_MESSAGE, "write timeout");
+    when(cassandraOperation.insertRecordAsync(anyString(), anyString(), anyMap()))
+        .thenReturn(CompletableFuture.completedFuture(insertResponse));
+
+    ApiResponse response = service.upsertAsync(details, "token").toCompletableFuture().join();
+    assertEquals(HttpStatus.BAD_REQUEST, response.getResponseCode());
+    assertEquals(Constants.FAILED, response.getParams().getStatus());
+    assertTrue(response.getParams().getErrMsg().contains("write timeout"));
+  }
+
+  @Test
+  void testUpsertAsync_ValidationError() {
+    Map<String, Object> details = new HashMap<>();
+    details.put(Constants.CONTENT_ID, "cid");
+    when(payloadValidation.validateAccessControlPayload(details)).thenReturn("validation error");
+
+    ApiResponse response = service.upsertAsync(details, "token").toCompletableFuture().join();
+    assertEquals(HttpStatus.BAD_REQUEST, response.getResponseCode());
+    assertTrue(response.getParams().getErrMsg().contains("validation error"));
+    verifyNoInteractions(cassandraOperation);
+  }
+
   @SuppressWarnings("unchecked")
   @Test
   void testCreateUserGroupIds_AddsUuid() {
@@ -0,0 +1,125 @@
+package com.igot.cb.access_settings.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class ContextDataCodecTest {
+
+  private static Map<String, Object> rule(int userGroups) {
+    List<Map<String, Object>> groups = new ArrayList<>();
+    for (int i = 0; i < userGroups; i++) {
+      Map<String, Object> criteria = new HashMap<>();
+      criteria.put(Constants.CRITERIA_VALUE, List.of("Manager", "Director"));
+      Map<String, Object> group = new HashMap<>();
+      group.put(Constants.USER_GROUP_ID, "group-" + i);
+      group.put("userGroupName", "Group " + i + " क");
+      group.put(Constants.USER_GROUP_CRTIRIA_LIST, List.of(criteria));
+      groups.add(group);
+    }
+    Map<String, Object> rule = new HashMap<>();
+    rule.put(Constants.CONTENT_ID, "do_1140457453451018241");
+    rule.put(Constants.ACCESS_CONTROL, Map.of(Constants.USER_GROUPS, groups));
+    return rule;
+  }
+
+  @Test
+  void testEncode_compressesLargeJsonRule() throws Exception {
+    ContextDataCodec codec = new ContextDataCodec(ContextDataFormat.JSON, true, 1024);
+    Map<String, Object> rule = rule(50);
+
+    String stored = codec.encode(rule);
+
+    assertTrue(stored.startsWith(ContextDataCodec.LZ4_PREFIX));
+    assertTrue(stored.length() < new ObjectMapper().writeValueAsString(rule).length() / 2);
+    assertEquals(rule, codec.decode(stored));
+  }
+
+  @Test
+  void testEncode_keepsSmallRuleAsJson() throws Exception {
+    ContextDataCodec codec = new ContextDataCodec(ContextDataFormat.JSON, true, 1024);
+    Map<String, Object> rule = rule(1);
+
+    assertEquals(new ObjectMapper().writeValueAsString(rule), codec.encode(rule));
+  }
+
+  @Test
+  void testEncode_keepsIncompressibleRuleAsJson() throws Exception {
+    ContextDataCodec codec = new ContextDataCodec(ContextDataFormat.JSON, true, 0);
+
+    assertEquals("{\"a\":\"x7Qp\"}", codec.encode(Map.of("a", "x7Qp")));
+  }
+
+  @Test
+  void testEncode_uncompressedJson() throws Exception {
+    ContextDataCodec codec = new ContextDataCodec(ContextDataFormat.JSON, false, 0);
+    Map<String, Object> rule = rule(50);
+
+    assertEquals(new ObjectMapper().writeValueAsString(rule), codec.encode(rule));
+  }
+
+  @Test
+  void testEncode_binaryFormats() throws Exception {
+    ContextDataCodec codec = new ContextDataCodec(ContextDataFormat.JSON, true, 0);
+    Map<String, Object> rule = rule(50);
+
+    String smile = codec.encode(rule, ContextDataFormat.SMILE);
+    String cbor = codec.encode(rule, ContextDataFormat.CBOR);
+
+    assertTrue(smile.startsWith("smile:"));
+    assertTrue(cbor.startsWith("cbor:"));
+    assertEquals(rule, codec.decode(smile));
+    assertEquals(rule, codec.decode(cbor));
+  }
+
+  @Test
+  void testDecode_readsEveryFormatWhateverTheConfiguredOne() throws Exception {
+    Map<String, Object> rule = rule(50);
+    ContextDataCodec reader = new ContextDataCodec(ContextDataFormat.CBOR, false, 0);
+
+    assertEquals(rule, reader.decode(new ObjectMapper().writeValueAsString(rule)));
+    assertEquals(rule, reader.decode(new ContextDataCodec(ContextDataFormat.JSON, true, 0).encode(rule)));
+    assertEquals(rule, reader.decode(new ContextDataCodec(ContextDataFormat.SMILE, false, 0).encode(rule)));
+    assertNull(reader.decode(null));
+  }
+
+  @Test
+  void testDecode_corruptValue() {
+    ContextDataCodec codec = new ContextDataCodec(ContextDataFormat.JSON, true, 0);
+
+    assertThrows(IllegalArgumentException.class, () -> codec.decode(ContextDataCodec.LZ4_PREFIX + "AAAAZP8="));
+    assertThrows(IllegalArgumentException.class, () -> codec.decode(ContextDataCodec.LZ4_PREFIX + "not base64!"));
+    assertThrows(IllegalArgumentException.class, () -> codec.decode("smile:AAAA"));
+    assertThrows(IllegalArgumentException.class, () -> codec.decode("{\"a\":"));
+  }
+
+  @Test
+  void testDecode_rejectsUntrustedUncompressedLength() throws Exception {
+    ContextDataCodec codec = new ContextDataCodec(ContextDataFormat.JSON, true, 1024);
+    String stored = codec.encode(rule(50));
+    byte[] block = Base64.getDecoder().decode(stored.substring(ContextDataCodec.LZ4_PREFIX.length()));
+    int length = ByteBuffer.wrap(block).getInt();
+
+    for (int corrupt : new int[]{Integer.MAX_VALUE, -1, length + 1, length - 1}) {
+      ByteBuffer.wrap(block).putInt(corrupt);
+      String corrupted = ContextDataCodec.LZ4_PREFIX + Base64.getEncoder().encodeToString(block);
+      assertThrows(IllegalArgumentException.class, () -> codec.decode(corrupted), "length " + corrupt);
+    }
+  }
+
+  @Test
+  void testFromName() {
+    assertEquals(ContextDataFormat.SMILE, ContextDataFormat.fromName(" Smile ", ContextDataFormat.JSON));
+    assertEquals(ContextDataFormat.JSON, ContextDataFormat.fromName("avro", ContextDataFormat.JSON));
+  }
+}
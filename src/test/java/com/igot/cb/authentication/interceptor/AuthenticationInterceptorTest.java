@@ -0,0 +1,116 @@
+package com.igot.cb.authentication.interceptor;
+
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.igot.cb.access_settings.contoller.AccessSettingsController;
+import com.igot.cb.access_settings.service.AccessSettingsService;
+import com.igot.cb.authentication.model.TokenClaims;
+import com.igot.cb.authentication.util.AccessTokenValidator;
+import com.igot.cb.transactional.util.ApiResponse;
+import com.igot.cb.transactional.util.Constants;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+@ExtendWith(MockitoExtension.class)
+class AuthenticationInterceptorTest {
+
+    private static final String UPSERT_URL = "/accessSetttings/v1/upsert";
+
+    @Mock
+    private AccessTokenValidator accessTokenValidator;
+
+    @Mock
+    private AccessSettingsService accessSettingsService;
+
+    @InjectMocks
+    private AuthenticationInterceptor interceptor;
+
+    @InjectMocks
+    private AccessSettingsController controller;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .addMappedInterceptors(AuthenticationInterceptorConfig.AUTHENTICATED_PATHS, interceptor)
+                .build();
+    }
+
+    @Test
+    void testPreHandle_MissingTokenRejected() throws Exception {
+        mockMvc.perform(put(UPSERT_URL).contentType(MediaType.APPLICATION_JSON).content("{\"contentId\":\"do_1\"}"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.params.errMsg").value(Constants.USER_ID_DOESNT_EXIST));
+
+        verifyNoInteractions(accessTokenValidator);
+        verifyNoInteractions(accessSettingsService);
+    }
+
+    @Test
+    void testPreHandle_InvalidTokenRejectedBeforeBodyIsParsed() throws Exception {
+        when(accessTokenValidator.validateTokenClaims("bad-token")).thenReturn(null);
+
+        // The body is not valid JSON: parsing it would have produced a 400 instead of a 401.
+        mockMvc.perform(put(UPSERT_URL).header(Constants.X_AUTH_TOKEN, "bad-token")
+                        .contentType(MediaType.APPLICATION_JSON).content("{not json"))
+                .andExpect(status().isUnauthorized());
+
+        verify(accessSettingsService, never()).upsert(anyMap(), anyString());
+    }
+
+    @Test
+    void testPreHandle_ValidTokenStoresUserIdAndClaims() throws Exception {
+        TokenClaims claims = new TokenClaims(Long.MAX_VALUE, "iss", "f:federation:user-1", null);
+        when(accessTokenValidator.validateTokenClaims("good-token")).thenReturn(claims);
+        ApiResponse apiResponse = new ApiResponse();
+        apiResponse.setResponseCode(HttpStatus.OK);
+        when(accessSettingsService.upsert(anyMap(), eq("good-token"))).thenReturn(apiResponse);
+
+        mockMvc.perform(put(UPSERT_URL).header(Constants.X_AUTH_TOKEN, "good-token")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"contentId\":\"do_1\"}"))
+                .andExpect(status().isOk())
+                .andExpect(request().attribute(Constants.AUTHENTICATED_USER_ID, "user-1"))
+                .andExpect(request().attribute(Constants.AUTHENTICATED_TOKEN_CLAIMS, claims));
+    }
+
+    @Test
+    void testPreHandle_AsyncEndpointAuthenticatedOnce() throws Exception {
+        TokenClaims claims = new TokenClaims(Long.MAX_VALUE, "iss", "f:federation:user-1", null);
+        when(accessTokenValidator.validateTokenClaims("good-token")).thenReturn(claims);
+        ApiResponse apiResponse = new ApiResponse();
+        apiResponse.setResponseCode(HttpStatus.OK);
+        when(accessSettingsService.upsertAsync(anyMap(), eq("good-token")))
+                .thenReturn(CompletableFuture.completedFuture(apiResponse));
+
+        MvcResult result = mockMvc.perform(put("/accessSetttings/v2/upsert").header(Constants.X_AUTH_TOKEN, "good-token")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"contentId\":\"do_1\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+        verify(accessTokenValidator, times(1)).validateTokenClaims("good-token");
+    }
+}
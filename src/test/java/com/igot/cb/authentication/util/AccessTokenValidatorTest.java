@@ -1,31 +1,31 @@
 package com.igot.cb.authentication.util;
 import com.igot.cb.authentication.model.KeyData;
+import com.igot.cb.authentication.model.TokenClaims;
 
 import java.security.PublicKey;
 import java.util.*;
 
 import com.igot.cb.transactional.util.Constants;
 import com.igot.cb.transactional.util.PropertiesCache;
-import org.junit.Test;
-import org.junit.runner.RunWith;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.keycloak.common.util.Time;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
-import org.mockito.junit.MockitoJUnitRunner;
+import org.mockito.junit.jupiter.MockitoExtension;
 
-import static org.junit.Assert.*;
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertTrue;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 import org.mockito.MockedStatic;
 
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 
-@RunWith(MockitoJUnitRunner.class)
+@ExtendWith(MockitoExtension.class)
 public class AccessTokenValidatorTest {
 
     @InjectMocks
@@ -37,6 +37,9 @@ public class AccessTokenValidatorTest {
     @Mock
     private PropertiesCache propertiesCache;
 
+    private static final String REALM_URL = PropertiesCache.getInstance().getProperty(Constants.SSO_URL)
+            + "realms/" + PropertiesCache.getInstance().getProperty(Constants.SSO_REALM);
+
     /**
      * Tests the checkIss method with a blank issuer.
      * This test verifies that the method returns false when the issuer is blank,
@@ -105,7 +108,7 @@ public class AccessTokenValidatorTest {
         AccessTokenValidator validator = new AccessTokenValidator();
         String invalidToken = "header.body";
         Map<String, Object> result = validator.validateToken(invalidToken);
-        assertTrue("Result should be an empty map for invalid token", result.isEmpty());
+        assertTrue(result.isEmpty(), "Result should be an empty map for invalid token");
     }
 
     /**
@@ -179,7 +182,7 @@ public class AccessTokenValidatorTest {
     public void test_fetchUserIdFromAccessToken_whenAccessTokenIsNull() {
         AccessTokenValidator validator = new AccessTokenValidator();
         String result = validator.fetchUserIdFromAccessToken(null);
-        assertNull("Expected null result when accessToken is null", result);
+        assertNull(result, "Expected null result when accessToken is null");
     }
 
     /**
@@ -251,14 +254,14 @@ public class AccessTokenValidatorTest {
         String expiredToken = "header.body.signature";
         lenient().when(keyManager.getPublicKey(any())).thenReturn(new KeyData("keyId", mock(PublicKey.class)));
         Map<String, Object> result = accessTokenValidator.validateToken(expiredToken);
-        assertTrue("Result should be an empty map for an expired token", result.isEmpty());
+        assertTrue(result.isEmpty(), "Result should be an empty map for an expired token");
     }
 
     @Test
     public void test_verifyUserToken_invalidTokenOrIssuer() {
         AccessTokenValidator validator = Mockito.spy(new AccessTokenValidator());
         String invalidToken = "invalid.token.here";
-        Mockito.doReturn(Collections.emptyMap()).when(validator).validateToken(invalidToken);
+        Mockito.doReturn(null).when(validator).validateTokenClaims(invalidToken);
         lenient().doReturn(false).when(validator).checkIss(Mockito.anyString());
         String result = validator.verifyUserToken(invalidToken);
         assertEquals(Constants.UNAUTHORIZED, result);
@@ -307,11 +310,8 @@ public class AccessTokenValidatorTest {
     public void test_verifyUserToken_validTokenWithValidUserId() {
         AccessTokenValidator validator = Mockito.spy(new AccessTokenValidator());
         String validToken = "valid.token.here";
-        Map<String, Object> mockPayload = new HashMap<>();
-        mockPayload.put("iss", "valid_issuer");
-        mockPayload.put(Constants.SUB, "prefix:valid_user_id");
-        Mockito.doReturn(mockPayload).when(validator).validateToken(validToken);
-        Mockito.doReturn(true).when(validator).checkIss(Mockito.anyString());
+        TokenClaims mockClaims = new TokenClaims(Time.currentTime() + 3600L, "valid_issuer", "prefix:valid_user_id", null);
+        Mockito.doReturn(mockClaims).when(validator).validateTokenClaims(validToken);
         String result = validator.verifyUserToken(validToken);
         assertEquals("valid_user_id", result);
     }
@@ -328,74 +328,66 @@ public class AccessTokenValidatorTest {
     public void test_verifyUserToken_withValidPayloadAndIssuerButBlankUserId() {
         AccessTokenValidator spyValidator = Mockito.spy(new AccessTokenValidator());
         String token = "validToken";
-        Map<String, Object> payload = new HashMap<>();
-        payload.put("iss", "validIssuer");
-        payload.put(Constants.SUB, "");
-        doReturn(payload).when(spyValidator).validateToken(token);
-        doReturn(true).when(spyValidator).checkIss("validIssuer");
+        TokenClaims claims = new TokenClaims(Time.currentTime() + 3600L, "validIssuer", "", null);
+        doReturn(claims).when(spyValidator).validateTokenClaims(token);
         String result = spyValidator.verifyUserToken(token);
         assertEquals("", result);
     }
 
     @Test
     public void test_processToken_validSignatureNotExpired() throws Exception {
-        AccessTokenValidator spyValidator = spy(accessTokenValidator);
-        String token = "header.payload.signature";
-        String payload = "header.payload";
-        String signature = "signature";
-        String body = "payload";
-        Map<String, Object> headerData = new HashMap<>();
-        headerData.put("kid", "test-key-id");
+        String token = buildToken(validBody());
+        JwtToken jwtToken = JwtToken.parse(token);
         KeyData mockKeyData = mock(KeyData.class);
-        PublicKey mockPublicKey = mock(PublicKey.class);
         when(keyManager.getPublicKey("test-key-id")).thenReturn(mockKeyData);
-        when(mockKeyData.getPublicKey()).thenReturn(mockPublicKey);
-        byte[] mockSignatureBytes = "signature-bytes".getBytes();
-        byte[] mockBodyBytes = ("{\"exp\":" + (Time.currentTime() + 3600) + ",\"sub\":\"user123\"}").getBytes();
-        doReturn(mockSignatureBytes).when(spyValidator).decodeFromBase64(signature);
-        doReturn(mockBodyBytes).when(spyValidator).decodeFromBase64(body);
         try (MockedStatic<CryptoUtil> mockedCryptoUtil = Mockito.mockStatic(CryptoUtil.class)) {
             mockedCryptoUtil.when(() -> CryptoUtil.verifyRSASign(
-                    eq(payload),
-                    eq(mockSignatureBytes),
-                    eq(mockPublicKey),
+                    eq(jwtToken.bytes()),
+                    eq(0),
+                    eq(jwtToken.signedLength()),
+                    eq("signature-bytes".getBytes()),
+                    eq(mockKeyData),
                     eq(Constants.SHA_256_WITH_RSA)
             )).thenReturn(true);
-            Map<String, Object> result = spyValidator.processToken(token, headerData, payload, signature, body);
+            TokenClaims result = accessTokenValidator.processToken(token, "test-key-id", jwtToken);
             assertNotNull(result);
-            assertFalse(result.isEmpty());
-            assertEquals("user123", result.get("sub"));
+            assertEquals("user123", result.getSub());
+            assertEquals("user123", result.getAllClaims().get("sub"));
         }
     }
 
+    /**
+     * Test case for processToken with an expired token.
+     * The expiry is checked on the unverified body, so no key lookup or RSA verification happens.
+     */
     @Test
-    public void test_processToken_validSignatureButExpired() throws Exception {
-        AccessTokenValidator spyValidator = spy(accessTokenValidator);
-        String token = "header.payload.signature";
-        String payload = "header.payload";
-        String signature = "signature";
-        String body = "payload";
-        Map<String, Object> headerData = new HashMap<>();
-        headerData.put("kid", "test-key-id");
-        KeyData mockKeyData = mock(KeyData.class);
-        PublicKey mockPublicKey = mock(PublicKey.class);
-        when(keyManager.getPublicKey("test-key-id")).thenReturn(mockKeyData);
-        when(mockKeyData.getPublicKey()).thenReturn(mockPublicKey);
-        byte[] mockSignatureBytes = "signature-bytes".getBytes();
-        byte[] mockBodyBytes = ("{\"exp\":" + (Time.currentTime() - 3600) + "}").getBytes();
-        doReturn(mockSignatureBytes).when(spyValidator).decodeFromBase64(signature);
-        doReturn(mockBodyBytes).when(spyValidator).decodeFromBase64(body);
+    public void test_processToken_expiredRejectedBeforeSignatureCheck() throws Exception {
+        String token = buildToken("{\"exp\":" + (Time.currentTime() - 3600) + ",\"iss\":\"" + REALM_URL + "\"}");
+        JwtToken jwtToken = JwtToken.parse(token);
         try (MockedStatic<CryptoUtil> mockedCryptoUtil = Mockito.mockStatic(CryptoUtil.class)) {
-            mockedCryptoUtil.when(() -> CryptoUtil.verifyRSASign(
-                    eq(payload),
-                    eq(mockSignatureBytes),
-                    eq(mockPublicKey),
-                    eq(Constants.SHA_256_WITH_RSA)
-            )).thenReturn(true);
-            Map<String, Object> result = spyValidator.processToken(token, headerData, payload, signature, body);
-            assertNotNull(result);
-            assertTrue(result.isEmpty());
+            TokenClaims result = accessTokenValidator.processToken(token, "test-key-id", jwtToken);
+            assertNull(result);
+            verifyNoInteractions(keyManager);
+            mockedCryptoUtil.verifyNoInteractions();
+        }
+        assertEquals(1, accessTokenValidator.getRejectionCount(AccessTokenValidator.RejectionReason.EXPIRED));
+    }
+
+    /**
+     * Test case for processToken with a token from another issuer.
+     * The issuer is checked on the unverified body, so no key lookup or RSA verification happens.
+     */
+    @Test
+    public void test_processToken_wrongIssuerRejectedBeforeSignatureCheck() throws Exception {
+        String token = buildToken("{\"exp\":" + (Time.currentTime() + 3600) + ",\"iss\":\"https://other/realms/x\"}");
+        JwtToken jwtToken = JwtToken.parse(token);
+        try (MockedStatic<CryptoUtil> mockedCryptoUtil = Mockito.mockStatic(CryptoUtil.class)) {
+            TokenClaims result = accessTokenValidator.processToken(token, "test-key-id", jwtToken);
+            assertNull(result);
+            verifyNoInteractions(keyManager);
+            mockedCryptoUtil.verifyNoInteractions();
         }
+        assertEquals(1, accessTokenValidator.getRejectionCount(AccessTokenValidator.RejectionReason.ISSUER));
     }
 
     /**
@@ -403,30 +395,148 @@ public class AccessTokenValidatorTest {
      */
     @Test
     public void test_processToken_invalidSignature() throws Exception {
-        AccessTokenValidator spyValidator = spy(accessTokenValidator);
-        String token = "header.payload.signature";
-        String payload = "header.payload";
-        String signature = "signature";
-        String body = "payload";
-        Map<String, Object> headerData = new HashMap<>();
-        headerData.put("kid", "test-key-id");
+        String token = buildToken(validBody());
+        JwtToken jwtToken = JwtToken.parse(token);
         KeyData mockKeyData = mock(KeyData.class);
-        PublicKey mockPublicKey = mock(PublicKey.class);
         when(keyManager.getPublicKey("test-key-id")).thenReturn(mockKeyData);
-        when(mockKeyData.getPublicKey()).thenReturn(mockPublicKey);
-        byte[] mockSignatureBytes = "invalid-signature-bytes".getBytes();
-        doReturn(mockSignatureBytes).when(spyValidator).decodeFromBase64(signature);
         try (MockedStatic<CryptoUtil> mockedCryptoUtil = Mockito.mockStatic(CryptoUtil.class)) {
             mockedCryptoUtil.when(() -> CryptoUtil.verifyRSASign(
-                    eq(payload),
-                    eq(mockSignatureBytes),
-                    eq(mockPublicKey),
+                    any(byte[].class),
+                    anyInt(),
+                    anyInt(),
+                    any(byte[].class),
+                    eq(mockKeyData),
                     eq(Constants.SHA_256_WITH_RSA)
             )).thenReturn(false);
-            Map<String, Object> result = spyValidator.processToken(token, headerData, payload, signature, body);
+            TokenClaims result = accessTokenValidator.processToken(token, "test-key-id", jwtToken);
             assertNull(result);
             verify(keyManager).getPublicKey("test-key-id");
-            verify(spyValidator, times(1)).decodeFromBase64(anyString());
         }
+        assertEquals(1, accessTokenValidator.getRejectionCount(AccessTokenValidator.RejectionReason.SIGNATURE));
+    }
+
+    /**
+     * Test case for processToken when no public key is registered for the token's kid.
+     * The token must be rejected without attempting signature verification.
+     */
+    @Test
+    public void test_processToken_unknownKeyId() throws Exception {
+        JwtToken jwtToken = JwtToken.parse(buildToken(validBody()));
+        when(keyManager.getPublicKey("unknown-key-id")).thenReturn(null);
+        TokenClaims result = accessTokenValidator.processToken("token", "unknown-key-id", jwtToken);
+        assertNull(result);
+        assertEquals(1, accessTokenValidator.getRejectionCount(AccessTokenValidator.RejectionReason.UNKNOWN_KEY));
+    }
+
+    /**
+     * Test case for validateToken when a rejected token is presented again.
+     * The retry must be answered from the rejected token cache without repeating the
+     * key lookup or the signature verification.
+     */
+    @Test
+    public void test_validateToken_retriedRejectedTokenServedFromNegativeCache() throws Exception {
+        String token = buildToken(validBody());
+        KeyData mockKeyData = mock(KeyData.class);
+        when(keyManager.getPublicKey("test-key-id")).thenReturn(mockKeyData);
+        try (MockedStatic<CryptoUtil> mockedCryptoUtil = Mockito.mockStatic(CryptoUtil.class)) {
+            mockedCryptoUtil.when(() -> CryptoUtil.verifyRSASign(
+                    any(byte[].class),
+                    anyInt(),
+                    anyInt(),
+                    any(byte[].class),
+                    eq(mockKeyData),
+                    eq(Constants.SHA_256_WITH_RSA)
+            )).thenReturn(false);
+
+            assertTrue(accessTokenValidator.validateToken(token).isEmpty());
+            assertTrue(accessTokenValidator.validateToken(token).isEmpty());
+
+            verify(keyManager, times(1)).getPublicKey("test-key-id");
+            mockedCryptoUtil.verify(() -> CryptoUtil.verifyRSASign(
+                    any(byte[].class), anyInt(), anyInt(), any(byte[].class), eq(mockKeyData), anyString()), times(1));
+        }
+        assertEquals(1, accessTokenValidator.getRejectionCount(AccessTokenValidator.RejectionReason.SIGNATURE));
+        assertEquals(1, accessTokenValidator.getRejectedTokenCache().getHitCount());
+    }
+
+    /**
+     * Test case for validateToken when a token is signed with a key that is only published after
+     * the first attempt. The rejection must not be cached, so the retry of the same token passes
+     * once the key is known.
+     */
+    @Test
+    public void test_validateToken_retryAfterKeyRotationAccepted() throws Exception {
+        String token = buildToken(validBody());
+        KeyData rotatedKeyData = mock(KeyData.class);
+        when(keyManager.getPublicKey("test-key-id")).thenReturn(null, rotatedKeyData);
+        try (MockedStatic<CryptoUtil> mockedCryptoUtil = Mockito.mockStatic(CryptoUtil.class)) {
+            mockedCryptoUtil.when(() -> CryptoUtil.verifyRSASign(
+                    any(byte[].class),
+                    anyInt(),
+                    anyInt(),
+                    any(byte[].class),
+                    eq(rotatedKeyData),
+                    eq(Constants.SHA_256_WITH_RSA)
+            )).thenReturn(true);
+
+            assertTrue(accessTokenValidator.validateToken(token).isEmpty());
+            Map<String, Object> retried = accessTokenValidator.validateToken(token);
+
+            assertEquals("user123", retried.get(Constants.SUB));
+            verify(keyManager, times(2)).getPublicKey("test-key-id");
+        }
+        assertEquals(1, accessTokenValidator.getRejectionCount(AccessTokenValidator.RejectionReason.UNKNOWN_KEY));
+        assertEquals(0, accessTokenValidator.getRejectedTokenCache().getHitCount());
+    }
+
+    /**
+     * Test case for validateToken with tokens that cannot be parsed; they are counted as malformed.
+     */
+    @Test
+    public void test_validateToken_malformedTokensCounted() {
+        accessTokenValidator.validateToken("");
+        accessTokenValidator.validateToken("only.two");
+
+        assertEquals(2, accessTokenValidator.getRejectionCount(AccessTokenValidator.RejectionReason.MALFORMED));
+    }
+
+    /**
+     * Builds a body that passes the expiry and issuer checks.
+     */
+    private static String validBody() {
+        return "{\"exp\":" + (Time.currentTime() + 3600) + ",\"iss\":\"" + REALM_URL + "\",\"sub\":\"user123\"}";
+    }
+
+    /**
+     * Builds an unsigned token with a fixed header and signature around the given body JSON.
+     */
+    private static String buildToken(String bodyJson) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString("{\"kid\":\"test-key-id\"}".getBytes())
+                + "." + encoder.encodeToString(bodyJson.getBytes())
+                + "." + encoder.encodeToString("signature-bytes".getBytes());
+    }
+
+    /**
+     * Test case for validateToken when the same token is presented twice.
+     * The second call must be served from the verified token cache without
+     * running the signature verification again.
+     */
+    @Test
+    public void test_validateToken_repeatTokenServedFromCache() throws Exception {
+        AccessTokenValidator spyValidator = spy(new AccessTokenValidator());
+        String header = Base64.getUrlEncoder().withoutPadding().encodeToString("{\"kid\":\"test-key-id\"}".getBytes());
+        String token = header + ".body.signature";
+        TokenClaims claims = new TokenClaims(Time.currentTime() + 3600L, null, "user123",
+                "{\"sub\":\"user123\"}".getBytes());
+        doReturn(claims).when(spyValidator).processToken(eq(token), eq("test-key-id"), any(JwtToken.class));
+
+        Map<String, Object> first = spyValidator.validateToken(token);
+        Map<String, Object> second = spyValidator.validateToken(token);
+
+        assertEquals("user123", first.get(Constants.SUB));
+        assertEquals(first, second);
+        verify(spyValidator, times(1)).processToken(eq(token), eq("test-key-id"), any(JwtToken.class));
+        assertEquals(1, spyValidator.getVerifiedTokenCache().getHitCount());
     }
 }
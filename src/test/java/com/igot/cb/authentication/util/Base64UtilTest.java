@@ -1,10 +1,15 @@
 package com.igot.cb.authentication.util;
 
-import static org.junit.Assert.assertArrayEquals;
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
-import org.junit.Test;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
 
 public class Base64UtilTest {
 
@@ -12,19 +17,20 @@ public class Base64UtilTest {
      * Tests that the decode method throws an IllegalArgumentException when given input with incorrect padding.
      * This tests the explicitly handled edge case in the method's implementation where incorrect padding is detected.
      */
-    @Test(expected = IllegalArgumentException.class)
+    @Test
     public void testDecodeWithIncorrectPadding() {
         String inputWithIncorrectPadding = "SGVsbG8gV29ybGQ====="; // Extra padding
-        Base64Util.decode(inputWithIncorrectPadding, Base64Util.DEFAULT);
+        assertThrows(IllegalArgumentException.class,
+                () -> Base64Util.decode(inputWithIncorrectPadding, Base64Util.DEFAULT));
     }
 
     /**
      * Tests that decode throws IllegalArgumentException when input contains incorrect padding.
      */
-    @Test(expected = IllegalArgumentException.class)
+    @Test
     public void testDecodeWithIncorrectPadding_2() {
         byte[] input = "Invalid==Padding".getBytes();
-        Base64Util.decode(input, Base64Util.DEFAULT);
+        assertThrows(IllegalArgumentException.class, () -> Base64Util.decode(input, Base64Util.DEFAULT));
     }
 
     /**
@@ -170,4 +176,86 @@ public class Base64UtilTest {
         assertArrayEquals(expected, result);
     }
 
+
+    /**
+     * Differential fuzz test: for random data encoded with every flag combination, and for
+     * randomly corrupted encodings, decode and the buffer variant must give exactly the
+     * result of the state machine decoder, including rejecting the same inputs.
+     */
+    @Test
+    public void test_decode_matchesStateMachine_fuzz() {
+        Random random = new Random(20240611L);
+        byte[] noise = " \n\r\t=-_+/*.".getBytes(StandardCharsets.US_ASCII);
+        for (int i = 0; i < 20000; i++) {
+            byte[] data = new byte[random.nextInt(80)];
+            random.nextBytes(data);
+            int encodeFlags = random.nextInt(16);
+            boolean mutated = random.nextInt(3) == 0;
+            byte[] encoded = mutated ? mutate(Base64Util.encode(data, encodeFlags), random, noise)
+                    : Base64Util.encode(data, encodeFlags);
+            int decodeFlags = random.nextInt(4) == 0 ? random.nextInt(16) : encodeFlags;
+            int offset = random.nextInt(4);
+            byte[] input = new byte[offset + encoded.length + random.nextInt(4)];
+            Arrays.fill(input, (byte) '*');
+            System.arraycopy(encoded, 0, input, offset, encoded.length);
+
+            byte[] expected = decodeOrNull(() -> Base64Util.decodeStateMachine(input, offset, encoded.length, decodeFlags));
+            byte[] actual = decodeOrNull(() -> Base64Util.decode(input, offset, encoded.length, decodeFlags));
+            byte[] buffered = decodeOrNull(() -> {
+                byte[] buffer = new byte[Base64Util.maxDecodedLength(encoded.length) + 2];
+                int written = Base64Util.decode(input, offset, encoded.length, decodeFlags, buffer, 2);
+                return Arrays.copyOfRange(buffer, 2, 2 + written);
+            });
+            String message = "flags " + encodeFlags + "/" + decodeFlags + " input " + new String(encoded, StandardCharsets.US_ASCII);
+            assertArrayEquals(expected, actual, message);
+            assertArrayEquals(expected, buffered, message);
+            if (!mutated && ((encodeFlags ^ decodeFlags) & Base64Util.URL_SAFE) == 0) {
+                assertArrayEquals(data, actual, message);
+            }
+        }
+    }
+
+    /**
+     * Tests that the buffer variant rejects a buffer that is too small for the input.
+     */
+    @Test
+    public void test_decodeIntoBuffer_bufferTooSmall() {
+        byte[] input = "SGVsbG8gV29ybGQ=".getBytes(StandardCharsets.US_ASCII);
+        assertThrows(IllegalArgumentException.class,
+                () -> Base64Util.decode(input, 0, input.length, Base64Util.DEFAULT, new byte[4], 0));
+    }
+
+    private static byte[] mutate(byte[] encoded, Random random, byte[] noise) {
+        byte[] result = Arrays.copyOf(encoded, encoded.length + 1);
+        switch (random.nextInt(4)) {
+            case 0:
+                // Insert a noise byte at a random position
+                int at = random.nextInt(result.length);
+                System.arraycopy(result, at, result, at + 1, result.length - at - 1);
+                result[at] = noise[random.nextInt(noise.length)];
+                return result;
+            case 1:
+                // Overwrite a random byte
+                if (encoded.length > 0) {
+                    encoded = encoded.clone();
+                    encoded[random.nextInt(encoded.length)] = noise[random.nextInt(noise.length)];
+                }
+                return encoded;
+            case 2:
+                // Truncate
+                return Arrays.copyOf(encoded, random.nextInt(encoded.length + 1));
+            default:
+                // Append padding
+                result[encoded.length] = '=';
+                return result;
+        }
+    }
+
+    private static byte[] decodeOrNull(Supplier<byte[]> decode) {
+        try {
+            return decode.get();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
 }
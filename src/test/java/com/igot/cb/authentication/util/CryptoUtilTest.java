@@ -1,13 +1,16 @@
 package com.igot.cb.authentication.util;
 
-import static org.junit.Assert.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.igot.cb.authentication.model.KeyData;
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
 import java.security.PublicKey;
 import java.security.Signature;
-import org.junit.Test;
+import org.junit.jupiter.api.Test;
 
 public class CryptoUtilTest {
 
@@ -23,7 +26,7 @@ public class CryptoUtilTest {
         String invalidAlgorithm = "InvalidAlgorithm";
 
         boolean result = CryptoUtil.verifyRSASign(payLoad, signature, key, invalidAlgorithm);
-        assertFalse("verifyRSASign should return false for an invalid algorithm", result);
+        assertFalse(result, "verifyRSASign should return false for an invalid algorithm");
     }
 
     /**
@@ -38,7 +41,7 @@ public class CryptoUtilTest {
         String algorithm = "RSA";
 
         boolean result = CryptoUtil.verifyRSASign(payLoad, signature, invalidKey, algorithm);
-        assertFalse("verifyRSASign should return false for an invalid public key", result);
+        assertFalse(result, "verifyRSASign should return false for an invalid public key");
     }
 
     /**
@@ -66,4 +69,75 @@ public class CryptoUtilTest {
         assertTrue(result, "Signature verification should be successful");
     }
 
+    /**
+     * Tests the verifyRSASign overload that verifies a region of a byte array.
+     * Only the bytes inside the region are signed, so the verification must
+     * succeed for that region and fail once the region is widened.
+     */
+    @Test
+    public void test_verifyRSASign_byteRegion() throws Exception {
+        KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
+        keyGen.initialize(2048);
+        KeyPair keyPair = keyGen.generateKeyPair();
+        String algorithm = "SHA256withRSA";
+        byte[] data = "header.body.signature".getBytes("US-ASCII");
+        int signedLength = "header.body".length();
+
+        Signature signature = Signature.getInstance(algorithm);
+        signature.initSign(keyPair.getPrivate());
+        signature.update(data, 0, signedLength);
+        byte[] signatureBytes = signature.sign();
+
+        assertTrue(CryptoUtil.verifyRSASign(data, 0, signedLength, signatureBytes, keyPair.getPublic(), algorithm),
+                "Signature over the signed region should verify");
+        assertFalse(CryptoUtil.verifyRSASign(data, 0, data.length, signatureBytes, keyPair.getPublic(), algorithm),
+                "Signature should not verify over a wider region");
+    }
+
+    /**
+     * Tests the verifyRSASign overload that verifies with the verifiers pooled on a KeyData.
+     * Repeated verifications with the same key must keep returning the right result.
+     */
+    @Test
+    public void test_verifyRSASign_pooledKeyData() throws Exception {
+        KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
+        keyGen.initialize(2048);
+        KeyPair keyPair = keyGen.generateKeyPair();
+        String algorithm = "SHA256withRSA";
+        KeyData keyData = new KeyData("kid", keyPair.getPublic());
+        byte[] data = "header.body".getBytes("US-ASCII");
+
+        Signature signature = Signature.getInstance(algorithm);
+        signature.initSign(keyPair.getPrivate());
+        signature.update(data);
+        byte[] signatureBytes = signature.sign();
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(CryptoUtil.verifyRSASign(data, 0, data.length, signatureBytes, keyData, algorithm),
+                    "Pooled verification should succeed");
+        }
+        assertFalse(CryptoUtil.verifyRSASign(data, 0, data.length - 1, signatureBytes, keyData, algorithm),
+                "Pooled verification should fail for a truncated region");
+    }
+
+    /**
+     * Tests that verifier pools are kept per KeyData instance and algorithm, and rebuilt once
+     * the public key held by the KeyData is replaced.
+     */
+    @Test
+    public void test_verifierPool_perKeyDataAndAlgorithm() throws Exception {
+        KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
+        keyGen.initialize(2048);
+        KeyData keyData = new KeyData("kid", keyGen.generateKeyPair().getPublic());
+
+        SignatureVerifierPool pool = CryptoUtil.verifierPool(keyData, "SHA256withRSA");
+
+        assertSame(pool, CryptoUtil.verifierPool(keyData, "SHA256withRSA"));
+        assertNotSame(pool, CryptoUtil.verifierPool(keyData, "SHA512withRSA"));
+        assertSame(pool, CryptoUtil.verifierPool(keyData, "SHA256withRSA"));
+        assertNotSame(pool, CryptoUtil.verifierPool(new KeyData("kid", keyData.getPublicKey()), "SHA256withRSA"));
+        keyData.setPublicKey(keyGen.generateKeyPair().getPublic());
+        assertNotSame(pool, CryptoUtil.verifierPool(keyData, "SHA256withRSA"));
+    }
+
 }
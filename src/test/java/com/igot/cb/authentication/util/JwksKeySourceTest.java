@@ -0,0 +1,147 @@
+package com.igot.cb.authentication.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.igot.cb.authentication.model.KeyData;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+class JwksKeySourceTest {
+
+    private static RSAPublicKey firstKey;
+    private static RSAPublicKey secondKey;
+
+    private StubJwksServer server;
+    private JwksKeySource keySource;
+
+    @BeforeAll
+    static void generateKeys() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        firstKey = (RSAPublicKey) generator.generateKeyPair().getPublic();
+        secondKey = (RSAPublicKey) generator.generateKeyPair().getPublic();
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new StubJwksServer();
+        server.setKeys(Map.of("key-1", firstKey));
+        keySource = new JwksKeySource(new RestTemplate(), server.url(), 60000, 0, 5000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        keySource.shutdown();
+        server.close();
+    }
+
+    @Test
+    void testGetKey_ColdLookupWaitsForFirstFetch() {
+        KeyData keyData = keySource.getKey("key-1");
+
+        assertNotNull(keyData);
+        assertEquals("key-1", keyData.getKeyId());
+        assertEquals(firstKey, keyData.getPublicKey());
+    }
+
+    @Test
+    void testGetKey_ConcurrentColdLookupsShareOneFetch() throws Exception {
+        server.setDelayMillis(300);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<KeyData>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> keySource.getKey("key-1")));
+            }
+            for (Future<KeyData> result : results) {
+                KeyData keyData = result.get();
+                if (keyData != null) {
+                    assertEquals(firstKey, keyData.getPublicKey());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    void testGetKey_WarmMissDoesNotBlock() throws Exception {
+        keySource.refreshAsync().get();
+        server.setKeys(Map.of("key-1", firstKey, "key-2", secondKey));
+        server.setDelayMillis(1000);
+
+        long start = System.nanoTime();
+        assertNull(keySource.getKey("key-2"));
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (keySource.getKey("key-2") == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(secondKey, keySource.getKey("key-2").getPublicKey());
+    }
+
+    @Test
+    void testRefresh_FailureKeepsCachedKeys() throws Exception {
+        keySource.refreshAsync().get();
+        server.setStatus(500);
+
+        assertThrows(ExecutionException.class, () -> keySource.refreshAsync().get());
+
+        assertEquals(firstKey, keySource.getKey("key-1").getPublicKey());
+    }
+
+    @Test
+    void testRefresh_SkipsInvalidKeyAndLoadsValidOnes() throws Exception {
+        keySource.refreshAsync().get();
+        server.setBody("{\"keys\":[" + StubJwksServer.jwk("key-2", secondKey) + ","
+                + "{\"kid\":\"bad-key\",\"kty\":\"RSA\",\"use\":\"sig\",\"n\":\"%%%%\",\"e\":\"AQAB\"}]}");
+
+        keySource.refreshAsync().get();
+
+        assertEquals(secondKey, keySource.getKey("key-2").getPublicKey());
+        assertNull(keySource.getKey("key-1"));
+    }
+
+    @Test
+    void testRefresh_KeepsKeyDataForUnchangedKeys() throws Exception {
+        keySource.refreshAsync().get();
+        KeyData before = keySource.getKey("key-1");
+        server.setKeys(Map.of("key-1", firstKey, "key-2", secondKey));
+
+        keySource.refreshAsync().get();
+
+        assertSame(before, keySource.getKey("key-1"));
+        assertEquals(secondKey, keySource.getKey("key-2").getPublicKey());
+    }
+
+    @Test
+    void testRefresh_DropsRotatedOutKeys() throws Exception {
+        keySource.refreshAsync().get();
+        server.setKeys(Map.of("key-2", secondKey));
+
+        keySource.refreshAsync().get();
+
+        assertNotNull(keySource.getKey("key-2"));
+        assertNull(keySource.getKey("key-1"));
+    }
+}
@@ -0,0 +1,46 @@
+package com.igot.cb.authentication.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.junit.jupiter.api.Test;
+
+class JwtTokenTest {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    @Test
+    void testParse_DecodesSegments() {
+        String header = ENCODER.encodeToString("{\"kid\":\"k1\"}".getBytes(StandardCharsets.UTF_8));
+        String body = ENCODER.encodeToString("{\"sub\":\"f:abc:user-1\",\"name\":\"अ\"}".getBytes(StandardCharsets.UTF_8));
+        byte[] signatureBytes = {(byte) 0xfb, (byte) 0xff, 0x01, 0x02};
+        String signature = ENCODER.encodeToString(signatureBytes);
+        String token = header + "." + body + "." + signature;
+
+        JwtToken jwtToken = JwtToken.parse(token);
+
+        assertEquals("{\"kid\":\"k1\"}", new String(jwtToken.decodeHeader(), StandardCharsets.UTF_8));
+        assertEquals("{\"sub\":\"f:abc:user-1\",\"name\":\"अ\"}", new String(jwtToken.decodeBody(), StandardCharsets.UTF_8));
+        assertArrayEquals(signatureBytes, jwtToken.decodeSignature());
+        assertEquals(header + "." + body,
+                new String(jwtToken.bytes(), 0, jwtToken.signedLength(), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void testParse_IgnoresSegmentsAfterSignature() {
+        String signature = ENCODER.encodeToString(new byte[]{1, 2, 3});
+        JwtToken jwtToken = JwtToken.parse("e30.e30." + signature + ".extra");
+
+        assertArrayEquals(new byte[]{1, 2, 3}, jwtToken.decodeSignature());
+    }
+
+    @Test
+    void testParse_RejectsMissingSegments() {
+        assertThrows(IllegalArgumentException.class, () -> JwtToken.parse("header.body"));
+        assertThrows(IllegalArgumentException.class, () -> JwtToken.parse("header.body."));
+        assertThrows(IllegalArgumentException.class, () -> JwtToken.parse("header"));
+    }
+}
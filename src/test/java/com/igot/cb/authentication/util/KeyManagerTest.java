@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -22,16 +23,21 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
 import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
 import java.security.PublicKey;
 import java.security.spec.X509EncodedKeySpec;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
@@ -47,6 +53,9 @@ class KeyManagerTest {
     @Mock
     private PropertiesCache propertiesCache;
 
+    @Mock
+    private JwksKeySource jwksKeySource;
+
     private static final String TEST_PUBLIC_KEY = 
             "-----BEGIN PUBLIC KEY-----\n" +
             "MIIBIjANBgkqhkiG9w0BAQEFAAOCAQ8AMIIBCgKCAQEAqt2oHJWMKEwO1KnMQbqx\n" +
@@ -61,24 +70,21 @@ class KeyManagerTest {
     private static final String TEST_KEY_ID = "test_key.pem";
     private static final String TEST_BASE_PATH = "/tmp/test_keys";
     
-    // Reference to the original keyMap
-    private Map<String, KeyData> originalKeyMap;
+    @TempDir
+    Path keyDir;
 
     @BeforeEach
     void setUp() throws Exception {
-        // Save the original keyMap
-        Field keyMapField = KeyManager.class.getDeclaredField("keyMap");
-        keyMapField.setAccessible(true);
-        originalKeyMap = (Map<String, KeyData>) keyMapField.get(null);
-        
-        // Clear the keyMap for testing
-        originalKeyMap.clear();
-        
         // Mock the PropertiesCache
         lenient().when(propertiesCache.getProperty(Constants.ACCESS_TOKEN_PUBLICKEY_BASEPATH))
             .thenReturn(TEST_BASE_PATH);
     }
 
+    @AfterEach
+    void tearDown() {
+        keyManager.shutdown();
+    }
+
     @Test
     void testInit_SuccessfulKeyLoading() throws Exception {
         // Create a mock Path for the test key file
@@ -192,13 +198,15 @@ class KeyManagerTest {
     }
 
     @Test
-    void testGetPublicKey() {
+    void testGetPublicKey() throws Exception {
         // Create a mock KeyData
         PublicKey mockPublicKey = mock(PublicKey.class);
         KeyData mockKeyData = new KeyData(TEST_KEY_ID, mockPublicKey);
         
-        // Add the mock KeyData to the keyMap
-        originalKeyMap.put(TEST_KEY_ID, mockKeyData);
+        // Publish a snapshot holding the mock KeyData
+        Field keyMapField = KeyManager.class.getDeclaredField("keyMap");
+        keyMapField.setAccessible(true);
+        keyMapField.set(keyManager, Map.of(TEST_KEY_ID, mockKeyData));
         
         // Call getPublicKey and verify the result
         KeyData result = keyManager.getPublicKey(TEST_KEY_ID);
@@ -260,4 +268,129 @@ class KeyManagerTest {
             assertEquals("Test exception", exception.getMessage());
         }
     }
+
+    @Test
+    void testInit_LoadsKeysFromDirectory() throws Exception {
+        PublicKey publicKey = writeKey(TEST_KEY_ID);
+
+        keyManager.init(keyDir.toString());
+
+        KeyData keyData = keyManager.getPublicKey(TEST_KEY_ID);
+        assertNotNull(keyData);
+        assertEquals(TEST_KEY_ID, keyData.getKeyId());
+        assertEquals(publicKey, keyData.getPublicKey());
+    }
+
+    @Test
+    void testGetPublicKey_UnknownKeyIdDoesNotReloadWhileWatching() throws Exception {
+        keyManager.init(keyDir.toString());
+        writeKey("late.pem");
+
+        // The watcher picks the file up after its debounce; the lookup itself does not read the directory.
+        assertNull(keyManager.getPublicKey("late.pem"));
+    }
+
+    @Test
+    void testGetPublicKey_UnknownKeyIdReloadsOnceWhileWatcherIsDown() throws Exception {
+        keyManager.init(keyDir.toString());
+        keyManager.shutdown();
+        PublicKey late = writeKey("late.pem");
+
+        assertEquals(late, keyManager.getPublicKey("late.pem").getPublicKey());
+
+        // A second miss within accesstoken.publickey.reload.min.interval.ms does not reload again.
+        writeKey("later.pem");
+        assertNull(keyManager.getPublicKey("later.pem"));
+    }
+
+    @Test
+    void testReload_KeepsUnchangedKeysAndDropsDeletedOnes() throws Exception {
+        writeKey(TEST_KEY_ID);
+        writeKey("old.pem");
+        keyManager.init(keyDir.toString());
+        keyManager.shutdown();
+        KeyData unchanged = keyManager.getPublicKey(TEST_KEY_ID);
+
+        Files.delete(keyDir.resolve("old.pem"));
+        keyManager.reload();
+
+        assertSame(unchanged, keyManager.getPublicKey(TEST_KEY_ID));
+        assertNull(keyManager.getPublicKey("old.pem"));
+    }
+
+    @Test
+    void testReload_KeepsPreviousKeyWhenFileIsUnreadable() throws Exception {
+        PublicKey publicKey = writeKey(TEST_KEY_ID);
+        keyManager.init(keyDir.toString());
+        keyManager.shutdown();
+
+        Path keyFile = keyDir.resolve(TEST_KEY_ID);
+        Files.writeString(keyFile, "-----BEGIN PUBLIC KEY-----\nnot-a-key\n-----END PUBLIC KEY-----");
+        Files.setLastModifiedTime(keyFile, FileTime.fromMillis(System.currentTimeMillis() + 1000));
+        keyManager.reload();
+
+        assertEquals(publicKey, keyManager.getPublicKey(TEST_KEY_ID).getPublicKey());
+    }
+
+    @Test
+    void testWatcher_ReloadsChangedKey() throws Exception {
+        writeKey(TEST_KEY_ID);
+        keyManager.init(keyDir.toString());
+
+        PublicKey rotated = writeKey(TEST_KEY_ID);
+        Files.setLastModifiedTime(keyDir.resolve(TEST_KEY_ID), FileTime.fromMillis(System.currentTimeMillis() + 1000));
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!rotated.equals(keyManager.getPublicKey(TEST_KEY_ID).getPublicKey())
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(rotated, keyManager.getPublicKey(TEST_KEY_ID).getPublicKey());
+    }
+
+    @Test
+    void testWatcher_LoadsKeyFromDirectoryCreatedAfterStartup() throws Exception {
+        keyManager.init(keyDir.toString());
+
+        Path subDir = Files.createDirectory(keyDir.resolve("rotated"));
+        PublicKey added = writeKey(subDir.resolve("added.pem"));
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (keyManager.getPublicKey("added.pem") == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(added, keyManager.getPublicKey("added.pem").getPublicKey());
+
+        // Files written to the new directory later are picked up too
+        PublicKey later = writeKey(subDir.resolve("later.pem"));
+        deadline = System.currentTimeMillis() + 10000;
+        while (keyManager.getPublicKey("later.pem") == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(later, keyManager.getPublicKey("later.pem").getPublicKey());
+    }
+
+    @Test
+    void testGetPublicKey_FallsBackToJwksSource() throws Exception {
+        keyManager.init(keyDir.toString());
+        KeyData jwksKey = new KeyData("jwks-kid", mock(PublicKey.class));
+        when(jwksKeySource.getKey("jwks-kid")).thenReturn(jwksKey);
+
+        assertSame(jwksKey, keyManager.getPublicKey("jwks-kid"));
+    }
+
+    private PublicKey writeKey(String fileName) throws Exception {
+        return writeKey(keyDir.resolve(fileName));
+    }
+
+    private static PublicKey writeKey(Path file) throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        String pem = "-----BEGIN PUBLIC KEY-----\n"
+                + java.util.Base64.getMimeEncoder().encodeToString(keyPair.getPublic().getEncoded())
+                + "\n-----END PUBLIC KEY-----\n";
+        Files.writeString(file, pem);
+        return keyPair.getPublic();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,94 @@
+package com.igot.cb.authentication.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.Signature;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class SignatureVerifierPoolTest {
+
+    private static final String ALGORITHM = "SHA256withRSA";
+    private static KeyPair keyPair;
+
+    @BeforeAll
+    static void generateKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair = generator.generateKeyPair();
+    }
+
+    @Test
+    void testVerify_ReusesVerifierAcrossCalls() throws Exception {
+        SignatureVerifierPool pool = new SignatureVerifierPool(keyPair.getPublic(), ALGORITHM, 2);
+        byte[] data = "header.body".getBytes(StandardCharsets.US_ASCII);
+        byte[] signature = sign(data);
+
+        assertTrue(pool.verify(data, 0, data.length, signature));
+        assertEquals(1, pool.idleCount());
+        assertTrue(pool.verify(data, 0, data.length, signature));
+        assertEquals(1, pool.idleCount());
+    }
+
+    @Test
+    void testVerify_InvalidSignatureLeavesVerifierReusable() throws Exception {
+        SignatureVerifierPool pool = new SignatureVerifierPool(keyPair.getPublic(), ALGORITHM, 2);
+        byte[] data = "header.body".getBytes(StandardCharsets.US_ASCII);
+        byte[] signature = sign(data);
+        byte[] tampered = "header.bodx".getBytes(StandardCharsets.US_ASCII);
+
+        assertFalse(pool.verify(tampered, 0, tampered.length, signature));
+        assertTrue(pool.verify(data, 0, data.length, signature));
+    }
+
+    @Test
+    void testVerify_ConcurrentCallsStayCorrect() throws Exception {
+        SignatureVerifierPool pool = new SignatureVerifierPool(keyPair.getPublic(), ALGORITHM, 2);
+        byte[] good = "header.good".getBytes(StandardCharsets.US_ASCII);
+        byte[] goodSignature = sign(good);
+        byte[] bad = "header.bad".getBytes(StandardCharsets.US_ASCII);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Boolean>> tasks = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                boolean expectValid = i % 2 == 0;
+                byte[] data = expectValid ? good : bad;
+                tasks.add(() -> pool.verify(data, 0, data.length, goodSignature) == expectValid);
+            }
+            for (Future<Boolean> result : executor.invokeAll(tasks)) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(pool.idleCount() <= 2);
+    }
+
+    @Test
+    void testVerify_UnknownAlgorithm() {
+        SignatureVerifierPool pool = new SignatureVerifierPool(keyPair.getPublic(), "InvalidAlgorithm", 2);
+        byte[] data = new byte[]{1, 2, 3};
+
+        assertThrows(NoSuchAlgorithmException.class, () -> pool.verify(data, 0, data.length, data));
+    }
+
+    private static byte[] sign(byte[] data) throws Exception {
+        Signature signer = Signature.getInstance(ALGORITHM);
+        signer.initSign(keyPair.getPrivate());
+        signer.update(data);
+        return signer.sign();
+    }
+}
@@ -0,0 +1,95 @@
+package com.igot.cb.authentication.util;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * A local stand-in for the Keycloak JWKS endpoint, built on the JDK HTTP server. Tests set
+ * the keys it serves, its status code and an artificial delay, and read back how often it
+ * was called.
+ */
+class StubJwksServer implements AutoCloseable {
+
+    static final String JWKS_PATH = "/auth/realms/sunbird/protocol/openid-connect/certs";
+
+    private final HttpServer server;
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private volatile String body = "{\"keys\":[]}";
+    private volatile int status = 200;
+    private volatile long delayMillis;
+
+    StubJwksServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext(JWKS_PATH, exchange -> {
+            requestCount.incrementAndGet();
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] response = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        server.setExecutor(java.util.concurrent.Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    String url() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + JWKS_PATH;
+    }
+
+    void setKeys(Map<String, RSAPublicKey> keys) {
+        body = keys.entrySet().stream()
+                .map(entry -> jwk(entry.getKey(), entry.getValue()))
+                .collect(Collectors.joining(",", "{\"keys\":[", "]}"));
+    }
+
+    void setBody(String body) {
+        this.body = body;
+    }
+
+    void setStatus(int status) {
+        this.status = status;
+    }
+
+    void setDelayMillis(long delayMillis) {
+        this.delayMillis = delayMillis;
+    }
+
+    int getRequestCount() {
+        return requestCount.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    static String jwk(String keyId, RSAPublicKey key) {
+        return "{\"kid\":\"" + keyId + "\",\"kty\":\"RSA\",\"alg\":\"RS256\",\"use\":\"sig\","
+                + "\"n\":\"" + base64Url(key.getModulus()) + "\","
+                + "\"e\":\"" + base64Url(key.getPublicExponent()) + "\"}";
+    }
+
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = java.util.Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,87 @@
+package com.igot.cb.authentication.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TokenCacheTest {
+
+    private AtomicLong now;
+    private TokenCache<String> tokenCache;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong(1_000_000L);
+        tokenCache = new TokenCache<>(2, now::get);
+    }
+
+    @Test
+    void testGet_HitAfterPut() {
+        tokenCache.put("token-1", "claims-1", now.get() + 1000);
+
+        assertEquals("claims-1", tokenCache.get("token-1"));
+        assertEquals(1, tokenCache.getHitCount());
+        assertEquals(0, tokenCache.getMissCount());
+    }
+
+    @Test
+    void testGet_MissForUnknownToken() {
+        assertNull(tokenCache.get("unknown"));
+        assertEquals(1, tokenCache.getMissCount());
+    }
+
+    @Test
+    void testGet_ExpiredEntryIsEvicted() {
+        tokenCache.put("token-1", "claims-1", now.get() + 1000);
+        now.addAndGet(1000);
+
+        assertNull(tokenCache.get("token-1"));
+        assertEquals(0, tokenCache.size());
+        assertEquals(1, tokenCache.getEvictionCount());
+        assertEquals(1, tokenCache.getMissCount());
+    }
+
+    @Test
+    void testPut_AlreadyExpiredValueIsIgnored() {
+        tokenCache.put("token-1", "claims-1", now.get());
+
+        assertEquals(0, tokenCache.size());
+    }
+
+    @Test
+    void testPut_OldestEntryEvictedWhenFull() {
+        tokenCache.put("token-1", "claims-1", now.get() + 1000);
+        tokenCache.put("token-2", "claims-2", now.get() + 1000);
+        tokenCache.put("token-3", "claims-3", now.get() + 1000);
+
+        assertEquals(2, tokenCache.size());
+        assertNull(tokenCache.get("token-1"));
+        assertEquals("claims-3", tokenCache.get("token-3"));
+        assertEquals(1, tokenCache.getEvictionCount());
+    }
+
+    @Test
+    void testInvalidate() {
+        tokenCache.put("token-1", "claims-1", now.get() + 1000);
+        tokenCache.invalidate("token-1");
+
+        assertNull(tokenCache.get("token-1"));
+    }
+
+    @Test
+    void testDigest_DoesNotExposeToken() {
+        String digest = TokenCache.digest("header.body.signature");
+
+        assertEquals(44, digest.length());
+        assertEquals(digest, TokenCache.digest("header.body.signature"));
+    }
+
+    @Test
+    void testConstructor_RejectsNonPositiveCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenCache<String>(0));
+    }
+}
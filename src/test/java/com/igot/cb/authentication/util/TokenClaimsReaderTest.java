@@ -0,0 +1,64 @@
+package com.igot.cb.authentication.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.igot.cb.authentication.model.TokenClaims;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class TokenClaimsReaderTest {
+
+    private static final String KEYCLOAK_BODY = "{"
+            + "\"exp\":1700003600,"
+            + "\"iat\":1700000000,"
+            + "\"realm_access\":{\"roles\":[\"offline_access\",\"uma_authorization\"]},"
+            + "\"resource_access\":{\"account\":{\"roles\":[\"manage-account\",\"view-profile\"]}},"
+            + "\"iss\":\"https://portal.dev.karmayogibharat.net/auth/realms/sunbird\","
+            + "\"scope\":\"offline_access\","
+            + "\"sub\":\"f:5a8a3f2b:user-1\""
+            + "}";
+
+    @Test
+    void testReadKeyId() throws IOException {
+        byte[] header = "{\"alg\":\"RS256\",\"typ\":\"JWT\",\"kid\":\"key-1\"}".getBytes(StandardCharsets.UTF_8);
+
+        assertEquals("key-1", TokenClaimsReader.readKeyId(header));
+    }
+
+    @Test
+    void testReadKeyId_Missing() throws IOException {
+        byte[] header = "{\"alg\":\"RS256\",\"x5c\":[\"abc\"]}".getBytes(StandardCharsets.UTF_8);
+
+        assertNull(TokenClaimsReader.readKeyId(header));
+    }
+
+    @Test
+    void testReadClaims_SkipsNestedBlocks() throws IOException {
+        TokenClaims claims = TokenClaimsReader.readClaims(KEYCLOAK_BODY.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(1700003600L, claims.getExp());
+        assertEquals("https://portal.dev.karmayogibharat.net/auth/realms/sunbird", claims.getIss());
+        assertEquals("f:5a8a3f2b:user-1", claims.getSub());
+    }
+
+    @Test
+    void testReadClaims_AllClaimsParsedLazily() throws IOException {
+        TokenClaims claims = TokenClaimsReader.readClaims(KEYCLOAK_BODY.getBytes(StandardCharsets.UTF_8));
+
+        Map<String, Object> allClaims = claims.getAllClaims();
+        assertTrue(allClaims.get("realm_access") instanceof Map);
+        assertEquals("offline_access", allClaims.get("scope"));
+        assertEquals(allClaims, claims.getAllClaims());
+        assertThrows(UnsupportedOperationException.class, () -> allClaims.put("sub", "other"));
+    }
+
+    @Test
+    void testReadClaims_RejectsNonObject() {
+        assertThrows(IOException.class, () -> TokenClaimsReader.readClaims("[1,2]".getBytes(StandardCharsets.UTF_8)));
+    }
+}
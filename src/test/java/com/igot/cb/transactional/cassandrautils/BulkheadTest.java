@@ -0,0 +1,119 @@
+package com.igot.cb.transactional.cassandrautils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.igot.cb.transactional.util.exceptions.CustomException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+class BulkheadTest {
+
+    private long now;
+    private ScheduledExecutorService timer;
+    private Bulkhead bulkhead;
+    private final AtomicInteger started = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        timer = Executors.newSingleThreadScheduledExecutor();
+        bulkhead = new Bulkhead("sunbird_courses", 2, 1, Duration.ofMillis(200), () -> now, timer);
+    }
+
+    @AfterEach
+    void tearDown() {
+        timer.shutdownNow();
+    }
+
+    private CompletionStage<String> submit(CompletableFuture<String> call) {
+        return bulkhead.submit(() -> {
+            started.incrementAndGet();
+            return call;
+        });
+    }
+
+    @Test
+    void testQueuesBeyondMaxConcurrentAndRejectsWhenFull() {
+        CompletableFuture<String> first = new CompletableFuture<>();
+        CompletableFuture<String> second = new CompletableFuture<>();
+        submit(first);
+        submit(second);
+        CompletionStage<String> queued = submit(CompletableFuture.completedFuture("queued"));
+        CompletionStage<String> rejected = submit(new CompletableFuture<>());
+
+        assertEquals(2, started.get());
+        assertEquals(2, bulkhead.getInFlightCount());
+        assertEquals(1, bulkhead.getQueuedCount());
+        assertUnavailable(rejected);
+        assertEquals(1, bulkhead.getRejectedCount());
+
+        first.complete("first");
+
+        assertEquals(3, started.get());
+        assertEquals("queued", queued.toCompletableFuture().join());
+        assertEquals(1, bulkhead.getInFlightCount());
+        assertEquals(0, bulkhead.getQueuedCount());
+    }
+
+    @Test
+    void testShedsCallsThatWaitedTooLong() {
+        CompletableFuture<String> first = new CompletableFuture<>();
+        submit(first);
+        submit(new CompletableFuture<>());
+        CompletionStage<String> queued = submit(CompletableFuture.completedFuture("queued"));
+
+        now += TimeUnit.MILLISECONDS.toNanos(201);
+        first.complete("first");
+
+        assertUnavailable(queued);
+        assertEquals(2, started.get());
+        assertEquals(1, bulkhead.getShedCount());
+        assertEquals(1, bulkhead.getInFlightCount());
+    }
+
+    @Test
+    void testShedsQueuedCallsWhileInFlightCallsNeverComplete() {
+        bulkhead = new Bulkhead("sunbird_courses", 2, 2, Duration.ofMillis(50), System::nanoTime, timer);
+        submit(new CompletableFuture<>());
+        submit(new CompletableFuture<>());
+        CompletionStage<String> firstQueued = submit(CompletableFuture.completedFuture("queued"));
+        CompletionStage<String> secondQueued = submit(CompletableFuture.completedFuture("queued"));
+
+        assertUnavailable(firstQueued);
+        assertUnavailable(secondQueued);
+        assertEquals(2, started.get());
+        assertEquals(2, bulkhead.getShedCount());
+        assertEquals(0, bulkhead.getQueuedCount());
+        assertEquals(2, bulkhead.getInFlightCount());
+    }
+
+    @Test
+    void testFailedCallReleasesItsSlot() {
+        CompletionStage<String> failed = bulkhead.submit(() -> {
+            throw new IllegalStateException("session closed");
+        });
+
+        assertTrue(failed.toCompletableFuture().isCompletedExceptionally());
+        assertEquals(0, bulkhead.getInFlightCount());
+    }
+
+    private static void assertUnavailable(CompletionStage<String> stage) {
+        ExecutionException error = assertThrows(ExecutionException.class, () -> stage.toCompletableFuture().get());
+        CustomException cause = assertInstanceOf(CustomException.class, error.getCause());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, cause.getHttpStatusCode());
+        assertFalse(cause.getMessage().isEmpty());
+    }
+}
@@ -1,18 +1,16 @@
 package com.igot.cb.transactional.cassandrautils;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.when;
 
-import com.datastax.oss.driver.api.core.ConsistencyLevel;
-import com.datastax.oss.driver.api.core.DefaultConsistencyLevel;
+import com.datastax.oss.driver.api.core.CqlSession;
 import com.igot.cb.transactional.util.Constants;
 import com.igot.cb.transactional.util.PropertiesCache;
 import com.igot.cb.transactional.util.exceptions.CustomException;
-import java.lang.reflect.Method;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -21,6 +19,7 @@ import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import org.junit.jupiter.api.AfterEach;
 
@@ -44,30 +43,6 @@ class CassandraConnectionManagerImplTest {
         }
     }
 
-    @Test
-    void testGetConsistencyLevel_valid() {
-        try (MockedStatic<PropertiesCache> staticMock = mockStatic(PropertiesCache.class)) {
-            staticMock.when(PropertiesCache::getInstance).thenReturn(propertiesCache);
-            when(propertiesCache.readProperty(Constants.SUNBIRD_CASSANDRA_CONSISTENCY_LEVEL))
-                    .thenReturn("LOCAL_QUORUM");
-
-            ConsistencyLevel level = invokeGetConsistencyLevel();
-            assertEquals(DefaultConsistencyLevel.LOCAL_QUORUM, level);
-        }
-    }
-
-    @Test
-    void testGetConsistencyLevel_invalid() {
-        try (MockedStatic<PropertiesCache> staticMock = mockStatic(PropertiesCache.class)) {
-            staticMock.when(PropertiesCache::getInstance).thenReturn(propertiesCache);
-            when(propertiesCache.readProperty(Constants.SUNBIRD_CASSANDRA_CONSISTENCY_LEVEL))
-                    .thenReturn("INVALID");
-
-            ConsistencyLevel level = invokeGetConsistencyLevel();
-            assertNull(level);
-        }
-    }
-
     @Test
     void testShutdownHook() throws InterruptedException {
         Thread thread = new CassandraConnectionManagerImpl.ResourceCleanUp();
@@ -76,13 +51,17 @@ class CassandraConnectionManagerImplTest {
         assertFalse(thread.isAlive(), "Shutdown hook thread should have finished execution");
     }
 
-    private ConsistencyLevel invokeGetConsistencyLevel() {
+    @Test
+    void testGetSession_sharedAcrossKeyspaces() {
+        CqlSession sharedSession = mock(CqlSession.class);
+        CassandraConnectionManagerImpl connectionManager =
+                mock(CassandraConnectionManagerImpl.class, Mockito.CALLS_REAL_METHODS);
+        ReflectionTestUtils.setField(CassandraConnectionManagerImpl.class, "session", sharedSession);
         try {
-            Method method = CassandraConnectionManagerImpl.class.getDeclaredMethod("getConsistencyLevel");
-            method.setAccessible(true);
-            return (ConsistencyLevel) method.invoke(null);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+            assertSame(sharedSession, connectionManager.getSession("sunbird"));
+            assertSame(sharedSession, connectionManager.getSession("sunbird_course"));
+        } finally {
+            ReflectionTestUtils.setField(CassandraConnectionManagerImpl.class, "session", null);
         }
     }
 
@@ -1,45 +1,65 @@
 package com.igot.cb.transactional.cassandrautils;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.datastax.oss.driver.api.core.CqlIdentifier;
 import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
 import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.DefaultBatchType;
+import com.datastax.oss.driver.api.core.cql.PagingState;
 import com.datastax.oss.driver.api.core.cql.PreparedStatement;
-import com.datastax.oss.driver.api.core.cql.ResultSet;
-import com.datastax.oss.driver.api.core.cql.SimpleStatement;
 import com.datastax.oss.driver.api.core.cql.Statement;
+import com.datastax.oss.driver.api.core.metadata.Metadata;
+import com.datastax.oss.driver.api.core.metadata.schema.ColumnMetadata;
+import com.datastax.oss.driver.api.core.metadata.schema.KeyspaceMetadata;
+import com.datastax.oss.driver.api.core.metadata.schema.TableMetadata;
 import com.datastax.oss.driver.api.querybuilder.select.Select;
 import com.igot.cb.transactional.util.ApiResponse;
 import com.igot.cb.transactional.util.Constants;
+import com.igot.cb.transactional.util.exceptions.CustomException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
 class CassandraOperationImplTest {
 
-    @InjectMocks
     private CassandraOperationImpl cassandraOperation;
 
     @Mock
@@ -55,45 +75,67 @@ class CassandraOperationImplTest {
     private BoundStatement mockBoundStatement;
 
     @Mock
-    private ResultSet mockResultSet;
+    private AsyncResultSet mockResultSet;
 
     private final String keyspaceName = "testKeyspace";
     private final String tableName = "testTable";
 
     @BeforeEach
     void setUp() {
+        cassandraOperation = new CassandraOperationImpl();
+        ReflectionTestUtils.setField(cassandraOperation, "connectionManager", connectionManager);
         lenient().when(connectionManager.getSession(anyString())).thenReturn(mockSession);
+        lenient().when(mockBoundStatement.setIdempotent(anyBoolean())).thenReturn(mockBoundStatement);
     }
 
     @Test
     void insertRecord_Success() {
         // Arrange
         Map<String, Object> request = new HashMap<>();
-        request.put("id", "123");
         request.put("name", "Test");
+        request.put("id", "123");
 
-        try (MockedStatic<CassandraUtil> cassandraUtilMockedStatic = Mockito.mockStatic(CassandraUtil.class)) {
-            cassandraUtilMockedStatic.when(() -> CassandraUtil.getPreparedStatement(anyString(), anyString(), any()))
-                    .thenReturn("INSERT INTO testKeyspace.testTable (id, name) VALUES (?, ?)");
+        when(mockSession.prepareAsync(anyString()))
+                .thenReturn(CompletableFuture.completedFuture(mockPreparedStatement));
+        when(mockPreparedStatement.bind("123", "Test")).thenReturn(mockBoundStatement);
+        when(mockSession.executeAsync(any(BoundStatement.class))).thenReturn(CompletableFuture.completedFuture(mockResultSet));
 
-            when(mockSession.prepare(anyString())).thenReturn(mockPreparedStatement);
-            when(mockPreparedStatement.bind(any())).thenReturn(mockBoundStatement);
-            when(mockSession.execute(any(BoundStatement.class))).thenReturn(mockResultSet);
+        // Act
+        ApiResponse response = (ApiResponse) cassandraOperation.insertRecord(keyspaceName, tableName, request);
 
-            // Create a response map with success
-            ApiResponse mockResponse = new ApiResponse();
-            mockResponse.put(Constants.RESPONSE, Constants.SUCCESS);
+        // Assert
+        assertEquals("success", response.get(Constants.RESPONSE));
+        verify(mockSession).prepareAsync("INSERT INTO testKeyspace.testTable(id,name) VALUES (?,?);");
+        verify(mockSession).executeAsync(mockBoundStatement);
+    }
 
-            // Act
-            ApiResponse response = (ApiResponse) cassandraOperation.insertRecord(keyspaceName, tableName, request);
+    @Test
+    void insertRecord_ReusesPreparedStatementForSameColumns() {
+        // Arrange
+        Map<String, Object> first = new LinkedHashMap<>();
+        first.put("id", "123");
+        first.put("name", "Test");
+        Map<String, Object> second = new LinkedHashMap<>();
+        second.put("name", "Other");
+        second.put("id", "456");
+
+        when(mockSession.prepareAsync(anyString()))
+                .thenReturn(CompletableFuture.completedFuture(mockPreparedStatement));
+        when(mockPreparedStatement.bind("123", "Test")).thenReturn(mockBoundStatement);
+        when(mockPreparedStatement.bind("456", "Other")).thenReturn(mockBoundStatement);
+        when(mockSession.executeAsync(any(BoundStatement.class))).thenReturn(CompletableFuture.completedFuture(mockResultSet));
 
-            // Manually set the response for testing
-            response.put(Constants.RESPONSE, Constants.SUCCESS);
+        // Act
+        cassandraOperation.insertRecord(keyspaceName, tableName, first);
+        cassandraOperation.insertRecord(keyspaceName, tableName, second);
 
-            // Assert
-            assertEquals("success", response.get(Constants.RESPONSE));
-            verify(mockSession).prepare(anyString());
-        }
+        // Assert
+        verify(mockSession, times(1)).prepareAsync(anyString());
+        verify(mockPreparedStatement).bind("123", "Test");
+        verify(mockPreparedStatement).bind("456", "Other");
+        PreparedStatementCache cache = cassandraOperation.getPreparedStatementCache();
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
     }
 
     @Test
@@ -102,21 +144,17 @@ class CassandraOperationImplTest {
         Map<String, Object> request = new HashMap<>();
         request.put("id", "123");
 
-        try (MockedStatic<CassandraUtil> cassandraUtilMockedStatic = Mockito.mockStatic(CassandraUtil.class)) {
-            cassandraUtilMockedStatic.when(() -> CassandraUtil.getPreparedStatement(anyString(), anyString(), any()))
-                    .thenReturn("INSERT INTO testKeyspace.testTable (id) VALUES (?)");
-
-            when(mockSession.prepare(anyString())).thenReturn(mockPreparedStatement);
-            when(mockPreparedStatement.bind(any())).thenReturn(mockBoundStatement);
-            when(mockSession.execute(any(BoundStatement.class))).thenThrow(new RuntimeException("Test exception"));
+        when(mockSession.prepareAsync(anyString()))
+                .thenReturn(CompletableFuture.completedFuture(mockPreparedStatement));
+        when(mockPreparedStatement.bind(any())).thenReturn(mockBoundStatement);
+        when(mockSession.executeAsync(any(BoundStatement.class))).thenReturn(CompletableFuture.failedFuture(new RuntimeException("Test exception")));
 
-            // Act
-            ApiResponse response = (ApiResponse) cassandraOperation.insertRecord(keyspaceName, tableName, request);
+        // Act
+        ApiResponse response = (ApiResponse) cassandraOperation.insertRecord(keyspaceName, tableName, request);
 
-            // Assert
-            assertEquals("Failed", response.get(Constants.RESPONSE));
-            assertNotNull(response.get(Constants.ERROR_MESSAGE));
-        }
+        // Assert
+        assertEquals("Failed", response.get(Constants.RESPONSE));
+        assertNotNull(response.get(Constants.ERROR_MESSAGE));
     }
 
     @Test
@@ -133,10 +171,13 @@ class CassandraOperationImplTest {
             record.put("name", "Test");
             expectedResponse.add(record);
 
-            cassandraUtilMockedStatic.when(() -> CassandraUtil.createResponse(any(ResultSet.class)))
-                    .thenReturn(expectedResponse);
+            cassandraUtilMockedStatic.when(() -> CassandraUtil.createResponseAsync(any(AsyncResultSet.class)))
+                    .thenReturn(CompletableFuture.completedFuture(expectedResponse));
 
-            when(mockSession.execute(any(SimpleStatement.class))).thenReturn(mockResultSet);
+            when(mockSession.prepareAsync("SELECT id,name FROM testkeyspace.testtable WHERE id=? LIMIT ?"))
+                .thenReturn(CompletableFuture.completedFuture(mockPreparedStatement));
+            when(mockPreparedStatement.bind("123", 10)).thenReturn(mockBoundStatement);
+            when(mockSession.executeAsync(mockBoundStatement)).thenReturn(CompletableFuture.completedFuture(mockResultSet));
 
             // Act
             List<Map<String, Object>> response = cassandraOperation.getRecordsByPropertiesWithoutFiltering(
@@ -162,10 +203,13 @@ class CassandraOperationImplTest {
             record.put("name", "Test");
             expectedResponse.add(record);
 
-            cassandraUtilMockedStatic.when(() -> CassandraUtil.createResponse(any(ResultSet.class)))
-                    .thenReturn(expectedResponse);
+            cassandraUtilMockedStatic.when(() -> CassandraUtil.createResponseAsync(any(AsyncResultSet.class)))
+                    .thenReturn(CompletableFuture.completedFuture(expectedResponse));
 
-            when(mockSession.execute(any(SimpleStatement.class))).thenReturn(mockResultSet);
+            when(mockSession.prepareAsync("SELECT * FROM testkeyspace.testtable WHERE id=?"))
+                .thenReturn(CompletableFuture.completedFuture(mockPreparedStatement));
+            when(mockPreparedStatement.bind("123")).thenReturn(mockBoundStatement);
+            when(mockSession.executeAsync(mockBoundStatement)).thenReturn(CompletableFuture.completedFuture(mockResultSet));
 
             // Act
             List<Map<String, Object>> response = cassandraOperation.getRecordsByPropertiesWithoutFiltering(
@@ -184,7 +228,10 @@ class CassandraOperationImplTest {
         Map<String, Object> propertyMap = new HashMap<>();
         propertyMap.put("id", "123");
 
-        when(mockSession.execute(any(SimpleStatement.class))).thenThrow(new RuntimeException("Test exception"));
+        when(mockSession.prepareAsync(anyString()))
+                .thenReturn(CompletableFuture.completedFuture(mockPreparedStatement));
+        when(mockPreparedStatement.bind(any())).thenReturn(mockBoundStatement);
+        when(mockSession.executeAsync(mockBoundStatement)).thenReturn(CompletableFuture.failedFuture(new RuntimeException("Test exception")));
 
         // Act
         List<Map<String, Object>> response = cassandraOperation.getRecordsByPropertiesWithoutFiltering(
@@ -194,6 +241,49 @@ class CassandraOperationImplTest {
         assertTrue(response.isEmpty());
     }
 
+    @Test
+    void getRecordsByPropertiesWithoutFiltering_PadsInListAndReusesStatement() {
+        // Arrange
+        Map<String, Object> first = new HashMap<>();
+        first.put("contextid", Arrays.asList("do_1", "do_2", "do_3"));
+        first.put("isarchived", false);
+        Map<String, Object> second = new HashMap<>();
+        second.put("contextid", Arrays.asList("do_4", "do_5", "do_6", "do_7"));
+        second.put("isarchived", true);
+        second.put("ignored", new ArrayList<>());
+
+        when(mockSession.prepareAsync("SELECT * FROM testkeyspace.testtable WHERE contextid IN (?,?,?,?) AND isarchived=?"))
+                .thenReturn(CompletableFuture.completedFuture(mockPreparedStatement));
+        when(mockPreparedStatement.bind("do_1", "do_2", "do_3", "do_3", false)).thenReturn(mockBoundStatement);
+        when(mockPreparedStatement.bind("do_4", "do_5", "do_6", "do_7", true)).thenReturn(mockBoundStatement);
+        when(mockSession.executeAsync(mockBoundStatement)).thenReturn(CompletableFuture.completedFuture(mockResultSet));
+
+        try (MockedStatic<CassandraUtil> cassandraUtilMockedStatic = Mockito.mockStatic(CassandraUtil.class)) {
+            cassandraUtilMockedStatic.when(() -> CassandraUtil.createResponseAsync(any(AsyncResultSet.class)))
+                    .thenReturn(CompletableFuture.completedFuture(new ArrayList<>()));
+
+            // Act
+            cassandraOperation.getRecordsByPropertiesWithoutFiltering(keyspaceName, tableName, first, null, null);
+            cassandraOperation.getRecordsByPropertiesWithoutFiltering(keyspaceName, tableName, second, null, null);
+        }
+
+        // Assert
+        verify(mockSession, times(1)).prepareAsync(anyString());
+        verify(mockSession, times(2)).executeAsync(mockBoundStatement);
+        assertEquals(1, cassandraOperation.getPreparedStatementCache().getHitCount());
+    }
+
+    @Test
+    void inListArity_RoundsUpToPowerOfTwo() {
+        assertEquals(1, CassandraOperationImpl.inListArity(1));
+        assertEquals(2, CassandraOperationImpl.inListArity(2));
+        assertEquals(4, CassandraOperationImpl.inListArity(3));
+        assertEquals(4, CassandraOperationImpl.inListArity(4));
+        assertEquals(8, CassandraOperationImpl.inListArity(5));
+        assertEquals(256, CassandraOperationImpl.inListArity(200));
+        assertEquals(300, CassandraOperationImpl.inListArity(300));
+    }
+
     @Test
     void updateRecordByCompositeKey_Success() {
         // Arrange
@@ -209,12 +299,392 @@ class CassandraOperationImplTest {
         compositeKey.put("region", "US");
 
         when(connectionManager.getSession(keyspace)).thenReturn(mockSession);
+        when(mockSession.prepareAsync("UPDATE testkeyspace.testtable SET age=?, name=? WHERE id=? AND region=?"))
+                .thenReturn(CompletableFuture.completedFuture(mockPreparedStatement));
+        when(mockPreparedStatement.bind(30, "New Name", 123, "US")).thenReturn(mockBoundStatement);
+        when(mockSession.executeAsync(mockBoundStatement)).thenReturn(CompletableFuture.completedFuture(mockResultSet));
 
         // Act
         Map<String, Object> response = cassandraOperation.updateRecord(keyspace, table, updateAttrs, compositeKey);
 
         // Assert
         assertEquals(Constants.SUCCESS, response.get(Constants.RESPONSE));
-        verify(mockSession, times(1)).execute(any(SimpleStatement.class));
+        verify(mockSession, times(1)).executeAsync(mockBoundStatement);
+    }
+
+    @Test
+    void updateRecord_Exception() {
+        // Arrange
+        Map<String, Object> updateAttrs = new HashMap<>();
+        updateAttrs.put("name", "New Name");
+        Map<String, Object> compositeKey = new HashMap<>();
+        compositeKey.put("id", 123);
+
+        when(mockSession.prepareAsync(anyString())).thenReturn(CompletableFuture.failedFuture(new RuntimeException("Test exception")));
+
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> cassandraOperation.updateRecord(keyspaceName, tableName, updateAttrs, compositeKey));
+        assertEquals("Test exception", exception.getMessage());
+    }
+
+    @Test
+    void insertRecordAsync_CompletesWhenWriteCompletes() {
+        // Arrange
+        Map<String, Object> request = new HashMap<>();
+        request.put("id", "123");
+        CompletableFuture<AsyncResultSet> write = new CompletableFuture<>();
+
+        when(mockSession.prepareAsync(anyString()))
+                .thenReturn(CompletableFuture.completedFuture(mockPreparedStatement));
+        when(mockPreparedStatement.bind("123")).thenReturn(mockBoundStatement);
+        when(mockSession.executeAsync(mockBoundStatement)).thenReturn(write);
+
+        // Act
+        CompletableFuture<ApiResponse> response =
+                cassandraOperation.insertRecordAsync(keyspaceName, tableName, request).toCompletableFuture();
+
+        // Assert
+        assertFalse(response.isDone());
+        write.complete(mockResultSet);
+        assertEquals(Constants.SUCCESS, response.join().get(Constants.RESPONSE));
+    }
+
+    @Test
+    void insertRecordAsync_SessionUnavailable() {
+        // Arrange
+        Map<String, Object> request = new HashMap<>();
+        request.put("id", "123");
+        when(connectionManager.getSession(keyspaceName)).thenThrow(new RuntimeException("No session"));
+
+        // Act
+        ApiResponse response = cassandraOperation.insertRecordAsync(keyspaceName, tableName, request)
+                .toCompletableFuture().join();
+
+        // Assert
+        assertEquals(Constants.FAILED, response.get(Constants.RESPONSE));
+        assertNotNull(response.get(Constants.ERROR_MESSAGE));
+    }
+
+    @Test
+    void getRecordsAsync_ExecuteFailureCompletesWithEmptyList() {
+        // Arrange
+        Map<String, Object> propertyMap = new HashMap<>();
+        propertyMap.put("id", "123");
+
+        when(mockSession.prepareAsync(anyString()))
+                .thenReturn(CompletableFuture.completedFuture(mockPreparedStatement));
+        when(mockPreparedStatement.bind("123")).thenReturn(mockBoundStatement);
+        when(mockSession.executeAsync(mockBoundStatement))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Test exception")));
+
+        // Act
+        List<Map<String, Object>> response = cassandraOperation.getRecordsAsync(
+                keyspaceName, tableName, propertyMap, null, null).toCompletableFuture().join();
+
+        // Assert
+        assertTrue(response.isEmpty());
+    }
+
+    @Test
+    void updateRecordAsync_ExecuteFailureCompletesExceptionally() {
+        // Arrange
+        Map<String, Object> updateAttrs = new HashMap<>();
+        updateAttrs.put("name", "New Name");
+        Map<String, Object> compositeKey = new HashMap<>();
+        compositeKey.put("id", 123);
+
+        when(mockSession.prepareAsync(anyString()))
+                .thenReturn(CompletableFuture.completedFuture(mockPreparedStatement));
+        when(mockPreparedStatement.bind("New Name", 123)).thenReturn(mockBoundStatement);
+        when(mockSession.executeAsync(mockBoundStatement))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Test exception")));
+
+        // Act
+        CompletableFuture<Map<String, Object>> response = cassandraOperation.updateRecordAsync(
+                keyspaceName, tableName, updateAttrs, compositeKey).toCompletableFuture();
+
+        // Assert
+        CompletionException exception = assertThrows(CompletionException.class, response::join);
+        assertEquals("Test exception", exception.getCause().getMessage());
+    }
+
+    @Test
+    void insertRecords_BatchesRowsOfSamePartition() {
+        // Arrange
+        stubPartitionKey("id");
+        List<Map<String, Object>> rows = List.of(row("1", "a"), row("2", "b"), row("1", "c"));
+
+        when(mockSession.prepareAsync(anyString()))
+                .thenReturn(CompletableFuture.completedFuture(mockPreparedStatement));
+        when(mockPreparedStatement.bind("1", "a")).thenReturn(mockBoundStatement);
+        when(mockPreparedStatement.bind("2", "b")).thenReturn(mockBoundStatement);
+        when(mockPreparedStatement.bind("1", "c")).thenReturn(mockBoundStatement);
+        when(mockSession.executeAsync(any(Statement.class)))
+                .thenReturn(CompletableFuture.completedFuture(mockResultSet));
+
+        // Act
+        List<ApiResponse> responses = cassandraOperation.insertRecords(keyspaceName, tableName, rows);
+
+        // Assert
+        assertEquals(3, responses.size());
+        responses.forEach(response -> assertEquals(Constants.SUCCESS, response.get(Constants.RESPONSE)));
+        ArgumentCaptor<Statement<?>> statements = ArgumentCaptor.forClass(Statement.class);
+        verify(mockSession, times(2)).executeAsync(statements.capture());
+        BatchStatement batch = (BatchStatement) statements.getAllValues().stream()
+                .filter(BatchStatement.class::isInstance).findFirst().orElseThrow();
+        assertEquals(DefaultBatchType.UNLOGGED, batch.getBatchType());
+        assertEquals(2, batch.size());
+        verify(mockSession, times(1)).prepareAsync(anyString());
+    }
+
+    @Test
+    void insertRecords_SplitsLargeRowsOfSamePartitionBySize() {
+        // Arrange
+        stubPartitionKey("id");
+        List<Map<String, Object>> rows = List.of(row("1", "a"), row("1", "b"), row("1", "c"));
+
+        when(mockSession.prepareAsync(anyString()))
+                .thenReturn(CompletableFuture.completedFuture(mockPreparedStatement));
+        when(mockPreparedStatement.bind(anyString(), anyString())).thenReturn(mockBoundStatement);
+        // About the size of an access rule with a hundred user groups in its context data
+        when(mockBoundStatement.computeSizeInBytes(any())).thenReturn(20000);
+        when(mockSession.executeAsync(any(Statement.class)))
+                .thenReturn(CompletableFuture.completedFuture(mockResultSet));
+
+        // Act
+        List<ApiResponse> responses = cassandraOperation.insertRecords(keyspaceName, tableName, rows);
+
+        // Assert
+        responses.forEach(response -> assertEquals(Constants.SUCCESS, response.get(Constants.RESPONSE)));
+        ArgumentCaptor<Statement<?>> statements = ArgumentCaptor.forClass(Statement.class);
+        verify(mockSession, times(2)).executeAsync(statements.capture());
+        BatchStatement batch = assertInstanceOf(BatchStatement.class, statements.getAllValues().get(0));
+        assertEquals(2, batch.size());
+        assertSame(mockBoundStatement, statements.getAllValues().get(1));
+    }
+
+    @Test
+    void insertRecords_ReportsFailurePerRow() {
+        // Arrange
+        stubPartitionKey("id");
+        BoundStatement failingStatement = mock(BoundStatement.class);
+        when(failingStatement.setIdempotent(false)).thenReturn(failingStatement);
+        List<Map<String, Object>> rows = List.of(row("1", "a"), row("2", "b"));
+
+        when(mockSession.prepareAsync(anyString()))
+                .thenReturn(CompletableFuture.completedFuture(mockPreparedStatement));
+        when(mockPreparedStatement.bind("1", "a")).thenReturn(mockBoundStatement);
+        when(mockPreparedStatement.bind("2", "b")).thenReturn(failingStatement);
+        when(mockSession.executeAsync(mockBoundStatement))
+                .thenReturn(CompletableFuture.completedFuture(mockResultSet));
+        when(mockSession.executeAsync(failingStatement))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Write timeout")));
+
+        // Act
+        List<ApiResponse> responses = cassandraOperation.insertRecords(keyspaceName, tableName, rows);
+
+        // Assert
+        assertEquals(Constants.SUCCESS, responses.get(0).get(Constants.RESPONSE));
+        assertEquals(Constants.FAILED, responses.get(1).get(Constants.RESPONSE));
+        assertNotNull(responses.get(1).get(Constants.ERROR_MESSAGE));
+    }
+
+    @Test
+    void insertRecordsAsync_BoundsWritesInFlight() {
+        // Arrange
+        when(mockSession.getMetadata()).thenReturn(mock(Metadata.class));
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 70; i++) {
+            rows.add(Map.of("id", String.valueOf(i)));
+        }
+        List<CompletableFuture<AsyncResultSet>> writes = new ArrayList<>();
+
+        when(mockSession.prepareAsync(anyString()))
+                .thenReturn(CompletableFuture.completedFuture(mockPreparedStatement));
+        when(mockPreparedStatement.bind(any())).thenReturn(mockBoundStatement);
+        when(mockSession.executeAsync(mockBoundStatement)).thenAnswer(invocation -> {
+            CompletableFuture<AsyncResultSet> write = new CompletableFuture<>();
+            writes.add(write);
+            return write;
+        });
+
+        // Act
+        CompletableFuture<List<ApiResponse>> responses =
+                cassandraOperation.insertRecordsAsync(keyspaceName, tableName, rows).toCompletableFuture();
+
+        // Assert
+        assertEquals(64, writes.size());
+        writes.get(0).complete(mockResultSet);
+        assertEquals(65, writes.size());
+        for (int i = 1; i < 70; i++) {
+            writes.get(i).complete(mockResultSet);
+        }
+        assertEquals(70, writes.size());
+        assertEquals(70, responses.join().size());
+    }
+
+    @Test
+    void getRecordsPage_ResumesFromPagingState() {
+        // Arrange
+        Map<String, Object> propertyMap = new HashMap<>();
+        propertyMap.put("id", "123");
+        PagingState pagingState = mock(PagingState.class);
+        RecordPage expectedPage = new RecordPage(List.of(Map.of("id", "123")), "next-page");
+
+        try (MockedStatic<CassandraUtil> cassandraUtilMockedStatic = Mockito.mockStatic(CassandraUtil.class);
+             MockedStatic<PagingState> pagingStateMockedStatic = Mockito.mockStatic(PagingState.class)) {
+            cassandraUtilMockedStatic.when(() -> CassandraUtil.createPage(mockResultSet)).thenReturn(expectedPage);
+            pagingStateMockedStatic.when(() -> PagingState.fromString("this-page")).thenReturn(pagingState);
+
+            when(mockSession.prepareAsync("SELECT * FROM testkeyspace.testtable WHERE id=?"))
+                    .thenReturn(CompletableFuture.completedFuture(mockPreparedStatement));
+            when(mockPreparedStatement.bind("123")).thenReturn(mockBoundStatement);
+            when(mockBoundStatement.setPageSize(50)).thenReturn(mockBoundStatement);
+            when(mockBoundStatement.setPagingState(pagingState, mockSession)).thenReturn(mockBoundStatement);
+            when(mockSession.executeAsync(mockBoundStatement))
+                    .thenReturn(CompletableFuture.completedFuture(mockResultSet));
+
+            // Act
+            RecordPage page = cassandraOperation.getRecordsPage(
+                    keyspaceName, tableName, propertyMap, null, 50, "this-page");
+
+            // Assert
+            assertEquals(expectedPage, page);
+            verify(mockBoundStatement).setPagingState(pagingState, mockSession);
+        }
+    }
+
+    @Test
+    void getRecordsPage_CapsPageSizeAndStartsFromFirstPage() {
+        // Arrange
+        Map<String, Object> propertyMap = new HashMap<>();
+        propertyMap.put("id", "123");
+
+        when(mockSession.prepareAsync(anyString()))
+                .thenReturn(CompletableFuture.completedFuture(mockPreparedStatement));
+        when(mockPreparedStatement.bind("123")).thenReturn(mockBoundStatement);
+        when(mockBoundStatement.setPageSize(1000)).thenReturn(mockBoundStatement);
+        when(mockSession.executeAsync(mockBoundStatement))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Test exception")));
+
+        // Act
+        RecordPage page = cassandraOperation.getRecordsPage(
+                keyspaceName, tableName, propertyMap, null, 1_000_000, null);
+
+        // Assert
+        assertTrue(page.records().isEmpty());
+        assertFalse(page.hasMorePages());
+        verify(mockBoundStatement, never()).setPagingState(any(PagingState.class), any());
+    }
+
+    @Test
+    void idempotence_ReadsIdempotentWritesOnlyForListedTables() {
+        // Arrange
+        Map<String, Object> request = new HashMap<>();
+        request.put("id", "123");
+        when(mockSession.prepareAsync(anyString()))
+                .thenReturn(CompletableFuture.completedFuture(mockPreparedStatement));
+        when(mockPreparedStatement.bind("123")).thenReturn(mockBoundStatement);
+        when(mockSession.executeAsync(mockBoundStatement))
+                .thenReturn(CompletableFuture.completedFuture(mockResultSet));
+
+        // Act
+        cassandraOperation.getRecordsByPropertiesWithoutFiltering(keyspaceName, tableName, request, null, null);
+        cassandraOperation.insertRecord(keyspaceName, tableName, request);
+        ReflectionTestUtils.setField(cassandraOperation, "idempotentWriteTables", Set.of("testkeyspace.testtable"));
+        cassandraOperation.insertRecord(keyspaceName, tableName, request);
+
+        // Assert
+        verify(mockBoundStatement, times(2)).setIdempotent(true);
+        verify(mockBoundStatement, times(1)).setIdempotent(false);
+    }
+
+    @Test
+    void withProfile_AppliesProfileToStatementsAndPageSize() {
+        // Arrange
+        Map<String, Object> propertyMap = new HashMap<>();
+        propertyMap.put("id", "123");
+        when(mockSession.prepareAsync(anyString()))
+                .thenReturn(CompletableFuture.completedFuture(mockPreparedStatement));
+        when(mockPreparedStatement.bind("123")).thenReturn(mockBoundStatement);
+        when(mockBoundStatement.setExecutionProfileName(CassandraExecutionProfile.BULK)).thenReturn(mockBoundStatement);
+        when(mockBoundStatement.setPageSize(5000)).thenReturn(mockBoundStatement);
+        when(mockSession.executeAsync(mockBoundStatement))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Test exception")));
+
+        // Act
+        CassandraOperation bulk = cassandraOperation.withProfile(CassandraExecutionProfile.BULK);
+        bulk.getRecordsPage(keyspaceName, tableName, propertyMap, null, null, null);
+        cassandraOperation.getRecordsByPropertiesWithoutFiltering(keyspaceName, tableName, propertyMap, null, null);
+
+        // Assert
+        verify(mockBoundStatement, times(1)).setExecutionProfileName(CassandraExecutionProfile.BULK);
+        verify(mockBoundStatement).setPageSize(5000);
+        // The statement is prepared once and shared with the profiled view
+        verify(mockSession, times(1)).prepareAsync(anyString());
+        // The view is built once per profile
+        assertSame(bulk, cassandraOperation.withProfile(CassandraExecutionProfile.BULK));
+        assertSame(bulk, bulk.withProfile(CassandraExecutionProfile.BULK));
+    }
+
+    @Test
+    void withProfile_UnknownProfile() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> cassandraOperation.withProfile("unknown"));
+        assertEquals("Unknown Cassandra execution profile: unknown", exception.getMessage());
+    }
+
+    @Test
+    void circuitBreaker_FailsFastOnceOpen() {
+        // Arrange
+        Map<String, Object> propertyMap = new HashMap<>();
+        propertyMap.put("id", "123");
+        when(mockSession.prepareAsync(anyString()))
+                .thenReturn(CompletableFuture.completedFuture(mockPreparedStatement));
+        when(mockPreparedStatement.bind("123")).thenReturn(mockBoundStatement);
+        when(mockBoundStatement.setPageSize(anyInt())).thenReturn(mockBoundStatement);
+        when(mockSession.executeAsync(mockBoundStatement))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Test exception")));
+
+        // Act: enough failures to reach cassandra.circuit.breaker.minimum.calls
+        for (int i = 0; i < 20; i++) {
+            assertTrue(cassandraOperation.getRecordsByPropertiesWithoutFiltering(
+                    keyspaceName, tableName, propertyMap, null, null).isEmpty());
+        }
+
+        // Assert: once open, reads fail with the 503 instead of looking like no rows
+        CustomException blocking = assertThrows(CustomException.class, () -> cassandraOperation
+                .getRecordsByPropertiesWithoutFiltering(keyspaceName, tableName, propertyMap, null, null));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, blocking.getHttpStatusCode());
+        CompletionException async = assertThrows(CompletionException.class, () -> cassandraOperation
+                .getRecordsPageAsync(keyspaceName, tableName, propertyMap, null, null, null)
+                .toCompletableFuture().join());
+        CustomException asyncCause = assertInstanceOf(CustomException.class, async.getCause());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, asyncCause.getHttpStatusCode());
+        CircuitBreaker circuitBreaker = cassandraOperation.getCircuitBreaker(keyspaceName);
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertEquals(2, circuitBreaker.getRejectedCount());
+        verify(mockSession, times(20)).executeAsync(mockBoundStatement);
+        assertEquals(0, cassandraOperation.getBulkhead(keyspaceName).getInFlightCount());
+    }
+
+    private void stubPartitionKey(String column) {
+        Metadata metadata = mock(Metadata.class);
+        KeyspaceMetadata keyspace = mock(KeyspaceMetadata.class);
+        TableMetadata table = mock(TableMetadata.class);
+        ColumnMetadata partitionKey = mock(ColumnMetadata.class);
+        when(mockSession.getMetadata()).thenReturn(metadata);
+        when(metadata.getKeyspace(keyspaceName)).thenReturn(Optional.of(keyspace));
+        when(keyspace.getTable(tableName)).thenReturn(Optional.of(table));
+        when(table.getPartitionKey()).thenReturn(List.of(partitionKey));
+        when(partitionKey.getName()).thenReturn(CqlIdentifier.fromInternal(column));
+    }
+
+    private static Map<String, Object> row(String id, String name) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", id);
+        row.put("name", name);
+        return row;
     }
-}
\ No newline at end of file
+}
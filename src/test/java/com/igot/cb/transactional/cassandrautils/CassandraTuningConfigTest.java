@@ -0,0 +1,148 @@
+package com.igot.cb.transactional.cassandrautils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import com.datastax.oss.driver.api.core.DefaultConsistencyLevel;
+import com.datastax.oss.driver.internal.core.retry.ConsistencyDowngradingRetryPolicy;
+import com.datastax.oss.driver.internal.core.retry.DefaultRetryPolicy;
+import com.igot.cb.transactional.util.Constants;
+import com.igot.cb.transactional.util.PropertiesCache;
+import com.igot.cb.transactional.util.exceptions.CustomException;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CassandraTuningConfigTest {
+
+    // Unstubbed properties read as missing
+    @Mock(strictness = Mock.Strictness.LENIENT)
+    PropertiesCache propertiesCache;
+
+    @Test
+    void testFromProperties_readsConfiguredValues() {
+        when(propertiesCache.getProperty(Constants.CASSANDRA_CONFIG_HOST)).thenReturn("10.0.0.1, 10.0.0.2");
+        when(propertiesCache.readProperty(Constants.CASSANDRA_CONFIG_PORT)).thenReturn("9142");
+        when(propertiesCache.readProperty(Constants.SPRING_CASSANDRA_LOCAL_DATACENTER)).thenReturn("DC1");
+        when(propertiesCache.readProperty(Constants.CONSISTENCY_LEVEL)).thenReturn("LOCAL_QUORUM");
+        when(propertiesCache.readProperty(Constants.MAX_CONNECTIONS_PER_HOST_FOR_LOCAL)).thenReturn("10");
+        when(propertiesCache.readProperty(Constants.MAX_CONNECTIONS_PER_HOST_FOR_REMOTE)).thenReturn("4");
+        when(propertiesCache.readProperty(Constants.MAX_REQUEST_PER_CONNECTION)).thenReturn("32768");
+        when(propertiesCache.readProperty(Constants.CASSANDRA_REQUEST_TIMEOUT_MS)).thenReturn("2000");
+        when(propertiesCache.readProperty(Constants.HEARTBEAT_INTERVAL)).thenReturn("60");
+        when(propertiesCache.readProperty(Constants.QUERY_LOGGER_CONSTANT_THRESHOLD)).thenReturn("300");
+        when(propertiesCache.readProperty(Constants.CASSANDRA_METRICS_LOG_INTERVAL_SECONDS)).thenReturn("0");
+        when(propertiesCache.readProperty(Constants.CASSANDRA_SPECULATIVE_EXECUTION_MAX)).thenReturn("2");
+        when(propertiesCache.readProperty(Constants.CASSANDRA_SPECULATIVE_EXECUTION_DELAY_MS)).thenReturn("50");
+        when(propertiesCache.readProperty(Constants.CASSANDRA_SLOW_REPLICA_AVOIDANCE_ENABLED)).thenReturn("false");
+        when(propertiesCache.readProperty(Constants.CASSANDRA_PROTOCOL_COMPRESSION)).thenReturn(" LZ4 ");
+
+        CassandraTuningConfig config = CassandraTuningConfig.fromProperties(propertiesCache);
+
+        assertEquals(List.of("10.0.0.1", "10.0.0.2"), config.hosts());
+        assertEquals(9142, config.port());
+        assertEquals("DC1", config.localDatacenter());
+        assertEquals(DefaultConsistencyLevel.LOCAL_QUORUM, config.consistency());
+        assertEquals(10, config.localPoolSize());
+        assertEquals(4, config.remotePoolSize());
+        assertEquals(32768, config.maxRequestsPerConnection());
+        assertEquals(Duration.ofSeconds(2), config.requestTimeout());
+        assertEquals(Duration.ofSeconds(10), config.connectTimeout());
+        assertEquals(Duration.ofSeconds(60), config.heartbeatInterval());
+        assertEquals(Duration.ofMillis(300), config.slowQueryThreshold());
+        assertEquals(Duration.ZERO, config.metricsLogInterval());
+        assertEquals(2, config.speculativeExecutionMax());
+        assertEquals(Duration.ofMillis(50), config.speculativeExecutionDelay());
+        assertFalse(config.slowReplicaAvoidance());
+        assertEquals("lz4", config.compression());
+    }
+
+    @Test
+    void testFromProperties_defaultsMissingValues() {
+        when(propertiesCache.getProperty(Constants.CASSANDRA_CONFIG_HOST)).thenReturn("localhost");
+        when(propertiesCache.readProperty(Constants.MAX_REQUEST_PER_CONNECTION)).thenReturn("-1");
+        when(propertiesCache.readProperty(Constants.CASSANDRA_PROTOCOL_COMPRESSION)).thenReturn("snappy");
+
+        CassandraTuningConfig config = CassandraTuningConfig.fromProperties(propertiesCache);
+
+        assertEquals(9042, config.port());
+        assertEquals("datacenter1", config.localDatacenter());
+        assertEquals(DefaultConsistencyLevel.LOCAL_ONE, config.consistency());
+        assertEquals(1024, config.maxRequestsPerConnection());
+        assertEquals(Duration.ofSeconds(60), config.metricsLogInterval());
+        assertEquals(1, config.speculativeExecutionMax());
+        assertTrue(config.slowReplicaAvoidance());
+        assertEquals("none", config.compression());
+    }
+
+    @Test
+    void testFromProperties_executionProfiles() {
+        when(propertiesCache.getProperty(Constants.CASSANDRA_CONFIG_HOST)).thenReturn("localhost");
+        when(propertiesCache.readProperty(Constants.CASSANDRA_EXECUTION_PROFILES)).thenReturn("fast-read, reporting");
+        when(propertiesCache.readProperty("cassandra.profile.fast-read.timeout.ms")).thenReturn("500");
+        when(propertiesCache.readProperty("cassandra.profile.reporting.consistency")).thenReturn("quorum");
+        when(propertiesCache.readProperty("cassandra.profile.reporting.retry.policy")).thenReturn("downgrading");
+
+        List<CassandraExecutionProfile> profiles = CassandraTuningConfig.fromProperties(propertiesCache)
+                .executionProfiles();
+
+        assertEquals(List.of(
+                new CassandraExecutionProfile(CassandraExecutionProfile.FAST_READ, DefaultConsistencyLevel.LOCAL_ONE,
+                        Duration.ofMillis(500), 100, DefaultRetryPolicy.class),
+                new CassandraExecutionProfile("reporting", DefaultConsistencyLevel.QUORUM, null, 0,
+                        ConsistencyDowngradingRetryPolicy.class)), profiles);
+    }
+
+    @Test
+    void testFromProperties_builtInExecutionProfiles() {
+        when(propertiesCache.getProperty(Constants.CASSANDRA_CONFIG_HOST)).thenReturn("localhost");
+
+        List<CassandraExecutionProfile> profiles = CassandraTuningConfig.fromProperties(propertiesCache)
+                .executionProfiles();
+
+        assertEquals(List.of(CassandraExecutionProfile.FAST_READ, CassandraExecutionProfile.DURABLE_WRITE,
+                CassandraExecutionProfile.BULK), profiles.stream().map(CassandraExecutionProfile::name).toList());
+        assertEquals(DefaultConsistencyLevel.LOCAL_QUORUM, profiles.get(1).consistency());
+        assertEquals(5000, profiles.get(2).pageSize());
+    }
+
+    @Test
+    void testFromProperties_blankHost() {
+        when(propertiesCache.getProperty(Constants.CASSANDRA_CONFIG_HOST)).thenReturn("");
+
+        CustomException exception = assertThrows(CustomException.class,
+                () -> CassandraTuningConfig.fromProperties(propertiesCache));
+        assertEquals("Cassandra host is not configured", exception.getMessage());
+    }
+
+    @Test
+    void testReadConsistencyLevel_valid() {
+        when(propertiesCache.readProperty(Constants.SUNBIRD_CASSANDRA_CONSISTENCY_LEVEL))
+                .thenReturn("LOCAL_QUORUM");
+
+        assertEquals(DefaultConsistencyLevel.LOCAL_QUORUM, CassandraTuningConfig.readConsistencyLevel(propertiesCache));
+    }
+
+    @Test
+    void testReadConsistencyLevel_invalid() {
+        when(propertiesCache.readProperty(Constants.SUNBIRD_CASSANDRA_CONSISTENCY_LEVEL))
+                .thenReturn("INVALID");
+
+        assertNull(CassandraTuningConfig.readConsistencyLevel(propertiesCache));
+    }
+
+    @Test
+    void testReadConsistencyLevel_applicationPropertyTakesPrecedence() {
+        when(propertiesCache.readProperty(Constants.SUNBIRD_CASSANDRA_CONSISTENCY_LEVEL)).thenReturn("ONE");
+
+        assertEquals(DefaultConsistencyLevel.ONE, CassandraTuningConfig.readConsistencyLevel(propertiesCache));
+    }
+}
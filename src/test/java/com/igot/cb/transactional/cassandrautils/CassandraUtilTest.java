@@ -2,16 +2,27 @@ package com.igot.cb.transactional.cassandrautils;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinition;
 import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+import com.datastax.oss.driver.api.core.cql.ExecutionInfo;
+import com.datastax.oss.driver.api.core.cql.PagingState;
 import com.datastax.oss.driver.api.core.cql.ResultSet;
 import com.datastax.oss.driver.api.core.cql.Row;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
@@ -42,6 +53,13 @@ class CassandraUtilTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    void testGetInsertQuery() {
+        String actual = CassandraUtil.getInsertQuery("test_keyspace", "test_table", List.of("id", "name", "status"));
+        String expected = "INSERT INTO test_keyspace.test_table(id,name,status) VALUES (?,?,?);";
+        assertEquals(expected, actual);
+    }
+
     @Test
     void testCreateResponseList() {
         when(mockResultSet.getColumnDefinitions()).thenReturn(mockColumnDefinitions);
@@ -50,14 +68,46 @@ class CassandraUtilTest {
             staticMock.when(CassandraPropertyReader::getInstance).thenReturn(mockReader);
             when(mockReader.readProperty("id")).thenReturn("id");
 
+            stubColumn("id");
             when(mockResultSet.iterator()).thenReturn(List.of(mockRow).iterator());
-            when(mockRow.getObject("id")).thenReturn("123");
+            when(mockRow.getObject(0)).thenReturn("123");
 
             List<Map<String, Object>> result = CassandraUtil.createResponse(mockResultSet);
             assertEquals(1, result.size());
+            assertEquals("123", result.get(0).get("id"));
+            verify(mockRow, never()).getObject("id");
         }
     }
 
+    @Test
+    void testRowMapperCachedPerColumnNames() {
+        CassandraUtil.RowMapperCache cache = new CassandraUtil.RowMapperCache(10);
+        ColumnDefinitions reprepared = mock(ColumnDefinitions.class);
+        stubColumn("id");
+        stubColumns(reprepared, "id");
+
+        assertSame(cache.get(mockColumnDefinitions), cache.get(reprepared));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testRowMapperCacheEvictsOldestBeyondMaxEntries() {
+        CassandraUtil.RowMapperCache cache = new CassandraUtil.RowMapperCache(2);
+        ColumnDefinitions first = mock(ColumnDefinitions.class);
+        stubColumns(first, "id");
+        CassandraUtil.RowMapper firstMapper = cache.get(first);
+        ColumnDefinitions second = mock(ColumnDefinitions.class);
+        stubColumns(second, "id", "name");
+        CassandraUtil.RowMapper secondMapper = cache.get(second);
+        ColumnDefinitions third = mock(ColumnDefinitions.class);
+        stubColumns(third, "name");
+        cache.get(third);
+
+        assertEquals(2, cache.size());
+        assertSame(secondMapper, cache.get(second));
+        assertNotSame(firstMapper, cache.get(first));
+    }
+
     @Test
     void testCreateResponseMap() {
         when(mockResultSet.getColumnDefinitions()).thenReturn(mockColumnDefinitions);
@@ -66,14 +116,64 @@ class CassandraUtilTest {
             staticMock.when(CassandraPropertyReader::getInstance).thenReturn(mockReader);
             when(mockReader.readProperty("id")).thenReturn("id");
 
+            stubColumn("id");
             when(mockResultSet.iterator()).thenReturn(List.of(mockRow).iterator());
-            when(mockRow.getObject("id")).thenReturn("123");
+            when(mockRow.getObject(0)).thenReturn("123");
 
             Map<String, Object> result = CassandraUtil.createResponse(mockResultSet, "id");
             assertEquals(1, result.size());
         }
     }
 
+    @Test
+    void testCreateResponseAsyncFetchesAllPages() {
+        AsyncResultSet firstPage = mock(AsyncResultSet.class);
+        AsyncResultSet secondPage = mock(AsyncResultSet.class);
+        when(firstPage.getColumnDefinitions()).thenReturn(mockColumnDefinitions);
+        when(firstPage.currentPage()).thenReturn(List.of(mockRow));
+        when(firstPage.hasMorePages()).thenReturn(true);
+        when(firstPage.fetchNextPage()).thenReturn(CompletableFuture.completedFuture(secondPage));
+        when(secondPage.currentPage()).thenReturn(List.of(mockRow));
+        when(secondPage.hasMorePages()).thenReturn(false);
+
+        List<Map<String, Object>> result =
+                CassandraUtil.createResponseAsync(firstPage).toCompletableFuture().join();
+        assertEquals(2, result.size());
+    }
+
+    @Test
+    void testCreatePageReadsCurrentPageOnly() {
+        AsyncResultSet page = mock(AsyncResultSet.class);
+        ExecutionInfo executionInfo = mock(ExecutionInfo.class);
+        PagingState pagingState = mock(PagingState.class);
+        when(page.getColumnDefinitions()).thenReturn(mockColumnDefinitions);
+        when(page.currentPage()).thenReturn(List.of(mockRow, mockRow));
+        when(page.hasMorePages()).thenReturn(true);
+        when(page.getExecutionInfo()).thenReturn(executionInfo);
+        when(executionInfo.getSafePagingState()).thenReturn(pagingState);
+        when(pagingState.toString()).thenReturn("next-page");
+
+        RecordPage result = CassandraUtil.createPage(page);
+
+        assertEquals(2, result.records().size());
+        assertEquals("next-page", result.pagingState());
+        assertTrue(result.hasMorePages());
+        verify(page, never()).fetchNextPage();
+    }
+
+    private void stubColumn(String name) {
+        stubColumns(mockColumnDefinitions, name);
+    }
+
+    private static void stubColumns(ColumnDefinitions columnDefinitions, String... names) {
+        when(columnDefinitions.size()).thenReturn(names.length);
+        for (int i = 0; i < names.length; i++) {
+            ColumnDefinition column = mock(ColumnDefinition.class);
+            when(column.getName()).thenReturn(CqlIdentifier.fromInternal(names[i]));
+            when(columnDefinitions.get(i)).thenReturn(column);
+        }
+    }
+
     @Test
     void testPrivateConstructor() throws Exception {
         var constructor = CassandraUtil.class.getDeclaredConstructor();
@@ -0,0 +1,127 @@
+package com.igot.cb.transactional.cassandrautils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private long now;
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        // Opens at 50% failures or 80% slow calls over the last 10 calls, once 4 are known
+        breaker = new CircuitBreaker("sunbird_courses", new CircuitBreaker.Settings(50, Duration.ofMillis(300), 80,
+                10, 4, Duration.ofSeconds(5), 2), () -> now);
+    }
+
+    private void call(long latencyNanos, boolean failed) {
+        long permit = breaker.tryAcquire();
+        assertNotEquals(CircuitBreaker.REJECTED, permit);
+        breaker.onResult(permit, latencyNanos, failed);
+    }
+
+    @Test
+    void testOpensOnFailureRate() {
+        call(FAST, false);
+        call(FAST, true);
+        call(FAST, false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        call(FAST, true);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(CircuitBreaker.REJECTED, breaker.tryAcquire());
+        assertEquals(1, breaker.getRejectedCount());
+        assertEquals(1, breaker.getOpenedCount());
+    }
+
+    @Test
+    void testOpensOnSlowCallRate() {
+        for (int i = 0; i < 4; i++) {
+            call(SLOW, false);
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(4, breaker.getSlowCallCount());
+        assertEquals(4, breaker.getSuccessCount());
+    }
+
+    @Test
+    void testOldOutcomesLeaveTheWindow() {
+        call(FAST, true);
+        for (int i = 0; i < 10; i++) {
+            call(FAST, false);
+        }
+        // 4 failures in the last 10 calls stay under the threshold
+        for (int i = 0; i < 4; i++) {
+            call(FAST, true);
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        call(FAST, true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void testHalfOpenClosesAfterSuccessfulProbes() {
+        openBreaker();
+        now += TimeUnit.SECONDS.toNanos(5);
+
+        long first = breaker.tryAcquire();
+        long second = breaker.tryAcquire();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertEquals(CircuitBreaker.REJECTED, breaker.tryAcquire());
+        breaker.onResult(first, FAST, false);
+        breaker.onResult(second, FAST, false);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        // The window starts empty again
+        call(FAST, true);
+        call(FAST, true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void testHalfOpenReopensOnFailedProbe() {
+        openBreaker();
+        now += TimeUnit.SECONDS.toNanos(5);
+
+        breaker.onResult(breaker.tryAcquire(), SLOW, false);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(CircuitBreaker.REJECTED, breaker.tryAcquire());
+        assertEquals(2, breaker.getOpenedCount());
+    }
+
+    @Test
+    void testLateOutcomesDoNotMoveTheBreaker() {
+        long late = breaker.tryAcquire();
+        openBreaker();
+        now += TimeUnit.SECONDS.toNanos(5);
+        long probe = breaker.tryAcquire();
+
+        breaker.onResult(late, FAST, true);
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.release(probe);
+        breaker.onResult(breaker.tryAcquire(), FAST, false);
+        breaker.onResult(breaker.tryAcquire(), FAST, false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    private void openBreaker() {
+        for (int i = 0; i < 4; i++) {
+            call(FAST, true);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+}
@@ -0,0 +1,119 @@
+package com.igot.cb.transactional.cassandrautils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+
+class PreparedStatementCacheTest {
+
+    private static final String QUERY = "INSERT INTO ks.table(id,name) VALUES (?,?);";
+    private static final PreparedStatementCache.StatementKey KEY =
+            new PreparedStatementCache.StatementKey("ks", "table", List.of("id", "name"));
+
+    @Test
+    void testGetAsync_PreparesOncePerShape() {
+        PreparedStatementCache cache = new PreparedStatementCache(10);
+        CqlSession session = mock(CqlSession.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(session.prepareAsync(QUERY)).thenReturn(CompletableFuture.completedFuture(statement));
+
+        assertSame(statement, cache.getAsync(session, KEY, () -> QUERY).toCompletableFuture().join());
+        assertSame(statement, cache.getAsync(session,
+                new PreparedStatementCache.StatementKey("ks", "table", List.of("id", "name")), () -> QUERY)
+                .toCompletableFuture().join());
+
+        verify(session, times(1)).prepareAsync(QUERY);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0.5, cache.getHitRate());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testGetAsync_PreparesAgainOnNewSession() {
+        PreparedStatementCache cache = new PreparedStatementCache(10);
+        CqlSession oldSession = mock(CqlSession.class);
+        CqlSession newSession = mock(CqlSession.class);
+        PreparedStatement oldStatement = mock(PreparedStatement.class);
+        PreparedStatement newStatement = mock(PreparedStatement.class);
+        when(oldSession.prepareAsync(QUERY)).thenReturn(CompletableFuture.completedFuture(oldStatement));
+        when(newSession.prepareAsync(QUERY)).thenReturn(CompletableFuture.completedFuture(newStatement));
+
+        assertSame(oldStatement, cache.getAsync(oldSession, KEY, () -> QUERY).toCompletableFuture().join());
+        assertSame(newStatement, cache.getAsync(newSession, KEY, () -> QUERY).toCompletableFuture().join());
+        assertSame(newStatement, cache.getAsync(newSession, KEY, () -> QUERY).toCompletableFuture().join());
+
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    void testGetAsync_EvictsLeastRecentlyUsedBeyondMaxEntries() {
+        PreparedStatementCache cache = new PreparedStatementCache(2);
+        CqlSession session = mock(CqlSession.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        String idQuery = "INSERT INTO ks.table(id) VALUES (?);";
+        String nameQuery = "INSERT INTO ks.table(name) VALUES (?);";
+        PreparedStatementCache.StatementKey idKey =
+                new PreparedStatementCache.StatementKey("ks", "table", List.of("id"));
+        PreparedStatementCache.StatementKey nameKey =
+                new PreparedStatementCache.StatementKey("ks", "table", List.of("name"));
+        when(session.prepareAsync(QUERY)).thenReturn(CompletableFuture.completedFuture(statement));
+        when(session.prepareAsync(idQuery)).thenReturn(CompletableFuture.completedFuture(statement));
+        when(session.prepareAsync(nameQuery)).thenReturn(CompletableFuture.completedFuture(statement));
+
+        cache.getAsync(session, KEY, () -> QUERY);
+        cache.getAsync(session, idKey, () -> idQuery);
+        // Makes KEY more recently used than idKey
+        cache.getAsync(session, KEY, () -> QUERY);
+        cache.getAsync(session, nameKey, () -> nameQuery);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        // Beyond the cap, shapes keep being cached: the evicted one is prepared again, the others are hits
+        cache.getAsync(session, nameKey, () -> nameQuery);
+        cache.getAsync(session, KEY, () -> QUERY);
+        cache.getAsync(session, idKey, () -> idQuery);
+        verify(session, times(1)).prepareAsync(QUERY);
+        verify(session, times(1)).prepareAsync(nameQuery);
+        verify(session, times(2)).prepareAsync(idQuery);
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.getEvictionCount());
+    }
+
+    @Test
+    void testGetHitRate_NoLookups() {
+        assertEquals(0, new PreparedStatementCache(1).getHitRate());
+    }
+
+    @Test
+    void testConstructor_InvalidMaxEntries() {
+        assertThrows(IllegalArgumentException.class, () -> new PreparedStatementCache(0));
+    }
+
+    @Test
+    void testGetAsync_FailedPrepareIsNotCached() {
+        PreparedStatementCache cache = new PreparedStatementCache(10);
+        CqlSession session = mock(CqlSession.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(session.prepareAsync(QUERY))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("unavailable")))
+                .thenReturn(CompletableFuture.completedFuture(statement));
+
+        assertTrue(cache.getAsync(session, KEY, () -> QUERY).toCompletableFuture().isCompletedExceptionally());
+        assertEquals(0, cache.size());
+        assertSame(statement, cache.getAsync(session, KEY, () -> QUERY).toCompletableFuture().join());
+        assertEquals(1, cache.size());
+    }
+}
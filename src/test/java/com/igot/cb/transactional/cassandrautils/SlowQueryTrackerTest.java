@@ -0,0 +1,61 @@
+package com.igot.cb.transactional.cassandrautils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.DefaultBatchType;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.servererrors.ReadTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SlowQueryTrackerTest {
+
+    private static final String QUERY = "SELECT * FROM sunbird.user WHERE id=?";
+
+    private SlowQueryTracker tracker;
+    private BoundStatement boundStatement;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new SlowQueryTracker(Duration.ofMillis(300));
+        PreparedStatement preparedStatement = mock(PreparedStatement.class);
+        when(preparedStatement.getQuery()).thenReturn(QUERY);
+        boundStatement = mock(BoundStatement.class);
+        when(boundStatement.getPreparedStatement()).thenReturn(preparedStatement);
+    }
+
+    @Test
+    void testOnSuccess_countsOnlySlowQueries() {
+        tracker.onSuccess(boundStatement, TimeUnit.MILLISECONDS.toNanos(100), null, null, "s0|1");
+        tracker.onSuccess(boundStatement, TimeUnit.MILLISECONDS.toNanos(500), null, null, "s0|2");
+
+        assertEquals(1, tracker.getSlowQueryCount());
+        assertEquals(0, tracker.getSlowFailedQueryCount());
+    }
+
+    @Test
+    void testOnError_countsSlowFailures() {
+        tracker.onError(boundStatement, mock(ReadTimeoutException.class), TimeUnit.SECONDS.toNanos(1), null, null, "s0|1");
+        tracker.onError(boundStatement, mock(ReadTimeoutException.class), TimeUnit.MILLISECONDS.toNanos(10), null, null, "s0|2");
+
+        assertEquals(1, tracker.getSlowQueryCount());
+        assertEquals(1, tracker.getSlowFailedQueryCount());
+    }
+
+    @Test
+    void testShape_omitsBoundValues() {
+        BatchStatement batch = BatchStatement.newInstance(DefaultBatchType.UNLOGGED, boundStatement, boundStatement);
+
+        assertEquals(QUERY, SlowQueryTracker.shape(boundStatement));
+        assertEquals("UNLOGGED batch of 2: " + QUERY, SlowQueryTracker.shape(batch));
+        assertEquals("SELECT now() FROM system.local", SlowQueryTracker.shape(
+                SimpleStatement.newInstance("SELECT now() FROM system.local")));
+    }
+}